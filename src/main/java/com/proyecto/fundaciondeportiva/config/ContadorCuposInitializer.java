@@ -0,0 +1,35 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Al arrancar, rellena 'matriculados_activos' de las secciones existentes antes de que se agregara la columna.
+ * Solo escribe si encuentra descuadres (en un arranque normal es una lectura), para no pisar los
+ * reservarCupo/liberarCupo en curso; la corrección habitual queda a cargo de {@link ContadorCuposReconciliacion}.
+ */
+@Component
+public class ContadorCuposInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadorCuposInitializer.class);
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        int descuadradas = seccionRepository.findDescuadresMatriculadosActivos().size();
+        if (descuadradas == 0) {
+            logger.info("Contador de cupos al día: no hay secciones que rellenar");
+            return;
+        }
+        int secciones = seccionRepository.sincronizarMatriculadosActivos();
+        logger.info("Contador de cupos rellenado: {} secciones descuadradas, {} corregidas", descuadradas, secciones);
+    }
+}
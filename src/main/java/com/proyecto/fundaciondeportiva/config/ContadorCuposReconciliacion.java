@@ -0,0 +1,42 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository.DescuadreCupos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reconciliación nocturna de 'matriculados_activos' contra el conteo real de matrículas ACTIVAS.
+ * En funcionamiento normal no debería encontrar diferencias; si las hay, las registra y las corrige.
+ */
+@Component
+public class ContadorCuposReconciliacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadorCuposReconciliacion.class);
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Scheduled(cron = "${cupos.reconciliacion.cron:0 30 3 * * *}")
+    @Transactional
+    public int reconciliar() {
+        List<DescuadreCupos> descuadres = seccionRepository.findDescuadresMatriculadosActivos();
+        if (descuadres.isEmpty()) {
+            logger.info("Reconciliación de cupos: todos los contadores coinciden");
+            return 0;
+        }
+        for (DescuadreCupos d : descuadres) {
+            logger.warn("Contador de cupos descuadrado en sección {} (ID {}): contador={}, matrículas activas={}",
+                    d.getCodigo(), d.getSeccionId(), d.getContador(), d.getReales());
+        }
+        int corregidas = seccionRepository.sincronizarMatriculadosActivos();
+        logger.warn("Reconciliación de cupos: {} secciones corregidas", corregidas);
+        return corregidas;
+    }
+}
@@ -0,0 +1,24 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tarea diaria que corre la ventana de sesiones (calendario.ventana-semanas) de las secciones vigentes.
+ * Con la ventana desactivada (0) no hace nada: las sesiones se crean para todo el periodo.
+ */
+@Component
+public class ExtensionVentanaSesiones {
+
+    @Autowired
+    private CalendarioSesionesService calendarioSesionesService;
+
+    @Scheduled(cron = "${calendario.extension.cron:0 15 2 * * *}")
+    @Transactional
+    public int extender() {
+        return calendarioSesionesService.extenderVentanas();
+    }
+}
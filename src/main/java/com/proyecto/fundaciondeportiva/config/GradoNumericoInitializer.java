@@ -0,0 +1,52 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.repository.PerfilAlumnoRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.util.GradoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Migración única: llena 'grado_numero' de alumnos y secciones guardados antes de que existiera la columna.
+ * Agrupa por texto de grado (hay pocos valores distintos), así que son pocos UPDATE aunque haya miles de filas.
+ * Los grados sin número se quedan en null y se comparan como texto.
+ */
+@Component
+public class GradoNumericoInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradoNumericoInitializer.class);
+
+    @Autowired
+    private PerfilAlumnoRepository perfilAlumnoRepository;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        int alumnos = 0;
+        for (String grado : perfilAlumnoRepository.findGradosSinNormalizar()) {
+            Integer numero = GradoUtil.aNumero(grado);
+            if (numero != null) {
+                alumnos += perfilAlumnoRepository.asignarGradoNumero(grado, numero);
+            }
+        }
+
+        int secciones = 0;
+        for (String grado : seccionRepository.findGradosSinNormalizar()) {
+            Integer numero = GradoUtil.aNumero(grado);
+            if (numero != null) {
+                secciones += seccionRepository.asignarGradoNumero(grado, numero);
+            }
+        }
+
+        if (alumnos > 0 || secciones > 0) {
+            logger.info("Grado numérico normalizado en {} alumnos y {} secciones", alumnos, secciones);
+        }
+    }
+}
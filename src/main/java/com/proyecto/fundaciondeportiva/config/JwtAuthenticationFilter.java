@@ -1,12 +1,18 @@
 package com.proyecto.fundaciondeportiva.config;
 
+import com.proyecto.fundaciondeportiva.exception.CredencialesInvalidasException;
 import com.proyecto.fundaciondeportiva.service.JwtService;
+import com.proyecto.fundaciondeportiva.service.RenovacionTokenService;
+import com.proyecto.fundaciondeportiva.service.TokenRevocacionService;
+import com.proyecto.fundaciondeportiva.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +34,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private RenovacionTokenService renovacionTokenService;
+
+    @Autowired
+    private TokenRevocacionService tokenRevocacionService;
+
+    // Si está activo, el principal se arma con los claims del token (sin consultar 'usuarios')
+    @Value("${jwt.principal-ligero:true}")
+    private boolean principalLigero;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -44,12 +63,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Los claims se resuelven una sola vez por petición y se reutilizan en cada comprobación
+            final Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // Tokens cerrados con logout (normalmente solo unas lecturas del filtro Bloom)
+                if (tokenRevocacionService.estaRevocado(claims.getId())) {
+                    throw new CredencialesInvalidasException("El token fue revocado");
+                }
+
+                UserDetails userDetails = resolverUsuario(claims, userEmail);
 
-                if (jwtService.validateToken(jwt, userDetails)) {
+                if (jwtService.validateToken(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -61,18 +87,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
                     // --- 🔄 LÓGICA DE SESIÓN DESLIZANTE (SLIDING SESSION) ---
-                    // Como el usuario hizo una actividad (petición) y el token es válido,
-                    // generamos un NUEVO token y actualizamos la cookie para darle 15 minutos más.
+                    // Solo renovamos cuando al token le queda poca vida (umbral configurable);
+                    // así una página con muchas llamadas no firma un token por petición.
 
-                    String newToken = jwtService.generateToken(userDetails);
+                    String newToken = renovacionTokenService.renovarSiCorresponde(jwt, claims, userDetails);
 
-                    Cookie newCookie = new Cookie("jwt_token", newToken);
-                    newCookie.setHttpOnly(true);
-                    newCookie.setSecure(true);
-                    newCookie.setPath("/");
-                    newCookie.setMaxAge(60*15); // 15 minutos más de vida
+                    if (newToken != null) {
+                        Cookie newCookie = new Cookie("jwt_token", newToken);
+                        newCookie.setHttpOnly(true);
+                        newCookie.setSecure(true);
+                        newCookie.setPath("/");
+                        newCookie.setMaxAge((int) (JwtService.EXPIRATION_TIME / 1000)); // 15 minutos más de vida
 
-                    response.addCookie(newCookie);
+                        response.addCookie(newCookie);
+                    }
                     // -------------------------------------------------------
                 }
             }
@@ -91,6 +119,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Obtiene el usuario de la petición. Con el modo ligero y un token que trae id/rol/versión,
+     * no se toca la BD: solo se comprueba que la versión del token siga vigente.
+     * Los tokens antiguos (sin esos claims) siguen resolviéndose contra la BD.
+     */
+    private UserDetails resolverUsuario(Claims claims, String userEmail) {
+        if (principalLigero) {
+            UsuarioPrincipal principal = jwtService.extractPrincipal(claims);
+            if (principal != null) {
+                if (!tokenVersionService.esVersionVigente(principal.getId(), principal.getTokenVersion())) {
+                    throw new CredencialesInvalidasException("El token ya no es válido para este usuario");
+                }
+                return principal;
+            }
+        }
+        return this.userDetailsService.loadUserByUsername(userEmail);
+    }
+
     private String getJwtFromCookies(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null) {
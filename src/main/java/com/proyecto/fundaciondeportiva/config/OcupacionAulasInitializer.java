@@ -0,0 +1,28 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Al arrancar, carga en memoria la ocupación semanal de las aulas con los horarios de las secciones activas.
+ */
+@Component
+public class OcupacionAulasInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcupacionAulasInitializer.class);
+
+    @Autowired
+    private OcupacionAulasService ocupacionAulasService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(String... args) {
+        int secciones = ocupacionAulasService.reconstruir();
+        logger.info("Ocupación de aulas cargada: {} secciones con aula", secciones);
+    }
+}
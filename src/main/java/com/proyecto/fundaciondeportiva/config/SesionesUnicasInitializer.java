@@ -0,0 +1,126 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.model.entity.Sesion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.*;
+
+/**
+ * Migración única: deja 'sesiones' con una sola fila por (sección, fecha, hora de inicio).
+ * ddl-auto=update no agrega la clave única si ya hay duplicados ni borra los índices que reemplaza
+ * (idx_sesion_seccion, idx_sesion_seccion_fecha), así que aquí:
+ * - se borran los duplicados sin asistencias ni recursos, conservando el que tiene datos o el más antiguo;
+ * - se crea la clave única si falta;
+ * - se borran los índices anteriores, que la clave única ya cubre.
+ * Si quedan duplicados con datos en más de una fila se avisa y la clave única no se crea.
+ */
+@Component
+public class SesionesUnicasInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SesionesUnicasInitializer.class);
+
+    private static final List<String> COLUMNAS_CLAVE = List.of("seccion_id", "fecha", "hora_inicio");
+    private static final Set<String> INDICES_REEMPLAZADOS = Set.of("idx_sesion_seccion", "idx_sesion_seccion_fecha");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Map<String, Indice> indices = leerIndices();
+        boolean tieneClaveUnica = indices.values().stream()
+                .anyMatch(indice -> indice.unico && indice.columnas.equals(COLUMNAS_CLAVE));
+
+        if (!tieneClaveUnica) {
+            if (quitarDuplicados() > 0) {
+                logger.warn("Hay sesiones duplicadas con asistencias o recursos en más de una fila; " +
+                        "no se crea la clave única {}", Sesion.CLAVE_NATURAL);
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE sesiones ADD CONSTRAINT " + Sesion.CLAVE_NATURAL +
+                    " UNIQUE (seccion_id, fecha, hora_inicio)");
+            logger.info("Clave única {} creada en sesiones", Sesion.CLAVE_NATURAL);
+        }
+
+        for (String nombre : indices.keySet()) {
+            if (INDICES_REEMPLAZADOS.contains(nombre)) {
+                jdbcTemplate.execute("ALTER TABLE sesiones DROP INDEX " + nombre);
+                logger.info("Índice {} reemplazado por la clave única de sesiones", nombre);
+            }
+        }
+    }
+
+    /**
+     * Borra las copias sin datos de cada sesión duplicada. Devuelve cuántos grupos siguen duplicados
+     * porque más de una copia tiene asistencias o recursos.
+     */
+    private int quitarDuplicados() {
+        Map<String, List<long[]>> grupos = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT s.id, s.seccion_id, s.fecha, s.hora_inicio, " +
+                        "CASE WHEN EXISTS (SELECT 1 FROM asistencias a WHERE a.sesion_id = s.id) " +
+                        "OR EXISTS (SELECT 1 FROM recursos r WHERE r.sesion_id = s.id) THEN 1 ELSE 0 END " +
+                        "FROM sesiones s WHERE EXISTS (SELECT 1 FROM sesiones o WHERE o.seccion_id = s.seccion_id " +
+                        "AND o.fecha = s.fecha AND o.hora_inicio = s.hora_inicio AND o.id <> s.id) ORDER BY s.id",
+                rs -> {
+                    String clave = rs.getLong(2) + "|" + rs.getDate(3) + "|" + rs.getTime(4);
+                    grupos.computeIfAbsent(clave, k -> new ArrayList<>()).add(new long[]{rs.getLong(1), rs.getInt(5)});
+                });
+
+        List<Object[]> borrar = new ArrayList<>();
+        int conflictos = 0;
+        for (List<long[]> copias : grupos.values()) {
+            long conDatos = copias.stream().filter(copia -> copia[1] == 1).count();
+            if (conDatos > 1) {
+                conflictos++;
+            }
+            // Se conserva la primera con datos o, si ninguna tiene, la más antigua
+            long[] conservada = copias.stream().filter(copia -> copia[1] == 1).findFirst().orElse(copias.get(0));
+            copias.stream()
+                    .filter(copia -> copia != conservada && copia[1] == 0)
+                    .forEach(copia -> borrar.add(new Object[]{copia[0]}));
+        }
+        if (!borrar.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM sesiones WHERE id = ?", borrar);
+            logger.info("Sesiones duplicadas eliminadas: {}", borrar.size());
+        }
+        return conflictos;
+    }
+
+    private Map<String, Indice> leerIndices() {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Indice>>) conexion -> {
+            DatabaseMetaData metaData = conexion.getMetaData();
+            String tabla = metaData.storesUpperCaseIdentifiers() ? "SESIONES" : "sesiones";
+            Map<String, Indice> indices = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(conexion.getCatalog(), null, tabla, false, false)) {
+                while (rs.next()) {
+                    String nombre = rs.getString("INDEX_NAME");
+                    String columna = rs.getString("COLUMN_NAME");
+                    if (nombre == null || columna == null) {
+                        continue;
+                    }
+                    boolean unico = !rs.getBoolean("NON_UNIQUE");
+                    Indice indice = indices.computeIfAbsent(nombre.toLowerCase(Locale.ROOT), n -> new Indice(unico));
+                    indice.columnas.add(rs.getShort("ORDINAL_POSITION") - 1, columna.toLowerCase(Locale.ROOT));
+                }
+            }
+            return indices;
+        });
+    }
+
+    private static final class Indice {
+        private final boolean unico;
+        private final List<String> columnas = new ArrayList<>();
+
+        Indice(boolean unico) {
+            this.unico = unico;
+        }
+    }
+}
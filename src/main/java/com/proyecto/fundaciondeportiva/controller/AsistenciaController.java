@@ -2,6 +2,7 @@ package com.proyecto.fundaciondeportiva.controller;
 
 import com.proyecto.fundaciondeportiva.dto.request.RegistroAsistenciaDTO;
 import com.proyecto.fundaciondeportiva.dto.response.AsistenciaDTO;
+import com.proyecto.fundaciondeportiva.service.IdempotenciaService;
 import com.proyecto.fundaciondeportiva.service.ServicioAsistencia;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +20,9 @@ public class AsistenciaController {
     @Autowired
     private ServicioAsistencia servicioAsistencia;
 
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
     // Obtener la "hoja de asistencia" de una sesión
     @GetMapping("/sesion/{sesionId}")
     @PreAuthorize("hasAnyRole('PROFESOR', 'ADMINISTRADOR')")
@@ -28,11 +32,16 @@ public class AsistenciaController {
     }
 
     //  MODIFICADO: Ahora el ADMIN también puede guardar/editar asistencia
+    // Con Idempotency-Key, un reintento de la misma hoja no se vuelve a guardar
+    // Responde con el resultado de cada fila (los alumnos no matriculados se rechazan sin afectar al resto)
     @PostMapping("/guardar")
     @PreAuthorize("hasAnyRole('PROFESOR', 'ADMINISTRADOR')")
-    public ResponseEntity<Void> guardarAsistencia(@Valid @RequestBody RegistroAsistenciaDTO request) {
-        servicioAsistencia.registrarAsistenciaMasiva(request);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<?> guardarAsistencia(@Valid @RequestBody RegistroAsistenciaDTO request,
+                                               @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return idempotenciaService.ejecutar(claveIdempotencia, "asistencia", email, request, () -> {
+            return ResponseEntity.ok(servicioAsistencia.registrarAsistenciaMasiva(request));
+        });
     }
 
     @GetMapping("/mi-asistencia/sesion/{sesionId}")
@@ -0,0 +1,147 @@
+package com.proyecto.fundaciondeportiva.controller;
+
+import com.proyecto.fundaciondeportiva.dto.request.AulaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.AulaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.OcupacionAulaDTO;
+import com.proyecto.fundaciondeportiva.service.ServicioAula;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Controlador REST de aulas: catálogo y consultas de ocupación.
+ */
+@RestController
+@RequestMapping("/api/aulas")
+public class AulaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AulaController.class);
+
+    @Autowired
+    private ServicioAula servicioAula;
+
+    /**
+     * Listar todas las aulas.
+     * GET /api/aulas
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<AulaDTO>> listarAulas() {
+        try {
+            return ResponseEntity.ok(servicioAula.listarAulas());
+        } catch (Exception e) {
+            logger.error("Error en endpoint listarAulas", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Crear un aula.
+     * POST /api/aulas
+     * Body: { "codigo": "A-101", "nombre": "Salón 101", "capacidad": 35 }
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<AulaDTO> crearAula(@Valid @RequestBody AulaRequestDTO request) {
+        try {
+            logger.info("Admin crea aula: {}", request.getCodigo());
+            return new ResponseEntity<>(servicioAula.crearAula(request), HttpStatus.CREATED);
+        } catch (Exception e) {
+            logger.error("Error en endpoint crearAula", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Actualizar un aula.
+     * PUT /api/aulas/{id}
+     */
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<AulaDTO> actualizarAula(@PathVariable Long id, @Valid @RequestBody AulaRequestDTO request) {
+        try {
+            logger.info("Admin actualiza aula ID: {}", id);
+            return ResponseEntity.ok(servicioAula.actualizarAula(id, request));
+        } catch (Exception e) {
+            logger.error("Error en endpoint actualizarAula", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Desactivar un aula (no se ofrece para secciones nuevas).
+     * PATCH /api/aulas/{id}/desactivar
+     */
+    @PatchMapping("/{id}/desactivar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> desactivarAula(@PathVariable Long id) {
+        try {
+            logger.info("Admin desactiva aula ID: {}", id);
+            servicioAula.desactivarAula(id);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            logger.error("Error en endpoint desactivarAula", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Eliminar un aula sin secciones.
+     * DELETE /api/aulas/{id}
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> eliminarAula(@PathVariable Long id) {
+        try {
+            logger.info("Admin elimina aula ID: {}", id);
+            servicioAula.eliminarAula(id);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            logger.error("Error en endpoint eliminarAula", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Minutos ocupados por día y porcentaje de uso de la jornada.
+     * GET /api/aulas/{id}/ocupacion
+     */
+    @GetMapping("/{id}/ocupacion")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<OcupacionAulaDTO> obtenerOcupacion(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(servicioAula.obtenerOcupacion(id));
+        } catch (Exception e) {
+            logger.error("Error en endpoint obtenerOcupacion", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Aulas libres en una franja, con aforo mínimo opcional.
+     * GET /api/aulas/disponibles?dia=MONDAY&horaInicio=08:00&horaFin=09:30&capacidadMinima=30
+     */
+    @GetMapping("/disponibles")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<AulaDTO>> listarAulasDisponibles(
+            @RequestParam DayOfWeek dia,
+            @RequestParam LocalTime horaInicio,
+            @RequestParam LocalTime horaFin,
+            @RequestParam(required = false) Integer capacidadMinima) {
+        try {
+            return ResponseEntity.ok(servicioAula.listarAulasDisponibles(dia, horaInicio, horaFin, capacidadMinima));
+        } catch (Exception e) {
+            logger.error("Error en endpoint listarAulasDisponibles", e);
+            throw e;
+        }
+    }
+}
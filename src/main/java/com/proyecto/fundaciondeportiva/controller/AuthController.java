@@ -6,13 +6,20 @@ import com.proyecto.fundaciondeportiva.dto.response.UsuarioResponse;
 import com.proyecto.fundaciondeportiva.model.entity.Usuario;
 import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
 import com.proyecto.fundaciondeportiva.service.JwtService;
+import com.proyecto.fundaciondeportiva.service.LoginService;
+import com.proyecto.fundaciondeportiva.service.RenovacionTokenService;
+import com.proyecto.fundaciondeportiva.service.TokenRevocacionService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,8 +30,10 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -32,16 +41,27 @@ public class AuthController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private TokenRevocacionService tokenRevocacionService;
+
+    @Autowired
+    private RenovacionTokenService renovacionTokenService;
+
     @PostMapping("/login")
     public ResponseEntity<LoginOutputDTO> login(
             @Valid @RequestBody LoginInputDTO loginInputDTO,
+            HttpServletRequest request,
             HttpServletResponse response
     ) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginInputDTO.getEmail(), loginInputDTO.getPassword())
+        // El BCrypt se ejecuta en el pool de login (acotado y con límite de intentos)
+        Authentication authentication = loginService.autenticar(
+                loginInputDTO.getEmail(), loginInputDTO.getPassword(), request.getRemoteAddr()
         );
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Usuario usuario = usuarioRepository.findByEmail(userDetails.getUsername()).orElseThrow();
+        // El principal ya es la entidad cargada por UsuarioService: no hace falta otra consulta
+        Usuario usuario = (userDetails instanceof Usuario u)
+                ? u
+                : usuarioRepository.findByEmail(userDetails.getUsername()).orElseThrow();
 
         // Genera token inicial (15 min)
         String token = jwtService.generateToken(userDetails);
@@ -69,7 +89,23 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<String> logout(HttpServletResponse response) {
+    public ResponseEntity<String> logout(
+            @CookieValue(name = "jwt_token", required = false) String token,
+            HttpServletResponse response
+    ) {
+        // Revocamos el token actual y los que renovó (una copia de cualquiera seguiría siendo válida hasta expirar)
+        if (token != null) {
+            try {
+                revocarCadena(jwtService.extractAllClaims(token));
+            } catch (ExpiredJwtException e) {
+                // La firma ya se verificó: el token expiró, pero los que renovó pueden seguir vigentes
+                logger.debug("Logout con token expirado (jti {})", e.getClaims().getId());
+                revocarCadena(e.getClaims());
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.warn("Logout con token inválido, no se revoca nada: {}", e.getMessage());
+            }
+        }
+
         Cookie jwtCookie = new Cookie("jwt_token", null);
         jwtCookie.setHttpOnly(true);
         jwtCookie.setSecure(true);
@@ -79,6 +115,17 @@ public class AuthController {
         return ResponseEntity.ok("Cierre de sesión exitoso");
     }
 
+    private void revocarCadena(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        tokenRevocacionService.revocar(jti, claims.getExpiration().getTime());
+        for (RenovacionTokenService.Antecesor antecesor : renovacionTokenService.antecesoresDe(jti)) {
+            tokenRevocacionService.revocar(antecesor.jti(), antecesor.expiraEn());
+        }
+    }
+
     @GetMapping("/me")
     @Transactional(readOnly = true)
     public ResponseEntity<UsuarioResponse> getCurrentUser() {
@@ -0,0 +1,81 @@
+package com.proyecto.fundaciondeportiva.controller;
+
+import com.proyecto.fundaciondeportiva.dto.request.DiaNoLectivoRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.DiaNoLectivoDTO;
+import com.proyecto.fundaciondeportiva.service.ServicioDiaNoLectivo;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST del calendario de días no lectivos (feriados, vacaciones).
+ */
+@RestController
+@RequestMapping("/api/dias-no-lectivos")
+public class DiaNoLectivoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiaNoLectivoController.class);
+
+    @Autowired
+    private ServicioDiaNoLectivo servicioDiaNoLectivo;
+
+    /**
+     * Días no lectivos de un rango de fechas.
+     * GET /api/dias-no-lectivos?desde=2025-03-01&hasta=2025-12-31
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<DiaNoLectivoDTO>> listar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        try {
+            return ResponseEntity.ok(servicioDiaNoLectivo.listar(desde, hasta));
+        } catch (Exception e) {
+            logger.error("Error en endpoint listar días no lectivos", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Registra un día no lectivo y quita las sesiones de esa fecha.
+     * POST /api/dias-no-lectivos
+     * Body: { "fecha": "2025-07-28", "motivo": "Fiestas Patrias" }
+     */
+    @PostMapping
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<DiaNoLectivoDTO> registrar(@Valid @RequestBody DiaNoLectivoRequestDTO request) {
+        try {
+            logger.info("Admin registra día no lectivo: {}", request.getFecha());
+            return new ResponseEntity<>(servicioDiaNoLectivo.registrar(request), HttpStatus.CREATED);
+        } catch (Exception e) {
+            logger.error("Error en endpoint registrar día no lectivo", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Quita un día no lectivo; las secciones vuelven a tener sesiones esa fecha.
+     * DELETE /api/dias-no-lectivos/{id}
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> eliminar(@PathVariable Long id) {
+        try {
+            logger.info("Admin elimina día no lectivo ID: {}", id);
+            servicioDiaNoLectivo.eliminar(id);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            logger.error("Error en endpoint eliminar día no lectivo", e);
+            throw e;
+        }
+    }
+}
@@ -1,22 +1,40 @@
 package com.proyecto.fundaciondeportiva.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.fundaciondeportiva.dto.request.CalificacionesSeccionRequestDTO;
 import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.CalificacionesSeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ImportacionMatriculasResponseDTO;
 import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
+import com.proyecto.fundaciondeportiva.dto.response.TicketAdmisionDTO;
 import com.proyecto.fundaciondeportiva.dto.response.UsuarioResponse;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.config.UsuarioPrincipal;
+import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.service.AdmisionMatriculaService;
+import com.proyecto.fundaciondeportiva.service.IdempotenciaService;
 import com.proyecto.fundaciondeportiva.service.ServicioMatricula;
 import com.proyecto.fundaciondeportiva.service.UsuarioService;
+import com.proyecto.fundaciondeportiva.util.NdjsonUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -35,32 +53,52 @@ public class MatriculaController {
     @Autowired
     private UsuarioService servicioUsuario;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdmisionMatriculaService admisionMatriculaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    // Con la admisión activa, /matricularse encola la solicitud y responde 202 con un ticket
+    @Value("${admision.matriculas.habilitada:false}")
+    private boolean admisionHabilitada;
+
+    // Espera máxima permitida al consultar un ticket (long polling)
+    private static final long ESPERA_MAXIMA_TICKET_MS = 30_000;
+
     // ==================== ENDPOINTS DE ALUMNO ====================
 
     /**
      * El alumno se matricula en una sección
      * POST /api/matriculas/matricularse
      * Body: { "seccionId": 1, "observaciones": "opcional" }
+     * Cabecera opcional Idempotency-Key: los reintentos con la misma clave reciben la respuesta original.
      */
     @PostMapping("/matricularse")
     @PreAuthorize("hasRole('ALUMNO')")
-    public ResponseEntity<MatriculaResponseDTO> matricularseEnSeccion(
-            @Valid @RequestBody MatriculaRequestDTO request) {
+    public ResponseEntity<?> matricularseEnSeccion(
+            @Valid @RequestBody MatriculaRequestDTO request,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia) {
         try {
             // Obtener el ID del alumno autenticado desde el JWT
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String emailAlumno = auth.getName();
+            Long alumnoId = idUsuarioAutenticado();
 
-            logger.info("Alumno {} solicita matricularse en sección ID {}", emailAlumno, request.getSeccionId());
+            logger.info("Alumno ID {} solicita matricularse en sección ID {}", alumnoId, request.getSeccionId());
 
-            // Obtener usuario completo
-            UsuarioResponse usuarioDTO = servicioUsuario.obtenerUsuarioResponsePorEmail(emailAlumno);
-            Long alumnoId = usuarioDTO.getId();
+            return idempotenciaService.ejecutar(claveIdempotencia, "matricularse", alumnoId.toString(), request, () -> {
+                // Modo admisión (apertura de matrículas): la solicitud se encola y se procesa en orden
+                if (admisionHabilitada) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(admisionMatriculaService.solicitar(alumnoId, request));
+                }
 
-            // Procesar matrícula
-            MatriculaResponseDTO matriculaCreada = servicioMatricula.matricularseEnSeccion(alumnoId, request);
+                // Procesar matrícula
+                MatriculaResponseDTO matriculaCreada = servicioMatricula.matricularseEnSeccion(alumnoId, request);
 
-            return new ResponseEntity<>(matriculaCreada, HttpStatus.CREATED);
+                return new ResponseEntity<>(matriculaCreada, HttpStatus.CREATED);
+            });
 
         } catch (Exception e) {
             logger.error("Error en endpoint matricularseEnSeccion", e);
@@ -68,6 +106,57 @@ public class MatriculaController {
         }
     }
 
+    /**
+     * Encola la matrícula en la cola de admisión de la sección y devuelve un ticket al instante.
+     * POST /api/matriculas/admision
+     * Body: { "seccionId": 1, "observaciones": "opcional" }
+     */
+    @PostMapping("/admision")
+    @PreAuthorize("hasRole('ALUMNO')")
+    public ResponseEntity<TicketAdmisionDTO> solicitarAdmision(@Valid @RequestBody MatriculaRequestDTO request) {
+        try {
+            Long alumnoId = idUsuarioAutenticado();
+            logger.info("Alumno ID {} encola matrícula en sección ID {}", alumnoId, request.getSeccionId());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(admisionMatriculaService.solicitar(alumnoId, request));
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint solicitarAdmision", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Estado de un ticket de admisión. Con 'esperaMs' la respuesta se retiene hasta que el ticket
+     * se resuelva o pase ese tiempo (máx. 30 s), sin ocupar un hilo de Tomcat mientras tanto.
+     * GET /api/matriculas/admision/{ticketId}?esperaMs=10000
+     */
+    @GetMapping("/admision/{ticketId}")
+    @PreAuthorize("hasRole('ALUMNO')")
+    public DeferredResult<ResponseEntity<TicketAdmisionDTO>> consultarAdmision(
+            @PathVariable String ticketId,
+            @RequestParam(defaultValue = "0") long esperaMs) {
+        try {
+            Long alumnoId = idUsuarioAutenticado();
+            TicketAdmisionDTO actual = admisionMatriculaService.consultar(ticketId, alumnoId);
+
+            long espera = Math.min(Math.max(esperaMs, 0), ESPERA_MAXIMA_TICKET_MS);
+            DeferredResult<ResponseEntity<TicketAdmisionDTO>> resultado = new DeferredResult<>(espera > 0 ? espera : null);
+            if (espera == 0) {
+                resultado.setResult(ResponseEntity.ok(actual));
+                return resultado;
+            }
+            resultado.onTimeout(() -> resultado.setResult(ResponseEntity.ok(admisionMatriculaService.consultar(ticketId, alumnoId))));
+            admisionMatriculaService.esperar(ticketId, alumnoId)
+                    .thenAccept(ticket -> resultado.setResult(ResponseEntity.ok(ticket)));
+            return resultado;
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint consultarAdmision", e);
+            throw e;
+        }
+    }
+
     /**
      * El alumno se retira de una sección (cambio de estado a RETIRADA).
      * Mantiene el registro pero marca como retirado.
@@ -241,6 +330,50 @@ public class MatriculaController {
         }
     }
 
+    /**
+     * El profesor registra las calificaciones de toda una sección en una sola petición.
+     * PUT /api/matriculas/seccion/{seccionId}/calificaciones
+     * Body: { "calificaciones": [ { "matriculaId": 1, "calificacion": 18.5 }, { "alumno": "12345678", "calificacion": 9 } ] }
+     * Las filas válidas se guardan aunque otras fallen; la respuesta trae el resultado de cada fila.
+     */
+    @PutMapping("/seccion/{seccionId}/calificaciones")
+    @PreAuthorize("hasRole('PROFESOR') or hasRole('ADMINISTRADOR')")
+    public ResponseEntity<CalificacionesSeccionResponseDTO> asignarCalificacionesSeccion(
+            @PathVariable Long seccionId,
+            @Valid @RequestBody CalificacionesSeccionRequestDTO request) {
+        try {
+            logger.info("Asignando {} calificaciones en la sección ID {}", request.getCalificaciones().size(), seccionId);
+
+            return ResponseEntity.ok(servicioMatricula.asignarCalificacionesSeccion(seccionId, request.getCalificaciones()));
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint asignarCalificacionesSeccion", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Igual que el anterior, desde un CSV con columnas: DNI o código de estudiante, calificación.
+     * POST /api/matriculas/seccion/{seccionId}/calificaciones/importar (multipart, campo "archivo")
+     */
+    @PostMapping(value = "/seccion/{seccionId}/calificaciones/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('PROFESOR') or hasRole('ADMINISTRADOR')")
+    public ResponseEntity<CalificacionesSeccionResponseDTO> importarCalificacionesSeccion(
+            @PathVariable Long seccionId,
+            @RequestParam("archivo") MultipartFile archivo) throws IOException {
+        try {
+            logger.info("Importando calificaciones de la sección ID {} desde {}", seccionId, archivo.getOriginalFilename());
+
+            try (InputStream csv = archivo.getInputStream()) {
+                return ResponseEntity.ok(servicioMatricula.importarCalificacionesSeccion(seccionId, csv));
+            }
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint importarCalificacionesSeccion", e);
+            throw e;
+        }
+    }
+
     // ==================== ENDPOINTS DE ADMINISTRADOR ====================
 
     /**
@@ -263,6 +396,52 @@ public class MatriculaController {
         }
     }
 
+    /**
+     * Listado paginado por cursor, con filtros opcionales.
+     * GET /api/matriculas/pagina?despuesDe=0&tamano=50&estado=ACTIVA&seccionId=1&alumnoId=2
+     * Para la siguiente página se envía 'siguienteCursor' como 'despuesDe'.
+     */
+    @GetMapping("/pagina")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<PaginaCursorDTO<MatriculaResponseDTO>> listarMatriculasPaginadas(
+            @RequestParam(required = false) Long despuesDe,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) EstadoMatricula estado,
+            @RequestParam(required = false) Long seccionId,
+            @RequestParam(required = false) Long alumnoId) {
+        try {
+            logger.info("Listando matrículas paginadas después del ID {}", despuesDe);
+
+            return ResponseEntity.ok(servicioMatricula.listarMatriculasPaginadas(despuesDe, tamano, estado, seccionId, alumnoId));
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint listarMatriculasPaginadas", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Exportación completa en NDJSON (una matrícula por línea), leída en streaming.
+     * GET /api/matriculas/exportar?estado=ACTIVA&seccionId=1&alumnoId=2
+     */
+    @GetMapping(value = "/exportar", produces = NdjsonUtil.MEDIA_TYPE)
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public void exportarMatriculas(@RequestParam(required = false) EstadoMatricula estado,
+                                   @RequestParam(required = false) Long seccionId,
+                                   @RequestParam(required = false) Long alumnoId,
+                                   HttpServletResponse response) throws IOException {
+        try {
+            logger.info("Exportando matrículas (estado: {}, sección: {}, alumno: {})", estado, seccionId, alumnoId);
+
+            servicioMatricula.exportarMatriculas(estado, seccionId, alumnoId,
+                    NdjsonUtil.escritor(objectMapper, response, "matriculas.ndjson"));
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint exportarMatriculas", e);
+            throw e;
+        }
+    }
+
     /**
      * Obtener una matrícula específica por ID.
      * GET /api/matriculas/{id}
@@ -348,4 +527,40 @@ public class MatriculaController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Importación masiva de matrículas desde un CSV.
+     * Columnas: DNI o código de estudiante, código de sección[, observaciones]. El encabezado es opcional.
+     * Las filas válidas se registran aunque otras fallen; la respuesta trae el resultado de cada fila.
+     * POST /api/matriculas/admin/importar (multipart, campo "archivo")
+     */
+    @PostMapping(value = "/admin/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ImportacionMatriculasResponseDTO> importarMatriculas(
+            @RequestParam("archivo") MultipartFile archivo) throws IOException {
+        try {
+            logger.info("Admin importa matrículas desde el archivo {} ({} bytes)",
+                    archivo.getOriginalFilename(), archivo.getSize());
+
+            try (InputStream csv = archivo.getInputStream()) {
+                return ResponseEntity.ok(servicioMatricula.importarMatriculas(csv));
+            }
+
+        } catch (Exception e) {
+            logger.error("Error en endpoint importarMatriculas", e);
+            throw e;
+        }
+    }
+
+    // Id del usuario autenticado; con el principal del JWT no hace falta consultar la base de datos
+    private Long idUsuarioAutenticado() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth.getPrincipal() instanceof UsuarioPrincipal principal) {
+            return principal.getId();
+        }
+        if (auth.getPrincipal() instanceof Usuario usuario) {
+            return usuario.getId();
+        }
+        return servicioUsuario.obtenerUsuarioResponsePorEmail(auth.getName()).getId();
+    }
+}
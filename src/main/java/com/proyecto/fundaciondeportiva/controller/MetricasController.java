@@ -0,0 +1,72 @@
+package com.proyecto.fundaciondeportiva.controller;
+
+import com.proyecto.fundaciondeportiva.service.JwtService;
+import com.proyecto.fundaciondeportiva.service.LoginService;
+import com.proyecto.fundaciondeportiva.service.RenovacionTokenService;
+import com.proyecto.fundaciondeportiva.service.TokenRevocacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador de métricas internas (solo lectura, para el administrador).
+ */
+@RestController
+@RequestMapping("/api/metricas")
+public class MetricasController {
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RenovacionTokenService renovacionTokenService;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private TokenRevocacionService tokenRevocacionService;
+
+    /**
+     * Estadísticas de la cache de tokens JWT verificados y de la firma/renovación de tokens.
+     * GET /api/metricas/jwt
+     */
+    @GetMapping("/jwt")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> metricasJwt() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("aciertosCache", jwtService.getAciertosCache());
+        metricas.put("fallosCache", jwtService.getFallosCache());
+        metricas.put("tokensEnCache", jwtService.getTamanoCache());
+        metricas.put("tokensFirmados", jwtService.getTokensFirmados());
+        metricas.put("tokensFirmadosPorMinuto", jwtService.getTokensFirmadosPorMinuto(15));
+        metricas.put("renovacionesRealizadas", renovacionTokenService.getRenovacionesRealizadas());
+        metricas.put("renovacionesReutilizadas", renovacionTokenService.getRenovacionesReutilizadas());
+        metricas.put("renovacionesOmitidas", renovacionTokenService.getRenovacionesOmitidas());
+        metricas.put("renovacionesEnMemoria", renovacionTokenService.getRenovacionesEnMemoria());
+        metricas.put("tokensRevocados", tokenRevocacionService.getTokensRevocados());
+        return ResponseEntity.ok(metricas);
+    }
+
+    /**
+     * Estado del pool de login y de los límites de intentos.
+     * GET /api/metricas/login
+     */
+    @GetMapping("/login")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> metricasLogin() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("hashingActivos", loginService.getHashingActivos());
+        metricas.put("colaActual", loginService.getColaActual());
+        metricas.put("rechazadosPorCola", loginService.getRechazadosPorCola());
+        metricas.put("rechazadosPorLimite", loginService.getRechazadosPorLimite());
+        metricas.put("cubetasActivas", loginService.getCubetasActivas());
+        return ResponseEntity.ok(metricas);
+    }
+}
@@ -1,16 +1,25 @@
 package com.proyecto.fundaciondeportiva.controller;
 
+import com.proyecto.fundaciondeportiva.dto.request.BusquedaSeccionDTO;
 import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.ValidacionHorariosRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.BusquedaSeccionesResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaSesionesDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ReporteCrucesHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionEnCursoDTO;
 import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SesionDTO;
 import com.proyecto.fundaciondeportiva.dto.response.UsuarioResponse;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
 import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
 import com.proyecto.fundaciondeportiva.service.ServicioSeccion;
+import com.proyecto.fundaciondeportiva.service.ServicioSesion;
 import com.proyecto.fundaciondeportiva.service.UsuarioService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,6 +28,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -33,7 +44,7 @@ public class SeccionController {
     private static final Logger logger = LoggerFactory.getLogger(SeccionController.class);
 
     @Autowired
-    private com.proyecto.fundaciondeportiva.repository.SesionRepository sesionRepository;
+    private ServicioSesion servicioSesion;
 
     @Autowired
     private ServicioSeccion servicioSeccion;
@@ -102,6 +113,23 @@ public class SeccionController {
         }
     }
 
+    /**
+     * Vista previa de cruces de horario del profesor antes de guardar (no crea ni modifica nada).
+     * POST /api/secciones/validar-horarios
+     * Body: { "profesorDni": "...", "seccionId": null, "horarios": [...] }
+     */
+    @PostMapping("/validar-horarios")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<ReporteCrucesHorarioDTO> validarHorarios(
+            @Valid @RequestBody ValidacionHorariosRequestDTO request) {
+        try {
+            return ResponseEntity.ok(servicioSeccion.validarHorariosProfesor(request));
+        } catch (Exception e) {
+            logger.error("Error en endpoint validarHorarios", e);
+            throw e;
+        }
+    }
+
     /**
      * Actualizar una sección existente.
      * PUT /api/secciones/{id}
@@ -291,18 +319,21 @@ public class SeccionController {
     }
 
     /**
-     * Listar secciones de un nivel académico específico.
-     * GET /api/secciones/nivel/{nivel}
+     * Listar secciones de un nivel académico específico, opcionalmente de un grado.
+     * GET /api/secciones/nivel/{nivel}?grado=3
      * Niveles: INICIAL, PRIMARIA, SECUNDARIA
      */
     @GetMapping("/nivel/{nivel}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<List<SeccionResponseDTO>> listarSeccionesPorNivel(
-            @PathVariable NivelAcademico nivel) {
+            @PathVariable NivelAcademico nivel,
+            @RequestParam(required = false) String grado) {
         try {
-            logger.info("Listando secciones para nivel: {}", nivel);
+            logger.info("Listando secciones para nivel: {} grado: {}", nivel, grado);
 
-            List<SeccionResponseDTO> secciones = servicioSeccion.listarSeccionesPorNivel(nivel);
+            List<SeccionResponseDTO> secciones = (grado == null || grado.isBlank())
+                    ? servicioSeccion.listarSeccionesPorNivel(nivel)
+                    : servicioSeccion.listarSeccionesPorNivelYGrado(nivel, grado);
 
             return ResponseEntity.ok(secciones);
 
@@ -333,27 +364,64 @@ public class SeccionController {
     }
 
     /**
-     * Obtener todas las sesiones (clases) de una sección específica.
-     * GET /api/secciones/{id}/sesiones
+     * Obtener las sesiones (clases) de una sección, opcionalmente entre dos fechas.
+     * 'resumen=true' omite los recursos de cada sesión.
+     * GET /api/secciones/{id}/sesiones?desde=2025-03-01&hasta=2025-03-31&resumen=true
      */
     @GetMapping("/{id}/sesiones")
     @PreAuthorize("isAuthenticated()") // Permitir a profes y alumnos
-    public ResponseEntity<List<com.proyecto.fundaciondeportiva.dto.response.SesionDTO>> obtenerSesionesPorSeccion(@PathVariable Long id) {
+    public ResponseEntity<List<SesionDTO>> obtenerSesionesPorSeccion(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "false") boolean resumen) {
         try {
-            logger.info("Listando sesiones para la sección ID: {}", id);
-
-            // Buscamos las sesiones ordenadas por fecha
-            List<com.proyecto.fundaciondeportiva.model.entity.Sesion> sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(id);
-
-            // Convertimos a DTOs
-            List<com.proyecto.fundaciondeportiva.dto.response.SesionDTO> respuesta = sesiones.stream()
-                    .map(com.proyecto.fundaciondeportiva.dto.response.SesionDTO::deEntidad)
-                    .collect(java.util.stream.Collectors.toList());
+            logger.info("Listando sesiones para la sección ID: {} ({} - {})", id, desde, hasta);
+            return ResponseEntity.ok(servicioSesion.listarSesionesDeSeccion(id, desde, hasta, resumen));
+        } catch (Exception e) {
+            logger.error("Error al listar sesiones", e);
+            throw e;
+        }
+    }
 
-            return ResponseEntity.ok(respuesta);
+    /**
+     * Sesiones de una sección por páginas, en orden cronológico. Para la siguiente página se envía
+     * el 'siguienteCursor' recibido como 'despuesDe'. 'resumen=true' omite los recursos.
+     * GET /api/secciones/{id}/sesiones/pagina?desde=2025-03-01&hasta=2025-06-30&tamano=50&despuesDe=...
+     */
+    @GetMapping("/{id}/sesiones/pagina")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaSesionesDTO> paginarSesionesPorSeccion(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String despuesDe,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(defaultValue = "false") boolean resumen) {
+        try {
+            return ResponseEntity.ok(servicioSesion.paginarSesionesDeSeccion(id, desde, hasta, despuesDe, tamano, resumen));
+        } catch (Exception e) {
+            logger.error("Error en endpoint paginarSesionesPorSeccion", e);
+            throw e;
+        }
+    }
 
+    /**
+     * Clases que se están dictando (por defecto, ahora mismo). Se responde desde memoria, sin consultar la BD.
+     * GET /api/secciones/en-curso?dia=MONDAY&hora=10:15
+     */
+    @GetMapping("/en-curso")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<List<SeccionEnCursoDTO>> listarClasesEnCurso(
+            @RequestParam(required = false) DayOfWeek dia,
+            @RequestParam(required = false) LocalTime hora) {
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            return ResponseEntity.ok(servicioSeccion.listarClasesEnCurso(
+                    dia != null ? dia : ahora.getDayOfWeek(),
+                    hora != null ? hora : ahora.toLocalTime()));
         } catch (Exception e) {
-            logger.error("Error al listar sesiones", e);
+            logger.error("Error en endpoint listarClasesEnCurso", e);
             throw e;
         }
     }
@@ -374,4 +442,20 @@ public class SeccionController {
         }
     }
 
+    /**
+     * Búsqueda de secciones con filtros combinables y paginación por cursor.
+     * GET /api/secciones/buscar?nivel=PRIMARIA&grado=3&conCupo=true&dia=MONDAY&horaDesde=08:00&orden=CUPOS_DISPONIBLES&tamano=50
+     * Para la siguiente página se repiten los filtros y se agrega cursor={siguienteCursor}.
+     */
+    @GetMapping("/buscar")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BusquedaSeccionesResponseDTO> buscarSecciones(@ModelAttribute BusquedaSeccionDTO filtros) {
+        try {
+            logger.info("Búsqueda de secciones: {}", filtros);
+            return ResponseEntity.ok(servicioSeccion.buscarSecciones(filtros));
+        } catch (Exception e) {
+            logger.error("Error en endpoint buscarSecciones", e);
+            throw e;
+        }
+    }
 }
@@ -1,10 +1,15 @@
 package com.proyecto.fundaciondeportiva.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.fundaciondeportiva.dto.input.UsuarioInputDTO;
 import com.proyecto.fundaciondeportiva.dto.output.UsuarioUpdateDTO;
 import com.proyecto.fundaciondeportiva.dto.output.UsuarioOutputDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
 import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
 import com.proyecto.fundaciondeportiva.service.UsuarioService;
+import com.proyecto.fundaciondeportiva.util.NdjsonUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +31,9 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping(value = "/crear", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     public ResponseEntity<UsuarioOutputDTO> crearUsuario(@Valid @RequestBody UsuarioInputDTO inputDTO) {
@@ -49,6 +58,23 @@ public class UsuarioController {
         return ResponseEntity.ok(dtos);
     }
 
+    // Paginado por cursor: para la siguiente página se envía 'siguienteCursor' como 'despuesDe'
+    @GetMapping(value = "/pagina", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<PaginaCursorDTO<UsuarioOutputDTO>> listarUsuariosPaginados(
+            @RequestParam(required = false) Long despuesDe,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) Rol rol) {
+        return ResponseEntity.ok(usuarioService.listarUsuariosPaginados(despuesDe, tamano, rol));
+    }
+
+    // Exportación completa en NDJSON (un usuario por línea), leída en streaming
+    @GetMapping(value = "/exportar", produces = NdjsonUtil.MEDIA_TYPE)
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public void exportarUsuarios(@RequestParam(required = false) Rol rol, HttpServletResponse response) throws IOException {
+        usuarioService.exportarUsuarios(rol, NdjsonUtil.escritor(objectMapper, response, "usuarios.ndjson"));
+    }
+
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     public ResponseEntity<UsuarioOutputDTO> obtenerUsuarioPorId(@PathVariable Long id) {
@@ -0,0 +1,29 @@
+package com.proyecto.fundaciondeportiva.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AulaRequestDTO {
+
+    @NotBlank(message = "El código del aula es obligatorio")
+    @Size(max = 50, message = "El código del aula no puede exceder 50 caracteres")
+    private String codigo;
+
+    @NotBlank(message = "El nombre del aula es obligatorio")
+    @Size(max = 100, message = "El nombre no puede exceder 100 caracteres")
+    private String nombre;
+
+    @NotNull(message = "La capacidad es obligatoria")
+    @Min(value = 1)
+    private Integer capacidad;
+}
@@ -0,0 +1,54 @@
+package com.proyecto.fundaciondeportiva.dto.request;
+
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.model.enums.OrdenSeccion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Filtros de la búsqueda de secciones (parámetros de GET /api/secciones/buscar).
+ * Todos son opcionales y se combinan con AND.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaSeccionDTO {
+
+    private NivelAcademico nivel;
+
+    // Se compara por número ("3º grado" == "3")
+    private String grado;
+
+    private Long cursoId;
+    private Long profesorId;
+
+    // Franja horaria: con solo 'horaDesde' busca clases en curso a esa hora;
+    // con ambas, clases que se solapan con [horaDesde, horaHasta)
+    private DayOfWeek dia;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime horaDesde;
+
+    @DateTimeFormat(pattern = "HH:mm")
+    private LocalTime horaHasta;
+
+    private Boolean conCupo;
+    private Boolean activa;
+
+    @Builder.Default
+    private OrdenSeccion orden = OrdenSeccion.CODIGO;
+
+    private boolean descendente;
+
+    // 'siguienteCursor' de la página anterior
+    private String cursor;
+
+    private Integer tamano;
+}
@@ -0,0 +1,34 @@
+package com.proyecto.fundaciondeportiva.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Calificaciones de varios alumnos de una misma sección, enviadas en una sola petición.
+ * Cada fila identifica la matrícula por 'matriculaId', 'alumnoId' o 'alumno' (DNI o código de estudiante).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalificacionesSeccionRequestDTO {
+
+    @NotEmpty(message = "Debe enviar al menos una calificación")
+    private List<CalificacionAlumnoDTO> calificaciones;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CalificacionAlumnoDTO {
+        private Long matriculaId;
+        private Long alumnoId;
+        private String alumno;
+        private Double calificacion;
+    }
+}
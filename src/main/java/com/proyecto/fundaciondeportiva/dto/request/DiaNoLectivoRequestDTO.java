@@ -0,0 +1,25 @@
+package com.proyecto.fundaciondeportiva.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaNoLectivoRequestDTO {
+
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDate fecha;
+
+    @NotBlank(message = "El motivo es obligatorio")
+    @Size(max = 150, message = "El motivo no puede exceder 150 caracteres")
+    private String motivo;
+}
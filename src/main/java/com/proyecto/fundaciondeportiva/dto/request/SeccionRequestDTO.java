@@ -32,6 +32,10 @@ public class SeccionRequestDTO {
     @NotEmpty(message = "Debe asignar al menos un horario")
     private List<HorarioDTO> horarios;
 
+    // Aula registrada: se valida que no esté ocupada en esos horarios y que tenga aforo suficiente.
+    // Si viene, 'aula' se ignora y se usa el código del aula.
+    private Long aulaId;
+
     @Size(max = 50, message = "El nombre del aula no puede exceder 50 caracteres")
     private String aula;
 
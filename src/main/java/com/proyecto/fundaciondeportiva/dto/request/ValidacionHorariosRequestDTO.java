@@ -0,0 +1,31 @@
+package com.proyecto.fundaciondeportiva.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Vista previa de cruces antes de crear o editar una sección.
+ * 'seccionId' es la sección que se edita (sus propios horarios no cuentan); null al crear.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValidacionHorariosRequestDTO {
+
+    @NotBlank(message = "El DNI del profesor es obligatorio")
+    private String profesorDni;
+
+    private Long seccionId;
+
+    @NotEmpty(message = "Debe indicar al menos un horario")
+    @Valid
+    private List<HorarioDTO> horarios;
+}
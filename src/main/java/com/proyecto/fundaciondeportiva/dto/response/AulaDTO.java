@@ -0,0 +1,29 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.entity.Aula;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AulaDTO {
+    private Long id;
+    private String codigo;
+    private String nombre;
+    private Integer capacidad;
+    private Boolean activa;
+
+    public static AulaDTO deEntidad(Aula aula) {
+        return AulaDTO.builder()
+                .id(aula.getId())
+                .codigo(aula.getCodigo())
+                .nombre(aula.getNombre())
+                .capacidad(aula.getCapacidad())
+                .activa(aula.getActiva())
+                .build();
+    }
+}
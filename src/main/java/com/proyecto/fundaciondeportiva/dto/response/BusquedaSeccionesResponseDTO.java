@@ -0,0 +1,23 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de la búsqueda de secciones. Para la siguiente se envía 'siguienteCursor' como 'cursor'
+ * con los mismos filtros y orden; es null cuando no hay más resultados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusquedaSeccionesResponseDTO {
+
+    private List<SeccionResponseDTO> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
@@ -0,0 +1,26 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reporte de una carga de calificaciones por sección.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalificacionesSeccionResponseDTO {
+
+    private Long seccionId;
+    private int totalFilas;
+    private int actualizadas;
+    private int rechazadas;
+    private long duracionMs;
+
+    private List<ResultadoFilaCalificacionDTO> filas;
+}
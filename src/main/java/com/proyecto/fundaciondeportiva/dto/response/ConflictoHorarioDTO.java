@@ -0,0 +1,31 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Un horario pedido que se cruza con otro: con una clase del profesor en otra sección,
+ * o con otro horario de la misma solicitud (en ese caso 'codigoSeccion' es null).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConflictoHorarioDTO {
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+
+    // Franja con la que choca
+    private LocalTime horaInicioOcupada;
+    private LocalTime horaFinOcupada;
+    private Long seccionId;
+    private String codigoSeccion;
+
+    private String descripcion;
+}
@@ -0,0 +1,31 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.entity.DiaNoLectivo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaNoLectivoDTO {
+    private Long id;
+    private LocalDate fecha;
+    private String motivo;
+
+    // Solo al registrar: sesiones de esa fecha que se borraron y las que se conservaron por tener asistencias o recursos
+    private Integer sesionesEliminadas;
+    private Integer sesionesConservadas;
+
+    public static DiaNoLectivoDTO deEntidad(DiaNoLectivo dia) {
+        return DiaNoLectivoDTO.builder()
+                .id(dia.getId())
+                .fecha(dia.getFecha())
+                .motivo(dia.getMotivo())
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reporte de una importación masiva de matrículas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionMatriculasResponseDTO {
+
+    private int totalFilas;
+    private int creadas;
+    private int rechazadas;
+    private long duracionMs;
+
+    private List<ResultadoFilaImportacionDTO> filas;
+}
@@ -0,0 +1,85 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fila plana de una matrícula, construida directamente por la consulta (sin cargar entidades).
+ * La usan los listados paginados y la exportación; los horarios se agregan aparte.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatriculaFilaDTO {
+
+    private Long id;
+    private EstadoMatricula estado;
+    private LocalDateTime fechaMatricula;
+    private LocalDateTime fechaRetiro;
+    private Double calificacionFinal;
+    private String observaciones;
+
+    private Long alumnoId;
+    private String nombresAlumno;
+    private String apellidosAlumno;
+    private String dniAlumno;
+    private String codigoEstudiante;
+    private NivelAcademico nivelAlumno;
+    private String gradoAlumno;
+
+    private Long seccionId;
+    private String codigoSeccion;
+    private String nombreSeccion;
+    private String aulaSeccion;
+    private LocalDate fechaInicioSeccion;
+    private LocalDate fechaFinSeccion;
+
+    private Long cursoId;
+    private String codigoCurso;
+    private String tituloCurso;
+    private NivelAcademico nivelCurso;
+
+    private Long profesorId;
+    private String nombresProfesor;
+    private String apellidosProfesor;
+    private String dniProfesor;
+
+    public MatriculaResponseDTO aResponse(List<HorarioDTO> horarios) {
+        return MatriculaResponseDTO.builder()
+                .id(id)
+                .estado(estado)
+                .fechaMatricula(fechaMatricula)
+                .fechaRetiro(fechaRetiro)
+                .calificacionFinal(calificacionFinal)
+                .observaciones(observaciones)
+                .alumnoId(alumnoId)
+                .nombreAlumno(nombresAlumno + " " + apellidosAlumno)
+                .dniAlumno(dniAlumno)
+                .codigoEstudiante(codigoEstudiante)
+                .nivelAlumno(nivelAlumno)
+                .gradoAlumno(gradoAlumno)
+                .seccionId(seccionId)
+                .codigoSeccion(codigoSeccion)
+                .nombreSeccion(nombreSeccion)
+                .horarios(horarios)
+                .aulaSeccion(aulaSeccion)
+                .fechaInicioSeccion(fechaInicioSeccion)
+                .fechaFinSeccion(fechaFinSeccion)
+                .cursoId(cursoId)
+                .codigoCurso(codigoCurso)
+                .tituloCurso(tituloCurso)
+                .nivelCurso(nivelCurso)
+                .profesorId(profesorId)
+                .nombreProfesor(nombresProfesor + " " + apellidosProfesor)
+                .dniProfesor(dniProfesor)
+                .build();
+    }
+}
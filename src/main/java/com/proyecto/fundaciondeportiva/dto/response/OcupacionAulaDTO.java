@@ -0,0 +1,32 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * Uso semanal de un aula, calculado sobre la ocupación en memoria (franjas de 5 minutos).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OcupacionAulaDTO {
+    private Long aulaId;
+    private String codigo;
+    private Integer capacidad;
+
+    // Minutos con clase por día, en todo el día
+    private Map<DayOfWeek, Integer> minutosPorDia;
+    private Integer minutosSemana;
+
+    // Porcentaje de la jornada (lunes a sábado, entre jornadaInicio y jornadaFin) con clase
+    private LocalTime jornadaInicio;
+    private LocalTime jornadaFin;
+    private Double porcentajeUso;
+}
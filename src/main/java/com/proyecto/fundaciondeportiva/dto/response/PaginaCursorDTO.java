@@ -0,0 +1,26 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por cursor (keyset).
+ * Para pedir la siguiente página se envía 'siguienteCursor' como parámetro 'despuesDe'.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> contenido;
+
+    // Id del último elemento de la página; null si no hay más páginas
+    private Long siguienteCursor;
+
+    private boolean hayMas;
+}
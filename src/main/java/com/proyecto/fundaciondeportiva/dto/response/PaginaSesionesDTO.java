@@ -0,0 +1,24 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página del calendario de sesiones de una sección. Para la siguiente se envía 'siguienteCursor'
+ * como 'despuesDe' con la misma ventana de fechas; es null cuando no hay más sesiones.
+ * El cursor es la fecha y hora de inicio de la última sesión (ej: "2025-03-10T08:00").
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaSesionesDTO {
+
+    private List<SesionDTO> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
@@ -0,0 +1,26 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reporte del guardado de la hoja de asistencia de una sesión.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroAsistenciaResponseDTO {
+
+    private Long sesionId;
+    private int totalFilas;
+    private int registradas;
+    private int rechazadas;
+    private long duracionMs;
+
+    private List<ResultadoFilaAsistenciaDTO> filas;
+}
@@ -0,0 +1,21 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de validar los horarios de una sección contra la ocupación del profesor.
+ * Incluye todos los cruces, no solo el primero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteCrucesHorarioDTO {
+    private boolean sinCruces;
+    private List<ConflictoHorarioDTO> conflictos;
+}
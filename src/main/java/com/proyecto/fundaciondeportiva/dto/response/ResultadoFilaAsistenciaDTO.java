@@ -0,0 +1,23 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.enums.EstadoAsistencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de la hoja de asistencia de una sesión.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaAsistenciaDTO {
+
+    private int fila; // Posición en la lista de detalles (1 = primera)
+    private Long alumnoId;
+    private EstadoAsistencia estado;
+    private boolean exito;
+    private String mensaje;
+}
@@ -0,0 +1,25 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila de la carga de calificaciones de una sección.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaCalificacionDTO {
+
+    private int fila; // Posición en la lista o línea del CSV (1 = primera)
+    private Long matriculaId;
+    private String alumno; // Identificador tal como vino en la petición
+    private Double calificacion;
+    private EstadoMatricula estado; // Estado de la matrícula tras aplicar la nota
+    private boolean exito;
+    private String mensaje;
+}
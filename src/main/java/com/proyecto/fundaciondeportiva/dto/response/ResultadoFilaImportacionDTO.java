@@ -0,0 +1,22 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una fila del CSV de importación de matrículas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoFilaImportacionDTO {
+
+    private int fila; // Número de línea en el archivo (1 = primera línea)
+    private String alumno; // DNI o código de estudiante tal como vino en el CSV
+    private String codigoSeccion;
+    private boolean exito;
+    private String mensaje;
+}
@@ -0,0 +1,46 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.model.entity.Seccion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Clase que se está dictando: la sección y el bloque horario en curso.
+ * Vista reducida para la pantalla de administración (sin contadores de matrícula).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeccionEnCursoDTO {
+    private Long seccionId;
+    private String codigo;
+    private String nombre;
+    private String aula;
+    private String tituloCurso;
+    private String nombreProfesor;
+    private DayOfWeek diaSemana;
+    private LocalTime horaInicio;
+    private LocalTime horaFin;
+
+    public static SeccionEnCursoDTO deHorario(Horario horario) {
+        Seccion seccion = horario.getSeccion();
+        return SeccionEnCursoDTO.builder()
+                .seccionId(seccion.getId())
+                .codigo(seccion.getCodigo())
+                .nombre(seccion.getNombre())
+                .aula(seccion.getAula())
+                .tituloCurso(seccion.getCurso().getTitulo())
+                .nombreProfesor(seccion.getProfesor().getNombres() + " " + seccion.getProfesor().getApellidos())
+                .diaSemana(horario.getDiaSemana())
+                .horaInicio(horario.getHoraInicio())
+                .horaFin(horario.getHoraFin())
+                .build();
+    }
+}
@@ -25,6 +25,7 @@ public class SeccionResponseDTO {
     private NivelAcademico nivelSeccion;
     private String gradoSeccion;
     private String aula;
+    private Long aulaId;
     private Integer capacidad;
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
@@ -71,6 +72,8 @@ public class SeccionResponseDTO {
                 .gradoSeccion(seccion.getGradoSeccion())
                 .horarios(horariosDTO)
                 .aula(seccion.getAula())
+                // El id sale del proxy sin cargar el aula
+                .aulaId(seccion.getAulaAsignada() != null ? seccion.getAulaAsignada().getId() : null)
                 .capacidad(seccion.getCapacidad())
                 .fechaInicio(seccion.getFechaInicio())
                 .fechaFin(seccion.getFechaFin())
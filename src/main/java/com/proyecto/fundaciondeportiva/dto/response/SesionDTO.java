@@ -23,6 +23,8 @@ public class SesionDTO {
     private LocalDate fecha;
     private LocalTime horaInicio;
     private LocalTime horaFin;
+
+    // Recursos (null en modo resumen): en listados se cargan todos juntos, no sesión por sesión
     private List<RecursoDTO> recursos;
 
     public static SesionDTO deEntidad(Sesion sesion) {
@@ -33,7 +35,10 @@ public class SesionDTO {
                     .map(RecursoDTO::deEntidad)
                     .collect(Collectors.toList());
         }
+        return deEntidad(sesion, recursosDTO);
+    }
 
+    public static SesionDTO deEntidad(Sesion sesion, List<RecursoDTO> recursosDTO) {
         return SesionDTO.builder()
                 .id(sesion.getId())
                 .tema(sesion.getTema())
@@ -0,0 +1,33 @@
+package com.proyecto.fundaciondeportiva.dto.response;
+
+import com.proyecto.fundaciondeportiva.model.enums.EstadoTicketAdmision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de una solicitud de matrícula en la cola de admisión.
+ * 'matricula' solo se llena cuando el estado es ACEPTADA; 'mensaje' explica un rechazo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketAdmisionDTO {
+
+    private String ticketId;
+    private Long seccionId;
+    private EstadoTicketAdmision estado;
+
+    // Solicitudes delante de esta en la cola de la sección (solo EN_COLA)
+    private Integer posicion;
+
+    private LocalDateTime fechaSolicitud;
+    private LocalDateTime fechaResolucion;
+
+    private MatriculaResponseDTO matricula;
+    private String mensaje;
+}
@@ -0,0 +1,15 @@
+package com.proyecto.fundaciondeportiva.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Excepción personalizada para errores 429 (TOO_MANY_REQUESTS).
+ * Se lanza cuando se supera un límite de intentos o el servidor está saturado.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class DemasiadasSolicitudesException extends RuntimeException {
+    public DemasiadasSolicitudesException(String message) {
+        super(message);
+    }
+}
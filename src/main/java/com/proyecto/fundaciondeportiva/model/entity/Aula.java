@@ -0,0 +1,38 @@
+package com.proyecto.fundaciondeportiva.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Ambiente físico donde se dictan las clases (salón, cancha, laboratorio).
+ * Dos secciones activas no pueden ocupar la misma aula a la misma hora.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "aulas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_aula_codigo", columnNames = "codigo")
+})
+public class Aula {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Ej: "A-101", "CANCHA-2"; es lo que se muestra como aula de la sección
+    @Column(nullable = false, length = 50)
+    private String codigo;
+
+    @Column(nullable = false, length = 100)
+    private String nombre;
+
+    // Aforo: ninguna sección asignada puede tener más capacidad
+    @Column(nullable = false)
+    private Integer capacidad;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean activa = true;
+}
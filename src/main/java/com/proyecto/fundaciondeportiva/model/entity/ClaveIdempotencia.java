@@ -0,0 +1,40 @@
+package com.proyecto.fundaciondeportiva.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada para una cabecera Idempotency-Key (respaldo opcional del almacén en memoria).
+ * Permite responder reintentos después de un reinicio o desde otra instancia.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "claves_idempotencia", indexes = {
+        @Index(name = "idx_idempotencia_expiracion", columnList = "fecha_expiracion")
+})
+public class ClaveIdempotencia {
+
+    // Operación + usuario + clave enviada por el cliente
+    @Id
+    @Column(length = 191)
+    private String clave;
+
+    // SHA-256 del cuerpo de la petición original
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "estado_http", nullable = false)
+    private Integer estadoHttp;
+
+    // Cuerpo JSON de la respuesta (null si no tenía cuerpo)
+    @Column(columnDefinition = "TEXT")
+    private String cuerpo;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+}
@@ -0,0 +1,32 @@
+package com.proyecto.fundaciondeportiva.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Día sin clases para toda la institución (feriado, vacaciones, jornada especial).
+ * La generación de sesiones no crea sesiones en estas fechas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "dias_no_lectivos", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_dia_no_lectivo_fecha", columnNames = "fecha")
+})
+public class DiaNoLectivo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    // Ej: "Fiestas Patrias"
+    @Column(nullable = false, length = 150)
+    private String motivo;
+}
@@ -18,7 +18,9 @@ import java.time.LocalTime;
 @Entity
 @Table(name = "horarios", indexes = {
         @Index(name = "idx_seccion_dia", columnList = "seccion_id, dia_semana"),
-        @Index(name = "idx_profesor_horario", columnList = "seccion_id, dia_semana, hora_inicio")
+        @Index(name = "idx_profesor_horario", columnList = "seccion_id, dia_semana, hora_inicio"),
+        // Búsqueda de secciones por franja horaria
+        @Index(name = "idx_horario_dia_hora", columnList = "dia_semana, hora_inicio, hora_fin, seccion_id")
 })
 public class Horario {
 
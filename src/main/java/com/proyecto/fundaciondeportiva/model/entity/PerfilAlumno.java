@@ -2,6 +2,7 @@ package com.proyecto.fundaciondeportiva.model.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.util.GradoUtil;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,11 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "perfiles_alumno")
+@Table(name = "perfiles_alumno", indexes = {
+        @Index(name = "idx_perfil_alumno_dni", columnList = "dni"),
+        @Index(name = "idx_perfil_alumno_codigo", columnList = "codigo_estudiante"),
+        @Index(name = "idx_perfil_alumno_nivel_grado", columnList = "nivel, grado_numero")
+})
 public class PerfilAlumno {
 
     @Id
@@ -33,7 +38,18 @@ public class PerfilAlumno {
     @Column(length = 20, nullable = false)
     private String grado;
 
+    // Número del grado extraído de 'grado' (null si el texto no trae número); se calcula al guardar
+    @Column(name = "grado_numero")
+    @JsonIgnore
+    private Integer gradoNumero;
+
     @OneToOne(mappedBy = "perfilAlumno")
     @JsonIgnore
     private Usuario usuario;
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void normalizarGrado() {
+        this.gradoNumero = GradoUtil.aNumero(grado);
+    }
+}
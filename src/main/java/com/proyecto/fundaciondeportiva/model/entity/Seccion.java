@@ -1,12 +1,15 @@
 package com.proyecto.fundaciondeportiva.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
-import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.util.GradoUtil;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -22,10 +25,22 @@ import java.util.Set;
 @Entity
 @Table(name = "secciones", uniqueConstraints = {
         @UniqueConstraint(columnNames = "codigo")
+}, indexes = {
+        @Index(name = "idx_seccion_nivel_grado", columnList = "nivel_seccion, grado_numero"),
+        @Index(name = "idx_seccion_curso_activa", columnList = "curso_id, activa"),
+        @Index(name = "idx_seccion_profesor_activa", columnList = "profesor_id, activa")
 })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Lo que necesita SeccionResponseDTO además de los horarios: curso y profesor con su perfil.
+// Son asociaciones a uno, así que el JOIN no repite filas y sirve también con paginación.
+@NamedEntityGraph(name = Seccion.GRAFO_LISTADO, attributeNodes = {
+        @NamedAttributeNode("curso"),
+        @NamedAttributeNode(value = "profesor", subgraph = "profesor")
+}, subgraphs = @NamedSubgraph(name = "profesor", attributeNodes = @NamedAttributeNode("perfilProfesor")))
 public class Seccion {
 
+    public static final String GRAFO_LISTADO = "Seccion.listado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,8 +58,14 @@ public class Seccion {
     @Column(name = "grado_seccion", length = 20, nullable = false)
     private String gradoSeccion;
 
+    // Número del grado extraído de 'gradoSeccion'; se calcula al guardar
+    @Column(name = "grado_numero")
+    private Integer gradoNumero;
+
     // ❌ ELIMINADO: private Turno turno;
 
+    // Código del aula que se muestra en listados y exportaciones. Con 'aulaAsignada' se copia de ella;
+    // sin aula registrada queda como texto libre (secciones anteriores a la tabla de aulas).
     @Column(length = 50)
     private String aula;
 
@@ -52,6 +73,13 @@ public class Seccion {
     @Builder.Default
     private Integer capacidad = 30;
 
+    // Contador de matrículas ACTIVAS. Solo lo modifican los UPDATE condicionales de
+    // SeccionRepository (reservarCupo/liberarCupo) y las cargas por lotes, por eso Hibernate no lo
+    // incluye en sus UPDATE. ContadorCuposReconciliacion lo verifica cada noche.
+    @Column(name = "matriculados_activos", nullable = false, updatable = false)
+    @Builder.Default
+    private Integer matriculadosActivos = 0;
+
     @Column(name = "fecha_inicio", nullable = false)
     private LocalDate fechaInicio;
 
@@ -82,7 +110,18 @@ public class Seccion {
     @EqualsAndHashCode.Exclude
     private Usuario profesor;
 
-    @OneToMany(mappedBy = "seccion", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Aula registrada: la valida OcupacionAulasService contra cruces de horario y aforo
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "aula_id")
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Aula aulaAsignada;
+
+    // LAZY: quien llega a la sección desde una sesión o matrícula no carga horarios que no usa.
+    // SUBSELECT: al primer acceso, los horarios de todas las secciones de la misma consulta llegan en una sola consulta más
+    @OneToMany(mappedBy = "seccion", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Fetch(FetchMode.SUBSELECT)
     @JsonManagedReference
     @Builder.Default
     @ToString.Exclude
@@ -103,17 +142,21 @@ public class Seccion {
         horario.setSeccion(this);
     }
 
+    // Lee el contador materializado: no inicializa la colección 'matriculas'
     public int getNumeroEstudiantesMatriculados() {
-        if (matriculas == null) return 0;
-        return (int) matriculas.stream()
-                .filter(m -> m.getEstado() == EstadoMatricula.ACTIVA)
-                .count();
+        return matriculadosActivos != null ? matriculadosActivos : 0;
     }
 
     public boolean tieneCupoDisponible() {
         return getNumeroEstudiantesMatriculados() < capacidad;
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalizarGrado() {
+        this.gradoNumero = GradoUtil.aNumero(gradoSeccion);
+    }
+
     public boolean estaEnPeriodoActivo() {
         LocalDate hoy = LocalDate.now();
         return !hoy.isBefore(fechaInicio) && !hoy.isAfter(fechaFin);
@@ -15,11 +15,16 @@ import java.util.Set;
 @AllArgsConstructor
 @Entity
 @Table(name = "sesiones", indexes = {
-        @Index(name = "idx_sesion_fecha", columnList = "fecha"),
-        @Index(name = "idx_sesion_seccion", columnList = "seccion_id")
+        @Index(name = "idx_sesion_fecha", columnList = "fecha")
+}, uniqueConstraints = {
+        // Clave natural de la sesión (sección, fecha, hora de inicio): sincronización del calendario y listados por rango.
+        // Sus filas las crea CalendarioSesionesService; SesionesUnicasInitializer migra las bases anteriores.
+        @UniqueConstraint(name = Sesion.CLAVE_NATURAL, columnNames = {"seccion_id", "fecha", "hora_inicio"})
 })
 public class Sesion {
 
+    public static final String CLAVE_NATURAL = "uk_sesion_seccion_fecha_hora";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -55,6 +55,12 @@ public class Usuario implements UserDetails {
     @Column(name = "fecha_creacion", updatable = false, nullable = false)
     private LocalDateTime fechaCreacion;
 
+    // Versión de los tokens emitidos: al incrementarla, los JWT anteriores dejan de ser válidos
+    @Column(name = "token_version")
+    @Builder.Default
+    @JsonIgnore
+    private Integer tokenVersion = 0;
+
     // --- Relaciones 1:1 con Perfiles ---
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "perfil_alumno_id", referencedColumnName = "id")
@@ -0,0 +1,11 @@
+package com.proyecto.fundaciondeportiva.model.enums;
+
+/**
+ * Estados de una solicitud de matrícula encolada en la admisión por sección.
+ */
+public enum EstadoTicketAdmision {
+    EN_COLA,     // Esperando su turno en la cola de la sección
+    PROCESANDO,  // Un worker está registrando la matrícula
+    ACEPTADA,    // Matrícula creada
+    RECHAZADA    // No se pudo matricular (sin cupo, cruce de horario, etc.)
+}
@@ -0,0 +1,12 @@
+package com.proyecto.fundaciondeportiva.model.enums;
+
+/**
+ * Campos por los que se puede ordenar la búsqueda de secciones.
+ * El id se usa siempre como desempate, así que el orden es estable para paginar por cursor.
+ */
+public enum OrdenSeccion {
+    CODIGO,
+    NOMBRE,
+    FECHA_INICIO,
+    CUPOS_DISPONIBLES
+}
@@ -0,0 +1,19 @@
+package com.proyecto.fundaciondeportiva.repository;
+
+import com.proyecto.fundaciondeportiva.model.entity.Aula;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AulaRepository extends JpaRepository<Aula, Long> {
+
+    List<Aula> findAllByOrderByCodigoAsc();
+
+    List<Aula> findByActivaTrueAndCapacidadGreaterThanEqualOrderByCapacidadAsc(Integer capacidad);
+
+    boolean existsByCodigo(String codigo);
+
+    boolean existsByCodigoAndIdNot(String codigo, Long id);
+}
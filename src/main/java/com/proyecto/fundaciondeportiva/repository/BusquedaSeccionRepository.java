@@ -0,0 +1,120 @@
+package com.proyecto.fundaciondeportiva.repository;
+
+import com.proyecto.fundaciondeportiva.dto.request.BusquedaSeccionDTO;
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.model.entity.Seccion;
+import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.model.enums.OrdenSeccion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Búsqueda de secciones con filtros combinables, en una sola consulta (Criteria API).
+ * Solo se agregan al WHERE los filtros presentes, así cada combinación usa su índice compuesto.
+ * Paginación por cursor (keyset): "(clave, id) > (último valor, último id)" en el orden pedido.
+ */
+@Repository
+public class BusquedaSeccionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param gradoNumero   grado ya normalizado (null = sin filtro)
+     * @param valorCursor   valor de la clave de orden de la última fila de la página anterior (null = primera página)
+     * @param idCursor      id de esa última fila
+     * @param limite        máximo de filas a devolver
+     */
+    public List<Seccion> buscar(BusquedaSeccionDTO filtros, Integer gradoNumero,
+                                Comparable<?> valorCursor, Long idCursor, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Seccion> cq = cb.createQuery(Seccion.class);
+        Root<Seccion> s = cq.from(Seccion.class);
+
+        // Curso y profesor en la misma consulta (son ManyToOne: no multiplican filas)
+        s.fetch("curso");
+        Fetch<Seccion, Usuario> profesor = s.fetch("profesor");
+        profesor.fetch("perfilProfesor", JoinType.LEFT);
+
+        List<Predicate> where = new ArrayList<>();
+        if (filtros.getNivel() != null) {
+            where.add(cb.equal(s.get("nivelSeccion"), filtros.getNivel()));
+        }
+        if (gradoNumero != null) {
+            where.add(cb.equal(s.get("gradoNumero"), gradoNumero));
+        }
+        if (filtros.getCursoId() != null) {
+            where.add(cb.equal(s.get("curso").get("id"), filtros.getCursoId()));
+        }
+        if (filtros.getProfesorId() != null) {
+            where.add(cb.equal(s.get("profesor").get("id"), filtros.getProfesorId()));
+        }
+        if (filtros.getActiva() != null) {
+            where.add(cb.equal(s.get("activa"), filtros.getActiva()));
+        }
+        if (filtros.getConCupo() != null) {
+            Path<Integer> matriculados = s.get("matriculadosActivos");
+            Path<Integer> capacidad = s.get("capacidad");
+            where.add(filtros.getConCupo() ? cb.lessThan(matriculados, capacidad) : cb.greaterThanOrEqualTo(matriculados, capacidad));
+        }
+        if (filtros.getDia() != null || filtros.getHoraDesde() != null) {
+            where.add(cb.exists(horarioEnFranja(cb, cq, s, filtros)));
+        }
+
+        Expression<? extends Comparable<?>> clave = claveDeOrden(cb, s, filtros.getOrden());
+        Path<Long> id = s.get("id");
+        if (valorCursor != null && idCursor != null) {
+            where.add(despuesDe(cb, clave, valorCursor, id, idCursor, filtros.isDescendente()));
+        }
+
+        cq.select(s).where(where.toArray(new Predicate[0]));
+        cq.orderBy(filtros.isDescendente()
+                ? List.of(cb.desc(clave), cb.desc(id))
+                : List.of(cb.asc(clave), cb.asc(id)));
+
+        return entityManager.createQuery(cq).setMaxResults(limite).getResultList();
+    }
+
+    private static Subquery<Long> horarioEnFranja(CriteriaBuilder cb, CriteriaQuery<?> cq, Root<Seccion> s,
+                                                  BusquedaSeccionDTO filtros) {
+        Subquery<Long> sq = cq.subquery(Long.class);
+        Root<Horario> h = sq.from(Horario.class);
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.equal(h.get("seccion"), s));
+        if (filtros.getDia() != null) {
+            condiciones.add(cb.equal(h.get("diaSemana"), filtros.getDia()));
+        }
+        if (filtros.getHoraDesde() != null) {
+            if (filtros.getHoraHasta() != null) {
+                condiciones.add(cb.lessThan(h.get("horaInicio"), filtros.getHoraHasta()));
+            } else {
+                condiciones.add(cb.lessThanOrEqualTo(h.get("horaInicio"), filtros.getHoraDesde()));
+            }
+            condiciones.add(cb.greaterThan(h.get("horaFin"), filtros.getHoraDesde()));
+        }
+        return sq.select(h.get("id")).where(condiciones.toArray(new Predicate[0]));
+    }
+
+    private static Expression<? extends Comparable<?>> claveDeOrden(CriteriaBuilder cb, Root<Seccion> s, OrdenSeccion orden) {
+        return switch (orden == null ? OrdenSeccion.CODIGO : orden) {
+            case CODIGO -> s.get("codigo");
+            case NOMBRE -> s.get("nombre");
+            case FECHA_INICIO -> s.get("fechaInicio");
+            case CUPOS_DISPONIBLES -> cb.diff(s.<Integer>get("capacidad"), s.<Integer>get("matriculadosActivos"));
+        };
+    }
+
+    // (clave > v) OR (clave = v AND id > idCursor), o con '<' si el orden es descendente
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate despuesDe(CriteriaBuilder cb, Expression clave, Comparable valor,
+                                       Path<Long> id, Long idCursor, boolean descendente) {
+        Predicate siguienteClave = descendente ? cb.lessThan(clave, valor) : cb.greaterThan(clave, valor);
+        Predicate siguienteId = descendente ? cb.lessThan(id, idCursor) : cb.greaterThan(id, idCursor);
+        return cb.or(siguienteClave, cb.and(cb.equal(clave, valor), siguienteId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.proyecto.fundaciondeportiva.repository;
+
+import com.proyecto.fundaciondeportiva.model.entity.DiaNoLectivo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DiaNoLectivoRepository extends JpaRepository<DiaNoLectivo, Long> {
+
+    List<DiaNoLectivo> findByFechaBetweenOrderByFechaAsc(LocalDate desde, LocalDate hasta);
+
+    boolean existsByFecha(LocalDate fecha);
+
+    // Solo las fechas, para excluirlas al generar sesiones
+    @Query("SELECT d.fecha FROM DiaNoLectivo d WHERE d.fecha BETWEEN :desde AND :hasta")
+    List<LocalDate> findFechasEntre(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,72 @@
+package com.proyecto.fundaciondeportiva.repository;
+
+import com.proyecto.fundaciondeportiva.dto.output.UsuarioOutputDTO;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Lecturas en streaming para las exportaciones de administración.
+ * Usa las mismas proyecciones planas que los listados (MatriculaFilaDTO, UsuarioRepository.FILA_PLANA), pero recorre el
+ * resultado con un cursor de solo avance en lugar de materializar la lista completa.
+ * El Stream debe cerrarse (try-with-resources) y consumirse dentro de la transacción.
+ */
+@Repository
+public class ExportacionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String MATRICULAS_CON_HORARIOS =
+            "SELECT new com.proyecto.fundaciondeportiva.dto.response.MatriculaFilaDTO(" +
+            "m.id, m.estado, m.fechaMatricula, m.fechaRetiro, m.calificacionFinal, m.observaciones, " +
+            "a.id, a.nombres, a.apellidos, pa.dni, pa.codigoEstudiante, pa.nivel, pa.grado, " +
+            "s.id, s.codigo, s.nombre, s.aula, s.fechaInicio, s.fechaFin, " +
+            "c.id, c.codigo, c.titulo, c.nivelDestino, " +
+            "p.id, p.nombres, p.apellidos, pp.dni), " +
+            "h.diaSemana, h.horaInicio, h.horaFin " +
+            "FROM Matricula m JOIN m.alumno a LEFT JOIN a.perfilAlumno pa " +
+            "JOIN m.seccion s JOIN s.curso c JOIN s.profesor p LEFT JOIN p.perfilProfesor pp " +
+            "LEFT JOIN s.horarios h " +
+            "WHERE (:estado IS NULL OR m.estado = :estado) " +
+            "AND (:seccionId IS NULL OR s.id = :seccionId) " +
+            "AND (:alumnoId IS NULL OR a.id = :alumnoId) " +
+            "ORDER BY m.id, h.id";
+
+    // Integer.MIN_VALUE hace que el driver de MySQL envíe las filas una a una
+    @Value("${exportacion.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    /**
+     * Una fila por matrícula y horario de su sección: {MatriculaFilaDTO, diaSemana, horaInicio, horaFin}.
+     * Los horarios vienen en el mismo cursor porque en MySQL no se puede lanzar otra consulta por la
+     * conexión mientras se leen filas en streaming; las filas de una matrícula llegan consecutivas
+     * y una sección sin horarios deja una sola fila con los tres últimos valores en null.
+     */
+    public Stream<Object[]> streamMatriculasConHorarios(EstadoMatricula estado, Long seccionId, Long alumnoId) {
+        TypedQuery<Object[]> query = entityManager.createQuery(MATRICULAS_CON_HORARIOS, Object[].class)
+                .setParameter("estado", estado)
+                .setParameter("seccionId", seccionId)
+                .setParameter("alumnoId", alumnoId);
+        return conCursor(query).getResultStream();
+    }
+
+    public Stream<UsuarioOutputDTO> streamUsuarios(Rol rol) {
+        TypedQuery<UsuarioOutputDTO> query = entityManager.createQuery(UsuarioRepository.FILA_PLANA, UsuarioOutputDTO.class)
+                .setParameter("despuesDe", 0L)
+                .setParameter("rol", rol);
+        return conCursor(query).getResultStream();
+    }
+
+    private <T> TypedQuery<T> conCursor(TypedQuery<T> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,6 +26,12 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
     @Query("SELECT h FROM Horario h WHERE h.seccion.id = :seccionId ORDER BY h.diaSemana, h.horaInicio")
     List<Horario> findBySeccionId(@Param("seccionId") Long seccionId);
 
+    /**
+     * Horarios de varias secciones en una sola consulta (listados paginados de matrículas).
+     */
+    @Query("SELECT h FROM Horario h WHERE h.seccion.id IN :seccionIds ORDER BY h.diaSemana, h.horaInicio")
+    List<Horario> findBySeccionIdIn(@Param("seccionIds") Collection<Long> seccionIds);
+
     /**
      * Encuentra todos los horarios de un profesor en todas sus secciones activas.
      * @param profesorId ID del profesor
@@ -34,6 +41,30 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
             "ORDER BY h.diaSemana, h.horaInicio")
     List<Horario> findByProfesorId(@Param("profesorId") Long profesorId);
 
+    /**
+     * Ocupación semanal del profesor en una sola consulta, sin la sección que se está editando
+     * (-1 al crear). Trae la sección para poder informar su código en los cruces.
+     */
+    @Query("SELECT h FROM Horario h JOIN FETCH h.seccion s " +
+            "WHERE s.profesor.id = :profesorId AND s.id <> :seccionIdIgnorar " +
+            "ORDER BY h.diaSemana, h.horaInicio")
+    List<Horario> findOcupacionProfesor(@Param("profesorId") Long profesorId,
+                                        @Param("seccionIdIgnorar") Long seccionIdIgnorar);
+
+    /**
+     * Horarios de las secciones activas con aula registrada, para armar la ocupación de aulas en memoria.
+     */
+    @Query("SELECT h FROM Horario h JOIN FETCH h.seccion s " +
+            "WHERE s.aulaAsignada IS NOT NULL AND s.activa = true")
+    List<Horario> findOcupacionAulas();
+
+    /**
+     * Horarios de las secciones activas con su curso y profesor, para el índice de clases en curso.
+     */
+    @Query("SELECT h FROM Horario h JOIN FETCH h.seccion s JOIN FETCH s.curso JOIN FETCH s.profesor " +
+            "WHERE s.activa = true")
+    List<Horario> findHorariosActivosParaIndice();
+
     /**
      * Encuentra todos los horarios de un alumno en sus secciones activas.
      * Se usa para validar cruces de horarios al matricularse.
@@ -49,34 +80,6 @@ public interface HorarioRepository extends JpaRepository<Horario, Long> {
             "ORDER BY h.diaSemana, h.horaInicio")
     List<Horario> findHorariosDeAlumno(@Param("alumnoId") Long alumnoId);
 
-    /**
-     * Verifica si existe un cruce de horarios para un profesor.
-     * Se usa al crear o actualizar una sección.
-     *
-     * Detecta si el profesor ya tiene una clase asignada en:
-     * - El mismo día de la semana
-     * - En un rango horario que se solapa
-     * - En una sección diferente a la que se está ignorando
-     *
-     * @param profesorId ID del profesor
-     * @param diaSemana Día de la semana a validar
-     * @param horaInicio Hora de inicio del nuevo horario
-     * @param horaFin Hora de fin del nuevo horario
-     * @param seccionIdIgnorar ID de la sección a ignorar (para updates, pass -1 para creates)
-     * @return true si existe cruce, false si no hay conflicto
-     */
-    @Query("SELECT COUNT(h) > 0 FROM Horario h " +
-            "WHERE h.seccion.profesor.id = :profesorId " +
-            "AND h.diaSemana = :diaSemana " +
-            "AND h.horaInicio < :horaFin " +
-            "AND h.horaFin > :horaInicio " +
-            "AND h.seccion.id != :seccionIdIgnorar")
-    boolean existeCruceProfesor(@Param("profesorId") Long profesorId,
-                                @Param("diaSemana") DayOfWeek diaSemana,
-                                @Param("horaInicio") LocalTime horaInicio,
-                                @Param("horaFin") LocalTime horaFin,
-                                @Param("seccionIdIgnorar") Long seccionIdIgnorar);
-
     /**
      * Verifica si existe un cruce de horarios para un alumno.
      * Se usa al matricularse en una sección.
@@ -1,18 +1,79 @@
 package com.proyecto.fundaciondeportiva.repository;
 
+import com.proyecto.fundaciondeportiva.dto.response.MatriculaFilaDTO;
 import com.proyecto.fundaciondeportiva.model.entity.Matricula;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
 
+    // --- Listados con plan de carga completo para MatriculaResponseDTO ---
+    // Una consulta trae alumno + perfil, sección + curso y profesor + perfil; los horarios de todas
+    // las secciones llegan en una segunda (Seccion.horarios usa SUBSELECT). Dos sentencias sin importar
+    // el número de filas. Los horarios no van en el JOIN FETCH: al repetirse la sección en varias filas
+    // la lista (bag) se llenaría con duplicados.
+
+    String CARGA_DETALLE = "SELECT m FROM Matricula m " +
+            "JOIN FETCH m.alumno a LEFT JOIN FETCH a.perfilAlumno " +
+            "JOIN FETCH m.seccion s JOIN FETCH s.curso " +
+            "JOIN FETCH s.profesor p LEFT JOIN FETCH p.perfilProfesor ";
+
+    @Query(CARGA_DETALLE)
+    List<Matricula> findAllConDetalle();
+
+    @Query(CARGA_DETALLE + "WHERE a.id = :alumnoId")
+    List<Matricula> findConDetalleByAlumnoId(@Param("alumnoId") Long alumnoId);
+
+    @Query(CARGA_DETALLE + "WHERE a.id = :alumnoId AND m.estado = :estado")
+    List<Matricula> findConDetalleByAlumnoIdAndEstado(@Param("alumnoId") Long alumnoId,
+                                                      @Param("estado") EstadoMatricula estado);
+
+    @Query(CARGA_DETALLE + "WHERE s.id = :seccionId")
+    List<Matricula> findConDetalleBySeccionId(@Param("seccionId") Long seccionId);
+
+    // Solo alumno y perfil: lo necesario para validar una carga de calificaciones
+    @Query("SELECT m FROM Matricula m JOIN FETCH m.alumno a LEFT JOIN FETCH a.perfilAlumno WHERE m.seccion.id = :seccionId")
+    List<Matricula> findConAlumnoBySeccionId(@Param("seccionId") Long seccionId);
+
+    @Query(CARGA_DETALLE + "WHERE s.id = :seccionId AND m.estado = :estado")
+    List<Matricula> findConDetalleBySeccionIdAndEstado(@Param("seccionId") Long seccionId,
+                                                       @Param("estado") EstadoMatricula estado);
+
+    // --- Listado paginado por cursor y exportación ---
+    // Proyección plana (sin entidades en el contexto de persistencia), ordenada por id para paginar
+    // con 'm.id > :despuesDe'. Los filtros en null no se aplican.
+
+    String FILA_PLANA = "SELECT new com.proyecto.fundaciondeportiva.dto.response.MatriculaFilaDTO(" +
+            "m.id, m.estado, m.fechaMatricula, m.fechaRetiro, m.calificacionFinal, m.observaciones, " +
+            "a.id, a.nombres, a.apellidos, pa.dni, pa.codigoEstudiante, pa.nivel, pa.grado, " +
+            "s.id, s.codigo, s.nombre, s.aula, s.fechaInicio, s.fechaFin, " +
+            "c.id, c.codigo, c.titulo, c.nivelDestino, " +
+            "p.id, p.nombres, p.apellidos, pp.dni) " +
+            "FROM Matricula m JOIN m.alumno a LEFT JOIN a.perfilAlumno pa " +
+            "JOIN m.seccion s JOIN s.curso c JOIN s.profesor p LEFT JOIN p.perfilProfesor pp " +
+            "WHERE m.id > :despuesDe " +
+            "AND (:estado IS NULL OR m.estado = :estado) " +
+            "AND (:seccionId IS NULL OR s.id = :seccionId) " +
+            "AND (:alumnoId IS NULL OR a.id = :alumnoId) " +
+            "ORDER BY m.id";
+
+    @Query(FILA_PLANA)
+    List<MatriculaFilaDTO> findPaginaPlana(@Param("despuesDe") long despuesDe,
+                                           @Param("estado") EstadoMatricula estado,
+                                           @Param("seccionId") Long seccionId,
+                                           @Param("alumnoId") Long alumnoId,
+                                           Pageable pagina);
+
     /**
      * Busca todas las matrículas de un alumno específico
      */
@@ -33,6 +94,17 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
      */
     List<Matricula> findBySeccionIdAndEstado(Long seccionId, EstadoMatricula estado);
 
+    /**
+     * Ids de los alumnos con matrícula en ese estado en una sección (validar hojas de asistencia en una consulta)
+     */
+    @Query("SELECT m.alumno.id FROM Matricula m WHERE m.seccion.id = :seccionId AND m.estado = :estado")
+    Set<Long> findAlumnoIdsBySeccionIdAndEstado(@Param("seccionId") Long seccionId,
+                                                @Param("estado") EstadoMatricula estado);
+
+    @Query("SELECT m.alumno.id FROM Matricula m WHERE m.seccion.id = :seccionId AND m.estado IN :estados")
+    Set<Long> findAlumnoIdsBySeccionIdAndEstadoIn(@Param("seccionId") Long seccionId,
+                                                  @Param("estados") Collection<EstadoMatricula> estados);
+
     /**
      * Verifica si un alumno ya está matriculado en una sección
      */
@@ -70,4 +142,12 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
             "AND m.seccion.curso.id = :cursoId " +
             "AND m.estado = 'ACTIVA'")
     boolean existeMatriculaActivaEnCurso(@Param("alumnoId") Long alumnoId, @Param("cursoId") Long cursoId);
-}
\ No newline at end of file
+
+    /**
+     * Todas las matrículas de un conjunto de alumnos, con sección y curso (los horarios llegan por SUBSELECT).
+     * Permite validar duplicados, cursos repetidos y cruces en memoria durante la importación masiva.
+     */
+    @Query("SELECT m FROM Matricula m JOIN FETCH m.seccion s JOIN FETCH s.curso " +
+            "WHERE m.alumno.id IN :alumnoIds")
+    List<Matricula> findConSeccionPorAlumnoIds(@Param("alumnoIds") Collection<Long> alumnoIds);
+}
@@ -2,8 +2,12 @@ package com.proyecto.fundaciondeportiva.repository;
 
 import com.proyecto.fundaciondeportiva.model.entity.PerfilAlumno;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,4 +38,13 @@ public interface PerfilAlumnoRepository extends JpaRepository<PerfilAlumno, Long
      * 'existsByCodigoEstudiante' debe estar en inglés.
      */
     boolean existsByCodigoEstudiante(String codigoEstudiante);
-}
\ No newline at end of file
+
+    // --- Normalización del grado (migración de datos existentes) ---
+
+    @Query("SELECT DISTINCT p.grado FROM PerfilAlumno p WHERE p.gradoNumero IS NULL")
+    List<String> findGradosSinNormalizar();
+
+    @Modifying
+    @Query("UPDATE PerfilAlumno p SET p.gradoNumero = :numero WHERE p.grado = :grado AND p.gradoNumero IS NULL")
+    int asignarGradoNumero(@Param("grado") String grado, @Param("numero") Integer numero);
+}
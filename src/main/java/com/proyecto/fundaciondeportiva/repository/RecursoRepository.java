@@ -2,8 +2,11 @@ package com.proyecto.fundaciondeportiva.repository;
 
 import com.proyecto.fundaciondeportiva.model.entity.Recurso;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,4 +21,10 @@ public interface RecursoRepository extends JpaRepository<Recurso, Long> {
      * 'findBySesionIdOrderByMomentoAsc' debe estar en inglés.
      */
     List<Recurso> findBySesionIdOrderByMomentoAsc(Long sesionId);
-}
\ No newline at end of file
+
+    /**
+     * Recursos de varias sesiones en una sola consulta (listados de sesiones), agrupables por sesión.
+     */
+    @Query("SELECT r FROM Recurso r WHERE r.sesion.id IN :sesionIds ORDER BY r.sesion.id, r.momento")
+    List<Recurso> findBySesionIdIn(@Param("sesionIds") Collection<Long> sesionIds);
+}
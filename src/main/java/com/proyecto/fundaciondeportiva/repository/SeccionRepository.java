@@ -2,13 +2,19 @@ package com.proyecto.fundaciondeportiva.repository;
 
 import com.proyecto.fundaciondeportiva.model.entity.Seccion;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,26 +25,138 @@ public interface SeccionRepository extends JpaRepository<Seccion, Long> {
 
     boolean existsByCodigo(String codigo);
 
+    // Los listados que terminan en SeccionResponseDTO traen curso y profesor en la misma consulta
+    // (GRAFO_LISTADO); los horarios llegan por SUBSELECT. Dos sentencias sin importar cuántas secciones haya.
+    @Override
+    @EntityGraph(Seccion.GRAFO_LISTADO)
+    List<Seccion> findAll();
+
+    @EntityGraph(Seccion.GRAFO_LISTADO)
     List<Seccion> findByActivaTrue();
 
+    @EntityGraph(Seccion.GRAFO_LISTADO)
     List<Seccion> findByCursoId(Long cursoId);
 
+    @EntityGraph(Seccion.GRAFO_LISTADO)
     List<Seccion> findByProfesorId(Long profesorId);
 
     List<Seccion> findByNivelSeccion(NivelAcademico nivel);
 
+    @EntityGraph(Seccion.GRAFO_LISTADO)
     List<Seccion> findByNivelSeccionAndActivaTrue(NivelAcademico nivel);
 
     List<Seccion> findByNivelSeccionAndGradoSeccion(NivelAcademico nivel, String grado);
 
-    @Query("SELECT s FROM Seccion s WHERE s.activa = true AND SIZE(s.matriculas) < s.capacidad")
+    // Filtro por grado numérico normalizado (usa el índice nivel_seccion + grado_numero)
+    @EntityGraph(Seccion.GRAFO_LISTADO)
+    List<Seccion> findByNivelSeccionAndGradoNumeroAndActivaTrue(NivelAcademico nivel, Integer gradoNumero);
+
+    @Query("SELECT DISTINCT s.gradoSeccion FROM Seccion s WHERE s.gradoNumero IS NULL")
+    List<String> findGradosSinNormalizar();
+
+    @Modifying
+    @Query("UPDATE Seccion s SET s.gradoNumero = :numero WHERE s.gradoSeccion = :grado AND s.gradoNumero IS NULL")
+    int asignarGradoNumero(@Param("grado") String grado, @Param("numero") Integer numero);
+
+    // Usa el contador materializado (solo matrículas ACTIVAS), sin contar la tabla matriculas
+    @EntityGraph(Seccion.GRAFO_LISTADO)
+    @Query("SELECT s FROM Seccion s WHERE s.activa = true AND s.matriculadosActivos < s.capacidad")
     List<Seccion> findSeccionesConCupoDisponible();
 
+    /**
+     * Reserva un cupo de forma atómica: un único UPDATE condicional que solo
+     * incrementa si aún hay capacidad. Devuelve 1 si se reservó, 0 si la sección está llena.
+     * Solo bloquea la fila de esta sección, así que otras secciones no se ven afectadas.
+     */
+    @Modifying
+    @Query("UPDATE Seccion s SET s.matriculadosActivos = s.matriculadosActivos + 1 " +
+            "WHERE s.id = :seccionId AND s.matriculadosActivos < s.capacidad")
+    int reservarCupo(@Param("seccionId") Long seccionId);
+
+    /**
+     * Libera un cupo cuando una matrícula deja de estar ACTIVA o se elimina.
+     */
+    @Modifying
+    @Query("UPDATE Seccion s SET s.matriculadosActivos = s.matriculadosActivos - 1 " +
+            "WHERE s.id = :seccionId AND s.matriculadosActivos > 0")
+    int liberarCupo(@Param("seccionId") Long seccionId);
+
+    /**
+     * Recalcula el contador a partir de las matrículas ACTIVAS reales.
+     * Solo escribe las secciones descuadradas; devuelve cuántas corrigió.
+     */
+    @Modifying
+    @Query("UPDATE Seccion s SET s.matriculadosActivos = " +
+            "(SELECT COUNT(m) FROM Matricula m WHERE m.seccion.id = s.id AND m.estado = 'ACTIVA') " +
+            "WHERE s.matriculadosActivos <> " +
+            "(SELECT COUNT(m2) FROM Matricula m2 WHERE m2.seccion.id = s.id AND m2.estado = 'ACTIVA')")
+    int sincronizarMatriculadosActivos();
+
+    /**
+     * Secciones cuyo contador no coincide con las matrículas ACTIVAS reales (para el log de la reconciliación).
+     */
+    @Query("SELECT s.id AS seccionId, s.codigo AS codigo, s.matriculadosActivos AS contador, " +
+            "(SELECT COUNT(m) FROM Matricula m WHERE m.seccion.id = s.id AND m.estado = 'ACTIVA') AS reales " +
+            "FROM Seccion s WHERE s.matriculadosActivos <> " +
+            "(SELECT COUNT(m2) FROM Matricula m2 WHERE m2.seccion.id = s.id AND m2.estado = 'ACTIVA')")
+    List<DescuadreCupos> findDescuadresMatriculadosActivos();
+
+    interface DescuadreCupos {
+        Long getSeccionId();
+
+        String getCodigo();
+
+        Integer getContador();
+
+        Long getReales();
+    }
+
+    /**
+     * Carga y bloquea (SELECT ... FOR UPDATE) las secciones de una importación, con curso y horarios.
+     * Mientras dure la transacción nadie más cambia su contador de cupos.
+     * Se ordenan por código, igual que los lotes que arma el llamador: dos importaciones simultáneas
+     * toman los bloqueos en el mismo orden aunque sus códigos se repartan en lotes distintos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seccion s JOIN FETCH s.curso LEFT JOIN FETCH s.horarios " +
+            "WHERE s.codigo IN :codigos ORDER BY s.codigo")
+    List<Seccion> findParaImportacionPorCodigos(@Param("codigos") Collection<String> codigos);
+
+    /**
+     * Carga y bloquea una sección (SELECT ... FOR UPDATE) mientras se cargan sus calificaciones,
+     * para que el contador de cupos no cambie a mitad de la carga.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Seccion s WHERE s.id = :id")
+    Optional<Seccion> findParaActualizarById(@Param("id") Long id);
+
+    // Secciones activas cuyo periodo no terminó (para correr la ventana de sesiones); los horarios llegan por SUBSELECT
+    @Query("SELECT s FROM Seccion s WHERE s.activa = true AND s.fechaFin >= :fecha")
+    List<Seccion> findVigentesDesde(@Param("fecha") LocalDate fecha);
+
+    // Secciones por id con curso y profesor (las que devuelve el índice de clases en curso)
+    @EntityGraph(Seccion.GRAFO_LISTADO)
+    List<Seccion> findByIdIn(Collection<Long> ids);
+
     //Buscar secciones que se estén dictando en un día y hora específicos
-    @Query("SELECT DISTINCT s FROM Seccion s JOIN s.horarios h " +
+    // EXISTS en lugar de JOIN: una sección con dos horarios en la franja no sale dos veces (sin DISTINCT)
+    @EntityGraph(Seccion.GRAFO_LISTADO)
+    @Query("SELECT s FROM Seccion s " +
             "WHERE s.activa = true " +
+            "AND EXISTS (SELECT h FROM Horario h WHERE h.seccion = s " +
             "AND h.diaSemana = :dia " +
             "AND h.horaInicio <= :hora " +
-            "AND h.horaFin > :hora")
+            "AND h.horaFin > :hora)")
     List<Seccion> findByHorarioActivo(@Param("dia") DayOfWeek dia, @Param("hora") LocalTime hora);
-}
\ No newline at end of file
+
+    boolean existsByAulaAsignadaId(Long aulaId);
+
+    // Copia el nuevo código del aula en las secciones que la usan
+    @Modifying
+    @Query("UPDATE Seccion s SET s.aula = :codigo WHERE s.aulaAsignada.id = :aulaId")
+    int renombrarAula(@Param("aulaId") Long aulaId, @Param("codigo") String codigo);
+
+    // Capacidad más alta entre las secciones activas del aula (no se puede bajar el aforo por debajo de ella)
+    @Query("SELECT COALESCE(MAX(s.capacidad), 0) FROM Seccion s WHERE s.aulaAsignada.id = :aulaId AND s.activa = true")
+    int findCapacidadMaximaEnAula(@Param("aulaId") Long aulaId);
+}
@@ -1,15 +1,52 @@
 package com.proyecto.fundaciondeportiva.repository;
 
 import com.proyecto.fundaciondeportiva.model.entity.Sesion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SesionRepository extends JpaRepository<Sesion, Long> {
     List<Sesion> findBySeccionIdOrderByFechaAsc(Long seccionId);
 
-    // borrar sesiones viejas al actualizar una sección
-    void deleteBySeccionId(Long seccionId);
-}
\ No newline at end of file
+    /**
+     * Sesiones de una sección en orden cronológico, opcionalmente dentro de [desde, hasta] y después
+     * de la sesión (fechaCursor, horaCursor): la clave natural de la sesión en la sección, que sirve de cursor.
+     * Recorre el índice (seccion_id, fecha, hora_inicio); el tamaño de la página lo pone 'pagina'.
+     */
+    @Query("SELECT s FROM Sesion s WHERE s.seccion.id = :seccionId " +
+            "AND (:desde IS NULL OR s.fecha >= :desde) " +
+            "AND (:hasta IS NULL OR s.fecha <= :hasta) " +
+            "AND (:fechaCursor IS NULL OR s.fecha > :fechaCursor " +
+            "     OR (s.fecha = :fechaCursor AND s.horaInicio > :horaCursor)) " +
+            "ORDER BY s.fecha, s.horaInicio")
+    List<Sesion> findDeSeccion(@Param("seccionId") Long seccionId,
+                               @Param("desde") LocalDate desde,
+                               @Param("hasta") LocalDate hasta,
+                               @Param("fechaCursor") LocalDate fechaCursor,
+                               @Param("horaCursor") LocalTime horaCursor,
+                               Pageable pagina);
+
+    /**
+     * Borra en una sola sentencia las sesiones indicadas que no tienen asistencias ni recursos.
+     * Las que ya tienen datos se conservan. Devuelve cuántas se borraron.
+     */
+    @Modifying
+    @Query("DELETE FROM Sesion s WHERE s.id IN :ids AND s.asistencias IS EMPTY AND s.recursos IS EMPTY")
+    int eliminarSinDatos(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Borra las sesiones de una fecha (que pasa a ser no lectiva) que no tienen asistencias ni recursos.
+     */
+    @Modifying
+    @Query("DELETE FROM Sesion s WHERE s.fecha = :fecha AND s.asistencias IS EMPTY AND s.recursos IS EMPTY")
+    int eliminarSinDatosPorFecha(@Param("fecha") LocalDate fecha);
+}
@@ -1,9 +1,15 @@
 package com.proyecto.fundaciondeportiva.repository;
 
+import com.proyecto.fundaciondeportiva.dto.output.UsuarioOutputDTO;
 import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +22,28 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     // Búsqueda flexible por apellidos (ignorando mayúsculas/minúsculas)
     List<Usuario> findByApellidosContainingIgnoreCase(String apellidos);
-}
\ No newline at end of file
+
+    // Versión vigente de los tokens del usuario (vacío si el usuario ya no existe)
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM Usuario u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Alumnos (con su perfil) por lista de DNI / códigos de estudiante; usados por la importación masiva
+    @Query("SELECT u FROM Usuario u JOIN FETCH u.perfilAlumno p WHERE p.dni IN :dnis")
+    List<Usuario> findAlumnosPorDnis(@Param("dnis") Collection<String> dnis);
+
+    @Query("SELECT u FROM Usuario u JOIN FETCH u.perfilAlumno p WHERE p.codigoEstudiante IN :codigos")
+    List<Usuario> findAlumnosPorCodigosEstudiante(@Param("codigos") Collection<String> codigos);
+
+    // --- Listado paginado por cursor y exportación (proyección plana ordenada por id) ---
+
+    String FILA_PLANA = "SELECT new com.proyecto.fundaciondeportiva.dto.output.UsuarioOutputDTO(" +
+            "u.id, u.nombres, u.apellidos, u.email, u.rol, u.fechaCreacion, " +
+            "pa.codigoEstudiante, pa.dni, pa.nivel, pa.grado, " +
+            "pp.dni, pp.telefono, pp.experiencia, pp.gradoAcademico) " +
+            "FROM Usuario u LEFT JOIN u.perfilAlumno pa LEFT JOIN u.perfilProfesor pp " +
+            "WHERE u.id > :despuesDe AND (:rol IS NULL OR u.rol = :rol) " +
+            "ORDER BY u.id";
+
+    @Query(FILA_PLANA)
+    List<UsuarioOutputDTO> findPaginaPlana(@Param("despuesDe") long despuesDe, @Param("rol") Rol rol, Pageable pagina);
+}
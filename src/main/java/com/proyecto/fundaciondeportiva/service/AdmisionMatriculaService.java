@@ -0,0 +1,262 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.TicketAdmisionDTO;
+import com.proyecto.fundaciondeportiva.exception.DemasiadasSolicitudesException;
+import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoTicketAdmision;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admisión de matrículas por colas en memoria, para la apertura de matrículas.
+ * - Cada sección tiene su propia cola FIFO; sus solicitudes se procesan de una en una y en orden de llegada.
+ * - Un pool pequeño de workers atiende las colas, así que secciones distintas avanzan en paralelo
+ *   y nunca hay más de 'workers' transacciones de matrícula a la vez.
+ * - El cliente recibe un ticket al instante y consulta (o espera) su resultado.
+ * Los tickets viven solo en memoria: se pierden si la aplicación se reinicia.
+ */
+@Service
+public class AdmisionMatriculaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmisionMatriculaService.class);
+
+    // Solicitudes que atiende un worker de la misma sección antes de ceder el hilo a otra
+    private static final int LOTE_POR_TURNO = 32;
+
+    // Cada cuántas solicitudes se purgan los tickets resueltos más antiguos que la retención
+    private static final int PURGA_CADA = 256;
+
+    @Autowired
+    private ServicioMatricula servicioMatricula;
+
+    @Value("${admision.matriculas.workers:4}")
+    private int workers;
+
+    @Value("${admision.matriculas.max-por-seccion:2000}")
+    private int maximoPorSeccion;
+
+    @Value("${admision.matriculas.retencion-segundos:900}")
+    private long retencionSegundos;
+
+    private ThreadPoolExecutor poolAdmision;
+
+    private final Map<Long, ColaSeccion> colas = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    // "alumnoId:seccionId" -> ticket pendiente, para no encolar dos veces la misma solicitud
+    private final Map<String, Ticket> pendientesPorAlumno = new ConcurrentHashMap<>();
+    private final AtomicLong solicitudes = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger contador = new AtomicInteger();
+        this.poolAdmision = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread hilo = new Thread(r, "admision-matricula-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        logger.info("Admisión de matrículas iniciada con {} workers y hasta {} solicitudes por sección", workers, maximoPorSeccion);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        poolAdmision.shutdown();
+    }
+
+    /**
+     * Encola la solicitud y devuelve el ticket sin esperar a que se procese.
+     * Si el alumno ya tiene una solicitud pendiente para la misma sección, devuelve ese ticket.
+     */
+    public TicketAdmisionDTO solicitar(Long alumnoId, MatriculaRequestDTO request) {
+        if (request.getSeccionId() == null) {
+            throw new ValidacionException("La sección es obligatoria");
+        }
+        if (solicitudes.incrementAndGet() % PURGA_CADA == 0) {
+            purgarResueltos();
+        }
+
+        String clave = alumnoId + ":" + request.getSeccionId();
+        Ticket nuevo = new Ticket(alumnoId, request);
+        // El ticket se numera y se registra antes de quedar visible en pendientesPorAlumno:
+        // un duplicado concurrente recibe un ticket que ya se puede consultar y con su posición real.
+        // Si la cola está llena la excepción sale de compute y no queda nada registrado.
+        Ticket ticket = pendientesPorAlumno.compute(clave, (k, existente) -> {
+            if (existente != null) {
+                return existente;
+            }
+            ColaSeccion cola = colas.computeIfAbsent(request.getSeccionId(), id -> new ColaSeccion());
+            if (cola.tamano.incrementAndGet() > maximoPorSeccion) {
+                cola.tamano.decrementAndGet();
+                throw new DemasiadasSolicitudesException("La sección tiene demasiadas solicitudes en espera. Intenta de nuevo en unos segundos.");
+            }
+            nuevo.numero = cola.encolados.incrementAndGet();
+            nuevo.cola = cola;
+            tickets.put(nuevo.id, nuevo);
+            return nuevo;
+        });
+        if (ticket != nuevo) {
+            return ticket.aDTO();
+        }
+
+        nuevo.cola.pendientes.add(nuevo);
+        programar(nuevo.cola);
+        return nuevo.aDTO();
+    }
+
+    /**
+     * Estado actual del ticket. Solo lo puede consultar el alumno que lo creó.
+     */
+    public TicketAdmisionDTO consultar(String ticketId, Long alumnoId) {
+        return buscar(ticketId, alumnoId).aDTO();
+    }
+
+    /**
+     * Se completa cuando el ticket queda ACEPTADA o RECHAZADA.
+     */
+    public CompletableFuture<TicketAdmisionDTO> esperar(String ticketId, Long alumnoId) {
+        return buscar(ticketId, alumnoId).resuelto;
+    }
+
+    // --- Métricas ---
+
+    public int getSolicitudesEnEspera() {
+        return colas.values().stream().mapToInt(c -> c.tamano.get()).sum();
+    }
+
+    public int getSeccionesConCola() {
+        return (int) colas.values().stream().filter(c -> c.tamano.get() > 0).count();
+    }
+
+    // --- Procesamiento ---
+
+    private Ticket buscar(String ticketId, Long alumnoId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.alumnoId.equals(alumnoId)) {
+            throw new RecursoNoEncontradoException("Ticket de matrícula no encontrado");
+        }
+        return ticket;
+    }
+
+    private void programar(ColaSeccion cola) {
+        if (cola.programada.compareAndSet(false, true)) {
+            poolAdmision.execute(() -> drenar(cola));
+        }
+    }
+
+    /**
+     * Atiende hasta LOTE_POR_TURNO solicitudes de la sección y, si quedan, vuelve a ponerse
+     * al final de la cola del pool para que las demás secciones también avancen.
+     * 'programada' garantiza que una sección nunca la atienden dos workers a la vez.
+     */
+    private void drenar(ColaSeccion cola) {
+        int atendidas = 0;
+        Ticket ticket;
+        while (atendidas < LOTE_POR_TURNO && (ticket = cola.pendientes.poll()) != null) {
+            // Deja de contar como en espera antes de resolverse, así quien ve el ticket resuelto ve métricas al día
+            cola.atendidos.incrementAndGet();
+            cola.tamano.decrementAndGet();
+            procesar(ticket);
+            atendidas++;
+        }
+        cola.programada.set(false);
+        // Una solicitud pudo llegar justo después del último poll
+        if (!cola.pendientes.isEmpty()) {
+            programar(cola);
+        }
+    }
+
+    private void procesar(Ticket ticket) {
+        ticket.estado = EstadoTicketAdmision.PROCESANDO;
+        try {
+            MatriculaResponseDTO matricula = servicioMatricula.matricularseEnSeccion(ticket.alumnoId, ticket.request);
+            ticket.resolver(EstadoTicketAdmision.ACEPTADA, matricula, "Matrícula registrada");
+        } catch (ValidacionException | RecursoNoEncontradoException e) {
+            ticket.resolver(EstadoTicketAdmision.RECHAZADA, null, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Error al procesar la matrícula del alumno {} en sección {}", ticket.alumnoId, ticket.request.getSeccionId(), e);
+            ticket.resolver(EstadoTicketAdmision.RECHAZADA, null, "Ocurrió un error interno al procesar la matrícula");
+        } finally {
+            pendientesPorAlumno.remove(ticket.alumnoId + ":" + ticket.request.getSeccionId(), ticket);
+        }
+    }
+
+    private void purgarResueltos() {
+        LocalDateTime limite = LocalDateTime.now().minusSeconds(retencionSegundos);
+        // Las colas vacías se conservan: son una por sección y así nunca existen dos para la misma
+        tickets.values().removeIf(t -> t.fechaResolucion != null && t.fechaResolucion.isBefore(limite));
+    }
+
+    private static final class ColaSeccion {
+        private final Queue<Ticket> pendientes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean programada = new AtomicBoolean();
+        private final AtomicInteger tamano = new AtomicInteger();
+        private final AtomicLong encolados = new AtomicLong();
+        private final AtomicLong atendidos = new AtomicLong();
+    }
+
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final Long alumnoId;
+        private final MatriculaRequestDTO request;
+        private final LocalDateTime fechaSolicitud = LocalDateTime.now();
+        private final CompletableFuture<TicketAdmisionDTO> resuelto = new CompletableFuture<>();
+
+        private ColaSeccion cola;
+        private long numero;
+        private volatile EstadoTicketAdmision estado = EstadoTicketAdmision.EN_COLA;
+        private volatile MatriculaResponseDTO matricula;
+        private volatile String mensaje;
+        private volatile LocalDateTime fechaResolucion;
+
+        Ticket(Long alumnoId, MatriculaRequestDTO request) {
+            this.alumnoId = alumnoId;
+            this.request = request;
+        }
+
+        void resolver(EstadoTicketAdmision estadoFinal, MatriculaResponseDTO matricula, String mensaje) {
+            this.matricula = matricula;
+            this.mensaje = mensaje;
+            this.fechaResolucion = LocalDateTime.now();
+            this.estado = estadoFinal;
+            resuelto.complete(aDTO());
+        }
+
+        TicketAdmisionDTO aDTO() {
+            EstadoTicketAdmision actual = estado;
+            Integer posicion = null;
+            if (actual == EstadoTicketAdmision.EN_COLA && cola != null) {
+                posicion = (int) Math.max(0, numero - cola.atendidos.get() - 1);
+            }
+            return TicketAdmisionDTO.builder()
+                    .ticketId(id)
+                    .seccionId(request.getSeccionId())
+                    .estado(actual)
+                    .posicion(posicion)
+                    .fechaSolicitud(fechaSolicitud)
+                    .fechaResolucion(fechaResolucion)
+                    .matricula(matricula)
+                    .mensaje(mensaje)
+                    .build();
+        }
+    }
+}
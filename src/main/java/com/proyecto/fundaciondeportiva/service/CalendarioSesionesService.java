@@ -0,0 +1,310 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.model.entity.Seccion;
+import com.proyecto.fundaciondeportiva.repository.DiaNoLectivoRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.repository.SesionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Genera el calendario de sesiones de una sección a partir de sus fechas y horarios semanales.
+ * Las sesiones se insertan con lotes JDBC, sin pasar por el contexto de JPA: con IDENTITY,
+ * saveAll haría un INSERT (un viaje a la base) por sesión. Con rewriteBatchedStatements,
+ * el driver de MySQL envía cada lote como un único INSERT de varias filas.
+ * Al editar una sección, el calendario se sincroniza por diferencia: las sesiones se identifican
+ * por (sección, fecha, hora de inicio) y solo se tocan las que cambian.
+ *
+ * Los días no lectivos nunca tienen sesiones. Con 'calendario.ventana-semanas' > 0 solo se crean
+ * las sesiones de las próximas N semanas; la tarea diaria (ExtensionVentanaSesiones) corre la ventana.
+ */
+@Service
+public class CalendarioSesionesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendarioSesionesService.class);
+
+    // Sesiones por lote JDBC
+    private static final int TAMANO_LOTE = 500;
+
+    // Si otra operación ya creó la sesión (por ejemplo la tarea de la ventana mientras se edita la sección)
+    // la fila se omite: la clave única (seccion_id, fecha, hora_inicio) la conserva una sola vez
+    private static final String INSERTAR_SESION =
+            "INSERT INTO sesiones (seccion_id, fecha, hora_inicio, hora_fin) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String ACTUALIZAR_HORA_FIN = "UPDATE sesiones SET hora_fin = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SesionRepository sesionRepository;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private DiaNoLectivoRepository diaNoLectivoRepository;
+
+    // 0 = todo el periodo de la sección
+    @Value("${calendario.ventana-semanas:0}")
+    private int ventanaSemanas;
+
+    /**
+     * Inserta las sesiones de una sección nueva, hasta el final del periodo o de la ventana.
+     * La sección debe estar ya guardada (tiene id). Devuelve cuántas sesiones se crearon.
+     */
+    public int generarSesiones(Seccion seccion) {
+        LocalDate hasta = horizonte(seccion, LocalDate.now());
+        List<SesionPlanificada> sesiones = planificar(seccion.getFechaInicio(), hasta, seccion.getHorarios(),
+                diasNoLectivos(seccion.getFechaInicio(), hasta));
+        if (sesiones.isEmpty()) {
+            return 0;
+        }
+        insertar(seccion.getId(), sesiones);
+        logger.info("Se generaron {} sesiones para la sección {}", sesiones.size(), seccion.getCodigo());
+        return sesiones.size();
+    }
+
+    /**
+     * Ajusta las sesiones de una sección ya existente a sus fechas y horarios actuales.
+     * Solo mira las sesiones que aún no empiezan: las pasadas (incluidas las de hoy cuya hora de inicio
+     * ya llegó), con su asistencia y recursos, no se tocan ni se vuelven a crear.
+     * - las que siguen en el calendario se conservan (si cambió la hora de fin, solo se actualiza esa columna)
+     * - las que faltan se insertan en lote
+     * - las que ya no corresponden (otro horario, día no lectivo, fuera de la ventana) se borran en una
+     *   sentencia, salvo que tengan asistencias o recursos
+     */
+    public CambiosCalendario sincronizarSesiones(Seccion seccion) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+        LocalTime horaActual = ahora.toLocalTime();
+        LocalDate desde = seccion.getFechaInicio().isAfter(hoy) ? seccion.getFechaInicio() : hoy;
+        LocalDate hasta = horizonte(seccion, hoy);
+        Map<ClaveSesion, SesionPlanificada> faltantes = new LinkedHashMap<>();
+        for (SesionPlanificada sesion : planificar(desde, hasta, seccion.getHorarios(), diasNoLectivos(desde, hasta))) {
+            if (sesion.fecha().equals(hoy) && !sesion.horaInicio().isAfter(horaActual)) {
+                continue;
+            }
+            faltantes.putIfAbsent(new ClaveSesion(sesion.fecha(), sesion.horaInicio()), sesion);
+        }
+
+        List<Long> sobrantes = new ArrayList<>();
+        List<Object[]> horasFin = new ArrayList<>();
+        int[] conservadas = {0};
+        jdbcTemplate.query("SELECT id, fecha, hora_inicio, hora_fin FROM sesiones " +
+                        "WHERE seccion_id = ? AND (fecha > ? OR (fecha = ? AND hora_inicio > ?))",
+                rs -> {
+                    long id = rs.getLong(1);
+                    ClaveSesion clave = new ClaveSesion(rs.getDate(2).toLocalDate(), rs.getTime(3).toLocalTime());
+                    SesionPlanificada planificada = faltantes.remove(clave);
+                    if (planificada == null) {
+                        sobrantes.add(id);
+                    } else if (planificada.horaFin().equals(rs.getTime(4).toLocalTime())) {
+                        conservadas[0]++;
+                    } else {
+                        horasFin.add(new Object[]{Time.valueOf(planificada.horaFin()), id});
+                    }
+                },
+                seccion.getId(), Date.valueOf(hoy), Date.valueOf(hoy), Time.valueOf(horaActual));
+
+        int eliminadas = 0;
+        for (int i = 0; i < sobrantes.size(); i += TAMANO_LOTE) {
+            eliminadas += sesionRepository.eliminarSinDatos(sobrantes.subList(i, Math.min(i + TAMANO_LOTE, sobrantes.size())));
+        }
+        if (!horasFin.isEmpty()) {
+            jdbcTemplate.batchUpdate(ACTUALIZAR_HORA_FIN, horasFin);
+        }
+        List<SesionPlanificada> nuevas = new ArrayList<>(faltantes.values());
+        insertar(seccion.getId(), nuevas);
+
+        CambiosCalendario cambios = new CambiosCalendario(nuevas.size(), horasFin.size(), eliminadas,
+                sobrantes.size() - eliminadas, conservadas[0]);
+        if (cambios.conservadasConDatos() > 0) {
+            logger.warn("Sección {}: {} sesiones fuera del nuevo horario se conservan porque tienen asistencias o recursos",
+                    seccion.getCodigo(), cambios.conservadasConDatos());
+        }
+        logger.info("Calendario de la sección {} sincronizado: {}", seccion.getCodigo(), cambios);
+        return cambios;
+    }
+
+    /**
+     * Corre la ventana de todas las secciones vigentes: crea las sesiones entre la última ya creada
+     * y el nuevo horizonte. Una consulta para las secciones, una para sus últimas fechas y los INSERT en lote.
+     * No hace nada si la ventana está desactivada. Devuelve cuántas sesiones se crearon.
+     */
+    public int extenderVentanas() {
+        if (ventanaSemanas <= 0) {
+            return 0;
+        }
+        LocalDate hoy = LocalDate.now();
+        List<Seccion> secciones = seccionRepository.findVigentesDesde(hoy);
+        if (secciones.isEmpty()) {
+            return 0;
+        }
+        Map<Long, LocalDate> ultimas = new HashMap<>();
+        jdbcTemplate.query("SELECT s.seccion_id, MAX(s.fecha) FROM sesiones s JOIN secciones sec ON sec.id = s.seccion_id " +
+                        "WHERE sec.activa = true AND sec.fecha_fin >= ? GROUP BY s.seccion_id",
+                rs -> {
+                    ultimas.put(rs.getLong(1), rs.getDate(2).toLocalDate());
+                },
+                Date.valueOf(hoy));
+        Set<LocalDate> noLectivos = diasNoLectivos(hoy, hoy.plusWeeks(ventanaSemanas));
+
+        List<FilaSesion> filas = new ArrayList<>();
+        for (Seccion seccion : secciones) {
+            LocalDate desde = masTardia(seccion.getFechaInicio(), hoy);
+            LocalDate ultima = ultimas.get(seccion.getId());
+            if (ultima != null) {
+                desde = masTardia(desde, ultima.plusDays(1));
+            }
+            for (SesionPlanificada sesion : planificar(desde, horizonte(seccion, hoy), seccion.getHorarios(), noLectivos)) {
+                filas.add(new FilaSesion(seccion.getId(), sesion));
+            }
+        }
+        insertarFilas(filas);
+        logger.info("Ventana de sesiones extendida: {} sesiones nuevas en {} secciones vigentes", filas.size(), secciones.size());
+        return filas.size();
+    }
+
+    /**
+     * Quita las sesiones de una fecha que pasa a ser no lectiva, en una sentencia.
+     * Las que ya tienen asistencias o recursos se conservan. Devuelve {eliminadas, conservadas}.
+     */
+    public int[] retirarFecha(LocalDate fecha) {
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sesiones WHERE fecha = ?", Integer.class, Date.valueOf(fecha));
+        int eliminadas = sesionRepository.eliminarSinDatosPorFecha(fecha);
+        logger.info("Fecha {} no lectiva: {} sesiones eliminadas, {} conservadas por tener datos", fecha, eliminadas, total - eliminadas);
+        return new int[]{eliminadas, total - eliminadas};
+    }
+
+    /**
+     * Vuelve a crear las sesiones de una fecha que deja de ser no lectiva (solo si es hoy o posterior
+     * y está dentro del periodo y la ventana de cada sección). Devuelve cuántas se crearon.
+     */
+    public int restaurarFecha(LocalDate fecha) {
+        LocalDate hoy = LocalDate.now();
+        if (fecha.isBefore(hoy)) {
+            return 0;
+        }
+        Set<String> existentes = new HashSet<>();
+        jdbcTemplate.query("SELECT seccion_id, hora_inicio FROM sesiones WHERE fecha = ?",
+                rs -> {
+                    existentes.add(rs.getLong(1) + "|" + rs.getTime(2).toLocalTime());
+                },
+                Date.valueOf(fecha));
+
+        List<FilaSesion> filas = new ArrayList<>();
+        for (Seccion seccion : seccionRepository.findVigentesDesde(fecha)) {
+            if (fecha.isBefore(seccion.getFechaInicio()) || fecha.isAfter(horizonte(seccion, hoy))) {
+                continue;
+            }
+            for (SesionPlanificada sesion : planificar(fecha, fecha, seccion.getHorarios(), Set.of())) {
+                if (!existentes.contains(seccion.getId() + "|" + sesion.horaInicio())) {
+                    filas.add(new FilaSesion(seccion.getId(), sesion));
+                }
+            }
+        }
+        insertarFilas(filas);
+        logger.info("Fecha {} vuelve a ser lectiva: {} sesiones creadas", fecha, filas.size());
+        return filas.size();
+    }
+
+    /**
+     * Una sesión por cada bloque horario de cada día de clase entre 'inicio' y 'fin' (inclusive),
+     * salvo los días no lectivos, ordenadas por fecha y hora. Los horarios se agrupan por día una sola vez.
+     */
+    public static List<SesionPlanificada> planificar(LocalDate inicio, LocalDate fin, Collection<Horario> horarios,
+                                                     Set<LocalDate> diasNoLectivos) {
+        if (inicio == null || fin == null || horarios == null || horarios.isEmpty() || fin.isBefore(inicio)) {
+            return List.of();
+        }
+        Map<DayOfWeek, List<Horario>> porDia = new EnumMap<>(DayOfWeek.class);
+        for (Horario horario : horarios) {
+            porDia.computeIfAbsent(horario.getDiaSemana(), d -> new ArrayList<>()).add(horario);
+        }
+        porDia.values().forEach(lista -> lista.sort(Comparator.comparing(Horario::getHoraInicio)));
+
+        List<SesionPlanificada> sesiones = new ArrayList<>();
+        for (LocalDate fecha = inicio; !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+            List<Horario> delDia = porDia.get(fecha.getDayOfWeek());
+            if (delDia != null && !diasNoLectivos.contains(fecha)) {
+                for (Horario horario : delDia) {
+                    sesiones.add(new SesionPlanificada(fecha, horario.getHoraInicio(), horario.getHoraFin()));
+                }
+            }
+        }
+        return sesiones;
+    }
+
+    // Último día con sesiones creadas: fin del periodo o de la ventana, lo que llegue antes
+    private LocalDate horizonte(Seccion seccion, LocalDate hoy) {
+        if (ventanaSemanas <= 0) {
+            return seccion.getFechaFin();
+        }
+        LocalDate finVentana = hoy.plusWeeks(ventanaSemanas);
+        return finVentana.isBefore(seccion.getFechaFin()) ? finVentana : seccion.getFechaFin();
+    }
+
+    private Set<LocalDate> diasNoLectivos(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            return Set.of();
+        }
+        return new HashSet<>(diaNoLectivoRepository.findFechasEntre(desde, hasta));
+    }
+
+    private static LocalDate masTardia(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void insertar(Long seccionId, List<SesionPlanificada> sesiones) {
+        insertarFilas(sesiones.stream().map(s -> new FilaSesion(seccionId, s)).toList());
+    }
+
+    private void insertarFilas(List<FilaSesion> filas) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_SESION, filas, TAMANO_LOTE, (ps, fila) -> {
+            ps.setLong(1, fila.seccionId());
+            ps.setDate(2, Date.valueOf(fila.sesion().fecha()));
+            ps.setTime(3, Time.valueOf(fila.sesion().horaInicio()));
+            ps.setTime(4, Time.valueOf(fila.sesion().horaFin()));
+        });
+    }
+
+    /**
+     * Una sesión por generar: fecha y bloque horario.
+     */
+    public record SesionPlanificada(LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+    }
+
+    private record FilaSesion(Long seccionId, SesionPlanificada sesion) {
+    }
+
+    /**
+     * Clave natural de una sesión dentro de su sección.
+     */
+    private record ClaveSesion(LocalDate fecha, LocalTime horaInicio) {
+    }
+
+    /**
+     * Resultado de sincronizar un calendario: sesiones creadas, con hora de fin actualizada, borradas,
+     * fuera de horario pero conservadas por tener datos, y sin cambios.
+     */
+    public record CambiosCalendario(int creadas, int actualizadas, int eliminadas, int conservadasConDatos, int sinCambios) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ConflictoHorarioDTO;
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.repository.HorarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Detección de cruces de horario en memoria.
+ * Carga una sola vez los horarios ocupados de la persona (alumno o profesor) y compara
+ * todos los horarios candidatos con un barrido de intervalos ordenados por día.
+ * Devuelve todos los cruces encontrados, no solo el primero.
+ */
+@Service
+public class CruceHorariosService {
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    /**
+     * Cruces de los horarios candidatos con las secciones ACTIVAS del alumno (una consulta).
+     */
+    public List<Conflicto> conflictosAlumno(Long alumnoId, Collection<Horario> candidatos) {
+        List<Intervalo> ocupados = horarioRepository.findHorariosDeAlumno(alumnoId).stream()
+                .map(Intervalo::deHorario)
+                .collect(Collectors.toList());
+        return buscarConflictos(ocupados, candidatos.stream().map(Intervalo::deHorario).collect(Collectors.toList()));
+    }
+
+    /**
+     * Todos los cruces de los horarios candidatos: con las clases del profesor en otras secciones
+     * (una consulta, sin contar 'seccionIdIgnorar': la sección que se edita, -1 al crear)
+     * y entre los propios candidatos. Cada cruce informa el código de la sección con la que choca.
+     */
+    public List<ConflictoHorarioDTO> conflictosProfesor(Long profesorId, Collection<HorarioDTO> candidatos, Long seccionIdIgnorar) {
+        Map<Long, String> codigos = new HashMap<>();
+        List<Intervalo> ocupados = new ArrayList<>();
+        for (Horario horario : horarioRepository.findOcupacionProfesor(profesorId, seccionIdIgnorar == null ? -1L : seccionIdIgnorar)) {
+            codigos.putIfAbsent(horario.getSeccion().getId(), horario.getSeccion().getCodigo());
+            ocupados.add(Intervalo.deHorario(horario));
+        }
+        List<Intervalo> nuevos = candidatos.stream()
+                .map(h -> new Intervalo(h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin(), null))
+                .collect(Collectors.toList());
+
+        List<ConflictoHorarioDTO> reporte = new ArrayList<>();
+        for (Conflicto conflicto : buscarConflictos(ocupados, nuevos)) {
+            reporte.add(aDTO(conflicto, codigos.get(conflicto.ocupado().seccionId())));
+        }
+        // Pocos horarios por sección: basta comparar cada par una vez
+        for (int i = 0; i < nuevos.size(); i++) {
+            for (int j = i + 1; j < nuevos.size(); j++) {
+                Intervalo a = nuevos.get(i);
+                Intervalo b = nuevos.get(j);
+                if (a.dia() == b.dia() && a.inicio().isBefore(b.fin()) && b.inicio().isBefore(a.fin())) {
+                    reporte.add(aDTO(new Conflicto(b, a), null));
+                }
+            }
+        }
+        reporte.sort(Comparator.comparing(ConflictoHorarioDTO::getDiaSemana).thenComparing(ConflictoHorarioDTO::getHoraInicio));
+        return reporte;
+    }
+
+    /**
+     * Barrido por día: ocupados y candidatos se ordenan por hora de inicio y se recorren juntos.
+     * Un ocupado que terminó antes del inicio de un candidato ya no puede cruzarse con los
+     * siguientes (empiezan más tarde), así que el puntero de inicio solo avanza.
+     * Coste O(n log n + m log m + cruces) frente a una consulta por candidato.
+     */
+    public static List<Conflicto> buscarConflictos(List<Intervalo> ocupados, List<Intervalo> candidatos) {
+        List<Conflicto> conflictos = new ArrayList<>();
+        if (ocupados.isEmpty() || candidatos.isEmpty()) {
+            return conflictos;
+        }
+
+        Map<DayOfWeek, List<Intervalo>> ocupadosPorDia = agruparPorDia(ocupados);
+        Map<DayOfWeek, List<Intervalo>> candidatosPorDia = agruparPorDia(candidatos);
+
+        for (Map.Entry<DayOfWeek, List<Intervalo>> entrada : candidatosPorDia.entrySet()) {
+            List<Intervalo> delDia = ocupadosPorDia.get(entrada.getKey());
+            if (delDia == null) {
+                continue;
+            }
+            int desde = 0;
+            for (Intervalo candidato : entrada.getValue()) {
+                while (desde < delDia.size() && !delDia.get(desde).fin().isAfter(candidato.inicio())) {
+                    desde++;
+                }
+                for (int i = desde; i < delDia.size() && delDia.get(i).inicio().isBefore(candidato.fin()); i++) {
+                    Intervalo ocupado = delDia.get(i);
+                    if (ocupado.fin().isAfter(candidato.inicio())) {
+                        conflictos.add(new Conflicto(candidato, ocupado));
+                    }
+                }
+            }
+        }
+        return conflictos;
+    }
+
+    /**
+     * Texto para el mensaje de error con todos los cruces, separados por "; ".
+     */
+    public static String describir(List<Conflicto> conflictos) {
+        return conflictos.stream().map(Conflicto::getDescripcion).collect(Collectors.joining("; "));
+    }
+
+    private static ConflictoHorarioDTO aDTO(Conflicto conflicto, String codigoSeccion) {
+        Intervalo candidato = conflicto.candidato();
+        Intervalo ocupado = conflicto.ocupado();
+        String descripcion = codigoSeccion != null
+                ? String.format("%s %s-%s se cruza con la sección %s (%s-%s)",
+                        candidato.dia(), candidato.inicio(), candidato.fin(), codigoSeccion, ocupado.inicio(), ocupado.fin())
+                : String.format("%s %s-%s se cruza con otro horario de la misma sección (%s-%s)",
+                        candidato.dia(), candidato.inicio(), candidato.fin(), ocupado.inicio(), ocupado.fin());
+        return ConflictoHorarioDTO.builder()
+                .diaSemana(candidato.dia())
+                .horaInicio(candidato.inicio())
+                .horaFin(candidato.fin())
+                .horaInicioOcupada(ocupado.inicio())
+                .horaFinOcupada(ocupado.fin())
+                .seccionId(ocupado.seccionId())
+                .codigoSeccion(codigoSeccion)
+                .descripcion(descripcion)
+                .build();
+    }
+
+    private static Map<DayOfWeek, List<Intervalo>> agruparPorDia(List<Intervalo> intervalos) {
+        Map<DayOfWeek, List<Intervalo>> porDia = new EnumMap<>(DayOfWeek.class);
+        for (Intervalo intervalo : intervalos) {
+            porDia.computeIfAbsent(intervalo.dia(), d -> new ArrayList<>()).add(intervalo);
+        }
+        porDia.values().forEach(lista -> lista.sort(Comparator.comparing(Intervalo::inicio)));
+        return porDia;
+    }
+
+    /**
+     * Franja semanal [inicio, fin) de un día. 'seccionId' es null para horarios aún no guardados.
+     */
+    public record Intervalo(DayOfWeek dia, LocalTime inicio, LocalTime fin, Long seccionId) {
+
+        public static Intervalo deHorario(Horario horario) {
+            Long seccionId = horario.getSeccion() != null ? horario.getSeccion().getId() : null;
+            return new Intervalo(horario.getDiaSemana(), horario.getHoraInicio(), horario.getHoraFin(), seccionId);
+        }
+    }
+
+    /**
+     * Un horario candidato que se solapa con uno ya ocupado.
+     */
+    public record Conflicto(Intervalo candidato, Intervalo ocupado) {
+
+        public String getDescripcion() {
+            return String.format("%s %s-%s se cruza con la clase de %s a %s",
+                    candidato.dia(), candidato.inicio(), candidato.fin(), ocupado.inicio(), ocupado.fin());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.response.SeccionEnCursoDTO;
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.repository.HorarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice en memoria de las clases en curso: los horarios de las secciones activas repartidos
+ * por día y franja de 5 minutos. Responder "qué se dicta el día D a la hora H" es leer una franja
+ * y filtrar sus pocas entradas, sin consultar la BD.
+ *
+ * Quien modifica secciones, horarios, cursos o profesores llama a invalidar(); el índice se vuelve
+ * a armar con una consulta en la siguiente lectura. Misma semántica que
+ * SeccionRepository.findByHorarioActivo: sección activa y horaInicio <= H < horaFin.
+ */
+@Service
+public class HorariosEnCursoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HorariosEnCursoService.class);
+
+    private static final int MINUTOS_POR_FRANJA = 5;
+    private static final int FRANJAS_POR_DIA = 24 * 60 / MINUTOS_POR_FRANJA;
+    private static final SeccionEnCursoDTO[] VACIA = new SeccionEnCursoDTO[0];
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    // null = hay que reconstruirlo antes de la próxima lectura
+    private volatile SeccionEnCursoDTO[][] franjas;
+
+    // Sube con cada invalidación: un índice armado mientras cambiaban los datos no se publica
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Clases que se dictan en ese momento, una por sección, ordenadas por hora de inicio.
+     */
+    public List<SeccionEnCursoDTO> enCurso(DayOfWeek dia, LocalTime hora) {
+        SeccionEnCursoDTO[][] indice = franjas;
+        if (indice == null) {
+            indice = reconstruir();
+        }
+        Map<Long, SeccionEnCursoDTO> porSeccion = new LinkedHashMap<>();
+        for (SeccionEnCursoDTO clase : indice[posicion(dia, hora)]) {
+            if (!clase.getHoraInicio().isAfter(hora) && clase.getHoraFin().isAfter(hora)) {
+                porSeccion.putIfAbsent(clase.getSeccionId(), clase);
+            }
+        }
+        return new ArrayList<>(porSeccion.values());
+    }
+
+    /**
+     * Descarta el índice. Si hay una transacción en curso, tras el commit
+     * (antes, la reconstrucción leería los datos anteriores).
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartar();
+                }
+            });
+        } else {
+            descartar();
+        }
+    }
+
+    private void descartar() {
+        version.incrementAndGet();
+        franjas = null;
+    }
+
+    private synchronized SeccionEnCursoDTO[][] reconstruir() {
+        if (franjas != null) {
+            return franjas;
+        }
+        long versionLeida = version.get();
+        List<List<SeccionEnCursoDTO>> porFranja = new ArrayList<>(7 * FRANJAS_POR_DIA);
+        for (int i = 0; i < 7 * FRANJAS_POR_DIA; i++) {
+            porFranja.add(null);
+        }
+        List<Horario> horarios = horarioRepository.findHorariosActivosParaIndice();
+        for (Horario horario : horarios) {
+            SeccionEnCursoDTO clase = SeccionEnCursoDTO.deHorario(horario);
+            int desde = posicion(horario.getDiaSemana(), horario.getHoraInicio());
+            int hasta = posicion(horario.getDiaSemana(), horario.getHoraFin().minusNanos(1));
+            for (int i = desde; i <= hasta; i++) {
+                if (porFranja.get(i) == null) {
+                    porFranja.set(i, new ArrayList<>());
+                }
+                porFranja.get(i).add(clase);
+            }
+        }
+
+        SeccionEnCursoDTO[][] indice = new SeccionEnCursoDTO[7 * FRANJAS_POR_DIA][];
+        for (int i = 0; i < indice.length; i++) {
+            List<SeccionEnCursoDTO> clases = porFranja.get(i);
+            if (clases == null) {
+                indice[i] = VACIA;
+            } else {
+                clases.sort(Comparator.comparing(SeccionEnCursoDTO::getHoraInicio));
+                indice[i] = clases.toArray(VACIA);
+            }
+        }
+        if (version.get() == versionLeida) {
+            franjas = indice;
+        }
+        logger.info("Índice de clases en curso reconstruido: {} horarios", horarios.size());
+        return indice;
+    }
+
+    private static int posicion(DayOfWeek dia, LocalTime hora) {
+        return (dia.getValue() - 1) * FRANJAS_POR_DIA + (hora.getHour() * 60 + hora.getMinute()) / MINUTOS_POR_FRANJA;
+    }
+}
@@ -0,0 +1,227 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.fundaciondeportiva.exception.DemasiadasSolicitudesException;
+import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.ClaveIdempotencia;
+import com.proyecto.fundaciondeportiva.repository.ClaveIdempotenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Soporte para la cabecera Idempotency-Key en escrituras que los clientes reintentan
+ * (matrícula, registro de asistencia).
+ * - La primera petición con una clave ejecuta la operación y su respuesta queda guardada durante el TTL.
+ * - Los reintentos con la misma clave reciben esa respuesta sin volver a ejecutar la transacción.
+ * - Un duplicado que llega mientras la primera sigue en curso espera su resultado en lugar de competir con ella.
+ * Los rechazos de negocio (400/404) también se repiten; un error inesperado libera la clave.
+ * Con 'idempotencia.persistente=true' las respuestas exitosas se guardan además en 'claves_idempotencia'.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    // Cada cuántas llamadas se purgan las entradas vencidas
+    private static final int PURGA_CADA = 256;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotencia.ttl-segundos:86400}")
+    private long ttlSegundos;
+
+    @Value("${idempotencia.espera-maxima-ms:30000}")
+    private long esperaMaximaMs;
+
+    @Value("${idempotencia.persistente:false}")
+    private boolean persistente;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final AtomicLong llamadas = new AtomicLong();
+
+    /**
+     * Ejecuta 'accion' una sola vez por (operación, usuario, clave).
+     * Sin clave, la acción se ejecuta siempre (comportamiento anterior).
+     */
+    public ResponseEntity<?> ejecutar(String clave, String operacion, String usuario, Object peticion,
+                                      Supplier<ResponseEntity<?>> accion) {
+        if (!StringUtils.hasText(clave)) {
+            return accion.get();
+        }
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new ValidacionException("La cabecera " + CABECERA + " no puede superar " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+        if (llamadas.incrementAndGet() % PURGA_CADA == 0) {
+            purgarVencidas();
+        }
+
+        String id = operacion + ":" + usuario + ":" + clave;
+        String huella = huella(peticion);
+        long ahora = System.currentTimeMillis();
+
+        Entrada nueva = new Entrada(huella);
+        Entrada actual = entradas.compute(id, (k, e) -> e == null || e.vencida(ahora) ? nueva : e);
+        if (actual != nueva) {
+            return repetir(actual, huella);
+        }
+
+        if (persistente) {
+            Optional<ClaveIdempotencia> guardada = claveIdempotenciaRepository.findById(id)
+                    .filter(c -> c.getFechaExpiracion().isAfter(LocalDateTime.now()));
+            if (guardada.isPresent()) {
+                ClaveIdempotencia c = guardada.get();
+                if (!c.getHuella().equals(huella)) {
+                    nueva.completar(new Resultado(null, claveReutilizada()));
+                    throw claveReutilizada();
+                }
+                ResponseEntity<?> respuesta = ResponseEntity.status(c.getEstadoHttp())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(c.getCuerpo());
+                nueva.completar(new Resultado(respuesta, null));
+                return marcarRepetida(respuesta);
+            }
+        }
+
+        ResponseEntity<?> respuesta;
+        try {
+            respuesta = accion.get();
+        } catch (ValidacionException | RecursoNoEncontradoException e) {
+            nueva.completar(new Resultado(null, e));
+            throw e;
+        } catch (RuntimeException e) {
+            entradas.remove(id, nueva);
+            nueva.resultado.completeExceptionally(e);
+            throw e;
+        }
+        nueva.completar(new Resultado(respuesta, null));
+
+        if (persistente && respuesta.getStatusCode().is2xxSuccessful()) {
+            guardar(id, huella, respuesta);
+        }
+        return respuesta;
+    }
+
+    public int getClavesEnMemoria() {
+        return entradas.size();
+    }
+
+    private ResponseEntity<?> repetir(Entrada entrada, String huella) {
+        if (!entrada.huella.equals(huella)) {
+            throw claveReutilizada();
+        }
+        Resultado resultado;
+        try {
+            resultado = entrada.resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DemasiadasSolicitudesException("La petición original con esta " + CABECERA + " aún se está procesando. Intenta de nuevo en unos segundos.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error en la petición original", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera interrumpida", e);
+        }
+        if (resultado.error() != null) {
+            throw resultado.error();
+        }
+        return marcarRepetida(resultado.respuesta());
+    }
+
+    private static ResponseEntity<?> marcarRepetida(ResponseEntity<?> original) {
+        HttpHeaders cabeceras = new HttpHeaders();
+        cabeceras.addAll(original.getHeaders());
+        cabeceras.set(CABECERA_REPETIDA, "true");
+        return new ResponseEntity<>(original.getBody(), cabeceras, original.getStatusCode());
+    }
+
+    private void guardar(String id, String huella, ResponseEntity<?> respuesta) {
+        try {
+            String cuerpo = respuesta.getBody() == null ? null : objectMapper.writeValueAsString(respuesta.getBody());
+            claveIdempotenciaRepository.save(ClaveIdempotencia.builder()
+                    .clave(id)
+                    .huella(huella)
+                    .estadoHttp(respuesta.getStatusCode().value())
+                    .cuerpo(cuerpo)
+                    .fechaExpiracion(LocalDateTime.now().plusSeconds(ttlSegundos))
+                    .build());
+        } catch (RuntimeException | JsonProcessingException e) {
+            // La operación ya se hizo; sin respaldo solo queda la copia en memoria
+            logger.warn("No se pudo guardar la clave de idempotencia {}", id, e);
+        }
+    }
+
+    private void purgarVencidas() {
+        long ahora = System.currentTimeMillis();
+        entradas.values().removeIf(e -> e.vencida(ahora));
+        if (persistente) {
+            claveIdempotenciaRepository.eliminarExpiradas(LocalDateTime.now());
+        }
+    }
+
+    private String huella(Object peticion) {
+        try {
+            byte[] json = peticion == null ? new byte[0] : objectMapper.writeValueAsBytes(peticion);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la petición", e);
+        }
+    }
+
+    private static ValidacionException claveReutilizada() {
+        return new ValidacionException("La cabecera " + CABECERA + " ya se usó con una petición distinta");
+    }
+
+    private record Resultado(ResponseEntity<?> respuesta, RuntimeException error) {
+    }
+
+    private final class Entrada {
+        private final String huella;
+        private final CompletableFuture<Resultado> resultado = new CompletableFuture<>();
+        // 0 mientras la primera petición sigue en curso: no vence
+        private volatile long expiraEn;
+
+        Entrada(String huella) {
+            this.huella = huella;
+        }
+
+        void completar(Resultado r) {
+            expiraEn = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSegundos);
+            resultado.complete(r);
+        }
+
+        boolean vencida(long ahora) {
+            long expira = expiraEn;
+            return expira != 0 && expira < ahora;
+        }
+    }
+}
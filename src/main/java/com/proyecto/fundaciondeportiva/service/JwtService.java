@@ -1,18 +1,32 @@
 package com.proyecto.fundaciondeportiva.service;
 
+import com.proyecto.fundaciondeportiva.config.UsuarioPrincipal;
+import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 @Service
@@ -21,34 +35,111 @@ public class JwtService {
     @Value("${jwt.secret}")
     private String SECRET_KEY;
 
+    // Máximo de tokens verificados que se mantienen en memoria
+    @Value("${jwt.cache.max-entradas:10000}")
+    private int maxEntradasCache;
+
     // TIEMPO DE EXPIRACIÓN: 15 Minutos (en milisegundos)
     // 1000 ms * 60 s * 15 m
     public static final long EXPIRATION_TIME = 1000 * 60 * 15;
 
+    // Claims propios que permiten reconstruir el principal sin ir a la BD
+    private static final String CLAIM_USUARIO_ID = "uid";
+    private static final String CLAIM_ROL = "rol";
+    private static final String CLAIM_VERSION = "ver";
+
+    // Clave y parser se construyen una sola vez al arrancar (antes se decodificaba la clave en cada petición)
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // Cache de tokens ya verificados: digest del token -> claims + expiración
+    private final Map<String, TokenVerificado> tokensVerificados = new ConcurrentHashMap<>();
+    private final LongAdder aciertosCache = new LongAdder();
+    private final LongAdder fallosCache = new LongAdder();
+
+    // Con la cache llena, los expirados se purgan en el primero de cada PURGA_CADA fallos (no en todos)
+    private static final int PURGA_CADA = 256;
+    private final AtomicLong fallosConCacheLlena = new AtomicLong();
+
+    // MessageDigest no es thread-safe: una instancia por hilo en lugar de una por token
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(JwtService::nuevoSha256);
+
+    // Tokens firmados: total y por minuto (ventana circular de 60 minutos)
+    private static final int MINUTOS_VENTANA = 60;
+    private final LongAdder tokensFirmados = new LongAdder();
+    private final AtomicLongArray firmasPorMinuto = new AtomicLongArray(MINUTOS_VENTANA);
+    private final AtomicLongArray minutoDeCasilla = new AtomicLongArray(MINUTOS_VENTANA);
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(UserDetails userDetails) {
-        return createToken(new HashMap<>(), userDetails.getUsername());
+        return generateToken(userDetails, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Firma un token con el jti indicado, para quien necesita conocerlo sin volver a leer el token.
+     */
+    String generateToken(UserDetails userDetails, String jti) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof Usuario usuario) {
+            claims.put(CLAIM_USUARIO_ID, usuario.getId());
+            claims.put(CLAIM_ROL, usuario.getRol().name());
+            claims.put(CLAIM_VERSION, usuario.getTokenVersion() != null ? usuario.getTokenVersion() : 0);
+        } else if (userDetails instanceof UsuarioPrincipal principal) {
+            claims.put(CLAIM_USUARIO_ID, principal.getId());
+            claims.put(CLAIM_ROL, principal.getRol().name());
+            claims.put(CLAIM_VERSION, principal.getTokenVersion());
+        }
+        return createToken(claims, userDetails.getUsername(), jti);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, String jti) {
+        registrarFirma();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                // jti: identificador único para poder revocar el token en el logout
+                .setId(jti)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 // Usamos la constante de 15 minutos
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Construye el principal ligero a partir de los claims del token.
+     * Devuelve null si el token es antiguo y no trae id/rol/versión.
+     */
+    public UsuarioPrincipal extractPrincipal(String token) {
+        return extractPrincipal(extractAllClaims(token));
+    }
+
+    public UsuarioPrincipal extractPrincipal(Claims claims) {
+        Number usuarioId = claims.get(CLAIM_USUARIO_ID, Number.class);
+        String rol = claims.get(CLAIM_ROL, String.class);
+        Number version = claims.get(CLAIM_VERSION, Number.class);
+        if (usuarioId == null || rol == null || version == null) {
+            return null;
+        }
+        return new UsuarioPrincipal(usuarioId.longValue(), claims.getSubject(), Rol.valueOf(rol), version.intValue());
+    }
+
+    public String extractId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -58,20 +149,116 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Devuelve los claims del token. Un token se verifica (HMAC + parseo) como máximo
+     * una vez mientras sea válido; las siguientes llamadas se resuelven desde la cache.
+     * Cada llamada calcula el digest del token: quien necesite varios claims debe pedirlos una vez
+     * y usar las sobrecargas que reciben {@link Claims}.
+     */
+    public Claims extractAllClaims(String token) {
+        String digest = calcularDigest(token);
+        long ahora = System.currentTimeMillis();
+
+        TokenVerificado verificado = tokensVerificados.get(digest);
+        if (verificado != null) {
+            if (verificado.expiraEn() > ahora) {
+                aciertosCache.increment();
+                return verificado.claims();
+            }
+            tokensVerificados.remove(digest, verificado);
+        }
+
+        fallosCache.increment();
+        // Lanza ExpiredJwtException / SignatureException si el token no es válido
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        guardarEnCache(digest, claims, ahora);
+        return claims;
+    }
+
+    private void guardarEnCache(String digest, Claims claims, long ahora) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        if (tokensVerificados.size() >= maxEntradasCache) {
+            // Liberamos los expirados de vez en cuando; mientras siga llena, este token no se cachea
+            if (fallosConCacheLlena.getAndIncrement() % PURGA_CADA == 0) {
+                tokensVerificados.values().removeIf(t -> t.expiraEn() <= ahora);
+            }
+            if (tokensVerificados.size() >= maxEntradasCache) {
+                return;
+            }
+        }
+        tokensVerificados.put(digest, new TokenVerificado(claims, claims.getExpiration().getTime()));
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private String calcularDigest(String token) {
+        // digest() deja la instancia lista para el siguiente uso del mismo hilo
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static MessageDigest nuevoSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en la JVM", e);
+        }
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(extractAllClaims(token), userDetails);
+    }
+
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+
+    // --- Métricas de la cache ---
+
+    public long getAciertosCache() {
+        return aciertosCache.sum();
+    }
+
+    public long getFallosCache() {
+        return fallosCache.sum();
+    }
+
+    public int getTamanoCache() {
+        return tokensVerificados.size();
+    }
+
+    // --- Métricas de firma ---
+
+    private void registrarFirma() {
+        tokensFirmados.increment();
+        long minuto = System.currentTimeMillis() / 60_000;
+        int casilla = (int) (minuto % MINUTOS_VENTANA);
+        long minutoGuardado = minutoDeCasilla.get(casilla);
+        if (minutoGuardado != minuto && minutoDeCasilla.compareAndSet(casilla, minutoGuardado, minuto)) {
+            // La casilla pertenecía a un minuto antiguo: se reinicia
+            firmasPorMinuto.set(casilla, 0);
+        }
+        firmasPorMinuto.incrementAndGet(casilla);
     }
-}
\ No newline at end of file
+
+    public long getTokensFirmados() {
+        return tokensFirmados.sum();
+    }
+
+    /**
+     * Tokens firmados en cada uno de los últimos minutos, del más reciente al más antiguo.
+     */
+    public long[] getTokensFirmadosPorMinuto(int minutos) {
+        int cantidad = Math.min(minutos, MINUTOS_VENTANA);
+        long minutoActual = System.currentTimeMillis() / 60_000;
+        long[] resultado = new long[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            long minuto = minutoActual - i;
+            int casilla = (int) (minuto % MINUTOS_VENTANA);
+            resultado[i] = minutoDeCasilla.get(casilla) == minuto ? firmasPorMinuto.get(casilla) : 0;
+        }
+        return resultado;
+    }
+
+    private record TokenVerificado(Claims claims, long expiraEn) {}
+}
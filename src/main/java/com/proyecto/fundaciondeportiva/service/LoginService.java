@@ -0,0 +1,209 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.exception.DemasiadasSolicitudesException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ruta de ejecución dedicada para el login.
+ * - El BCrypt corre en un pool acotado al número de núcleos, no en los hilos de Tomcat.
+ * - Si la cola del pool está llena se responde 429 en lugar de encolar sin límite.
+ * - Limita los intentos por email y por IP (token bucket) antes de gastar CPU en el hash.
+ */
+@Service
+public class LoginService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginService.class);
+
+    // Cada cuántos intentos se purgan las cubetas llenas (inactivas): el recorrido se reparte entre muchos logins
+    private static final int PURGA_CADA = 256;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Value("${login.pool.cola-maxima:64}")
+    private int colaMaxima;
+
+    @Value("${login.espera-maxima-ms:5000}")
+    private long esperaMaximaMs;
+
+    @Value("${login.limite.email.capacidad:5}")
+    private int capacidadPorEmail;
+
+    @Value("${login.limite.email.recarga-por-minuto:5}")
+    private double recargaPorEmail;
+
+    @Value("${login.limite.ip.capacidad:30}")
+    private int capacidadPorIp;
+
+    @Value("${login.limite.ip.recarga-por-minuto:30}")
+    private double recargaPorIp;
+
+    private ThreadPoolExecutor poolHashing;
+
+    private final Map<String, TokenBucket> cubetasPorEmail = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> cubetasPorIp = new ConcurrentHashMap<>();
+
+    private final AtomicLong llamadas = new AtomicLong();
+
+    private final LongAdder rechazadosPorCola = new LongAdder();
+    private final LongAdder rechazadosPorLimite = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.poolHashing = new ThreadPoolExecutor(
+                nucleos, nucleos,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(colaMaxima),
+                r -> {
+                    Thread hilo = new Thread(r, "login-bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Pool de login iniciado con {} hilos y cola máxima de {}", nucleos, colaMaxima);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        poolHashing.shutdown();
+    }
+
+    /**
+     * Autentica email/contraseña en el pool de hashing.
+     * Las excepciones de autenticación (BadCredentialsException, etc.) se relanzan tal cual.
+     */
+    public Authentication autenticar(String email, String password, String ip) {
+        String clave = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+
+        if (llamadas.incrementAndGet() % PURGA_CADA == 0) {
+            purgarCubetasLlenas();
+        }
+        if (!consumir(cubetasPorIp, ip, capacidadPorIp, recargaPorIp)
+                || !consumir(cubetasPorEmail, clave, capacidadPorEmail, recargaPorEmail)) {
+            rechazadosPorLimite.increment();
+            logger.warn("Login limitado para email {} desde IP {}", clave, ip);
+            throw new DemasiadasSolicitudesException("Demasiados intentos de inicio de sesión. Intenta de nuevo en unos minutos.");
+        }
+
+        if (poolHashing.getQueue().size() >= colaMaxima) {
+            rechazadosPorCola.increment();
+            throw new DemasiadasSolicitudesException("El servidor está procesando muchos inicios de sesión. Intenta de nuevo en unos segundos.");
+        }
+
+        Future<Authentication> resultado;
+        try {
+            resultado = poolHashing.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password)));
+        } catch (RejectedExecutionException e) {
+            rechazadosPorCola.increment();
+            throw new DemasiadasSolicitudesException("El servidor está procesando muchos inicios de sesión. Intenta de nuevo en unos segundos.");
+        }
+
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error al autenticar", e.getCause());
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            rechazadosPorCola.increment();
+            throw new DemasiadasSolicitudesException("El inicio de sesión tardó demasiado. Intenta de nuevo en unos segundos.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrumpido", e);
+        }
+    }
+
+    private boolean consumir(Map<String, TokenBucket> cubetas, String clave, int capacidad, double recargaPorMinuto) {
+        TokenBucket cubeta = cubetas.computeIfAbsent(clave == null ? "" : clave,
+                k -> new TokenBucket(capacidad, recargaPorMinuto));
+        return cubeta.intentarConsumir();
+    }
+
+    // Una cubeta llena equivale a una nueva: se puede descartar sin perder el límite
+    private void purgarCubetasLlenas() {
+        long ahora = System.nanoTime();
+        cubetasPorEmail.values().removeIf(c -> c.estaLlena(ahora));
+        cubetasPorIp.values().removeIf(c -> c.estaLlena(ahora));
+    }
+
+    // --- Métricas ---
+
+    public int getHashingActivos() {
+        return poolHashing.getActiveCount();
+    }
+
+    public int getColaActual() {
+        return poolHashing.getQueue().size();
+    }
+
+    public long getRechazadosPorCola() {
+        return rechazadosPorCola.sum();
+    }
+
+    public long getRechazadosPorLimite() {
+        return rechazadosPorLimite.sum();
+    }
+
+    public int getCubetasActivas() {
+        return cubetasPorEmail.size() + cubetasPorIp.size();
+    }
+
+    /**
+     * Token bucket simple: 'capacidad' intentos de ráfaga, recargados a ritmo constante.
+     */
+    private static final class TokenBucket {
+        private final double capacidad;
+        private final double recargaPorNano;
+        private double tokens;
+        private long ultimaRecarga;
+
+        TokenBucket(int capacidad, double recargaPorMinuto) {
+            this.capacidad = capacidad;
+            this.recargaPorNano = recargaPorMinuto / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacidad;
+            this.ultimaRecarga = System.nanoTime();
+        }
+
+        synchronized boolean intentarConsumir() {
+            recargar(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean estaLlena(long ahora) {
+            recargar(ahora);
+            return tokens >= capacidad;
+        }
+
+        private void recargar(long ahora) {
+            if (ahora > ultimaRecarga) {
+                tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * recargaPorNano);
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.repository.HorarioRepository;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService.Conflicto;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService.Intervalo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Ocupación semanal de las aulas en memoria, para validar cruces sin consultar la BD.
+ * Cada aula tiene un mapa de bits de 7 días × 288 franjas de 5 minutos (32 long), así que
+ * comprobar unos horarios es un AND palabra a palabra. Las franjas se redondean hacia afuera;
+ * si el AND encuentra algo, se confirma con las horas exactas para no rechazar clases contiguas.
+ *
+ * Se arma al arrancar (OcupacionAulasInitializer) con los horarios de las secciones activas y
+ * se actualiza al guardar, activar, desactivar o eliminar secciones. La reserva se hace dentro de
+ * la transacción (así dos altas simultáneas no pueden tomar la misma franja) y se deshace si ésta
+ * hace rollback. Vale para una sola instancia de la aplicación.
+ */
+@Service
+public class OcupacionAulasService {
+
+    public static final int MINUTOS_POR_FRANJA = 5;
+    private static final int FRANJAS_POR_DIA = 24 * 60 / MINUTOS_POR_FRANJA;
+    private static final int PALABRAS = (7 * FRANJAS_POR_DIA + 63) / 64;
+
+    @Autowired
+    private HorarioRepository horarioRepository;
+
+    // Protegidos por 'this'
+    private final Map<Long, OcupacionAula> aulas = new HashMap<>();
+    private final Map<Long, Long> aulaDeSeccion = new HashMap<>();
+
+    /**
+     * Vuelve a cargar toda la ocupación desde la BD. Devuelve cuántas secciones quedaron ubicadas.
+     */
+    public synchronized int reconstruir() {
+        aulas.clear();
+        aulaDeSeccion.clear();
+        for (Horario horario : horarioRepository.findOcupacionAulas()) {
+            Long seccionId = horario.getSeccion().getId();
+            Long aulaId = horario.getSeccion().getAulaAsignada().getId();
+            aulas.computeIfAbsent(aulaId, id -> new OcupacionAula()).agregar(seccionId, Intervalo.deHorario(horario));
+            aulaDeSeccion.put(seccionId, aulaId);
+        }
+        return aulaDeSeccion.size();
+    }
+
+    /**
+     * Reserva el aula para los horarios de la sección (y la libera de donde estuviera antes).
+     * Si se cruza con otra sección no reserva nada y devuelve los cruces.
+     */
+    public synchronized List<Conflicto> reservar(Long aulaId, Long seccionId, List<Intervalo> horarios) {
+        OcupacionAula ocupacion = aulas.get(aulaId);
+        if (ocupacion != null && ocupacion.seCruza(mascara(horarios), seccionId)) {
+            List<Conflicto> conflictos = CruceHorariosService.buscarConflictos(ocupacion.intervalosSin(seccionId), horarios);
+            if (!conflictos.isEmpty()) {
+                return conflictos;
+            }
+        }
+        mover(seccionId, aulaId, horarios);
+        return List.of();
+    }
+
+    /**
+     * La sección deja de ocupar su aula (desactivada, eliminada o sin aula registrada).
+     */
+    public synchronized void liberar(Long seccionId) {
+        if (aulaDeSeccion.containsKey(seccionId)) {
+            mover(seccionId, null, null);
+        }
+    }
+
+    /**
+     * Indica si el aula no tiene clases que se crucen con [inicio, fin) ese día.
+     */
+    public synchronized boolean estaLibre(Long aulaId, DayOfWeek dia, LocalTime inicio, LocalTime fin) {
+        OcupacionAula ocupacion = aulas.get(aulaId);
+        List<Intervalo> candidato = List.of(new Intervalo(dia, inicio, fin, null));
+        return ocupacion == null || !ocupacion.seCruza(mascara(candidato), null)
+                || CruceHorariosService.buscarConflictos(ocupacion.intervalosSin(null), candidato).isEmpty();
+    }
+
+    /**
+     * Minutos ocupados del aula por día de la semana, contando franjas de 5 minutos
+     * entre 'desde' y 'hasta' (null = hasta el fin del día).
+     */
+    public synchronized Map<DayOfWeek, Integer> minutosOcupados(Long aulaId, LocalTime desde, LocalTime hasta) {
+        Map<DayOfWeek, Integer> minutos = new EnumMap<>(DayOfWeek.class);
+        OcupacionAula ocupacion = aulas.get(aulaId);
+        int franjaDesde = franja(desde);
+        int franjaHasta = hasta != null ? franjaTope(hasta) : FRANJAS_POR_DIA;
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            int base = (dia.getValue() - 1) * FRANJAS_POR_DIA;
+            int franjas = ocupacion != null ? contarBits(ocupacion.bits, base + franjaDesde, base + franjaHasta) : 0;
+            minutos.put(dia, franjas * MINUTOS_POR_FRANJA);
+        }
+        return minutos;
+    }
+
+    // --- Internos ---
+
+    private void mover(Long seccionId, Long aulaNueva, List<Intervalo> horarios) {
+        Long aulaAnterior = aulaDeSeccion.get(seccionId);
+        List<Intervalo> anteriores = aulaAnterior != null ? aulas.get(aulaAnterior).quitar(seccionId) : null;
+        if (aulaNueva != null) {
+            aulas.computeIfAbsent(aulaNueva, id -> new OcupacionAula()).poner(seccionId, horarios);
+            aulaDeSeccion.put(seccionId, aulaNueva);
+        } else {
+            aulaDeSeccion.remove(seccionId);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        deshacer(seccionId, aulaNueva, aulaAnterior, anteriores);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void deshacer(Long seccionId, Long aulaNueva, Long aulaAnterior, List<Intervalo> anteriores) {
+        if (aulaNueva != null && aulas.containsKey(aulaNueva)) {
+            aulas.get(aulaNueva).quitar(seccionId);
+        }
+        if (aulaAnterior != null) {
+            aulas.computeIfAbsent(aulaAnterior, id -> new OcupacionAula()).poner(seccionId, anteriores);
+            aulaDeSeccion.put(seccionId, aulaAnterior);
+        } else {
+            aulaDeSeccion.remove(seccionId);
+        }
+    }
+
+    private static long[] mascara(List<Intervalo> horarios) {
+        long[] bits = new long[PALABRAS];
+        horarios.forEach(horario -> marcar(bits, horario));
+        return bits;
+    }
+
+    private static void marcar(long[] bits, Intervalo horario) {
+        int base = (horario.dia().getValue() - 1) * FRANJAS_POR_DIA;
+        for (int i = base + franja(horario.inicio()); i < base + franjaTope(horario.fin()); i++) {
+            bits[i >>> 6] |= 1L << i;
+        }
+    }
+
+    // Franja que contiene la hora
+    private static int franja(LocalTime hora) {
+        return (hora.getHour() * 60 + hora.getMinute()) / MINUTOS_POR_FRANJA;
+    }
+
+    // Primera franja libre después de la hora (redondeo hacia arriba)
+    private static int franjaTope(LocalTime hora) {
+        int minutos = hora.getHour() * 60 + hora.getMinute() + (hora.getSecond() > 0 ? 1 : 0);
+        return (minutos + MINUTOS_POR_FRANJA - 1) / MINUTOS_POR_FRANJA;
+    }
+
+    // Bits encendidos en [desde, hasta)
+    private static int contarBits(long[] bits, int desde, int hasta) {
+        int total = 0;
+        for (int palabra = desde >>> 6; palabra <= (hasta - 1) >>> 6 && desde < hasta; palabra++) {
+            long valor = bits[palabra];
+            if (palabra == desde >>> 6) {
+                valor &= -1L << desde;
+            }
+            if (palabra == (hasta - 1) >>> 6 && (hasta & 63) != 0) {
+                valor &= -1L >>> (64 - (hasta & 63));
+            }
+            total += Long.bitCount(valor);
+        }
+        return total;
+    }
+
+    /**
+     * Horarios de un aula por sección y el mapa de bits resultante.
+     * Nunca se solapan dos secciones, pero el mapa se recalcula completo al quitar una
+     * (son pocas secciones por aula) para no borrar franjas compartidas por el redondeo.
+     */
+    private static final class OcupacionAula {
+
+        private final Map<Long, List<Intervalo>> secciones = new HashMap<>();
+        private final long[] bits = new long[PALABRAS];
+
+        void agregar(Long seccionId, Intervalo horario) {
+            secciones.computeIfAbsent(seccionId, id -> new ArrayList<>()).add(horario);
+            marcar(bits, horario);
+        }
+
+        void poner(Long seccionId, List<Intervalo> horarios) {
+            secciones.put(seccionId, new ArrayList<>(horarios));
+            recalcular();
+        }
+
+        List<Intervalo> quitar(Long seccionId) {
+            List<Intervalo> quitados = secciones.remove(seccionId);
+            recalcular();
+            return quitados;
+        }
+
+        boolean seCruza(long[] mascara, Long seccionIgnorar) {
+            long[] ocupados = bits;
+            if (seccionIgnorar != null && secciones.containsKey(seccionIgnorar)) {
+                ocupados = new long[PALABRAS];
+                for (Intervalo horario : intervalosSin(seccionIgnorar)) {
+                    marcar(ocupados, horario);
+                }
+            }
+            for (int i = 0; i < PALABRAS; i++) {
+                if ((ocupados[i] & mascara[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Intervalo> intervalosSin(Long seccionIgnorar) {
+            List<Intervalo> intervalos = new ArrayList<>();
+            secciones.forEach((seccionId, horarios) -> {
+                if (!seccionId.equals(seccionIgnorar)) {
+                    intervalos.addAll(horarios);
+                }
+            });
+            return intervalos;
+        }
+
+        private void recalcular() {
+            Arrays.fill(bits, 0L);
+            secciones.values().forEach(horarios -> horarios.forEach(horario -> marcar(bits, horario)));
+        }
+    }
+}
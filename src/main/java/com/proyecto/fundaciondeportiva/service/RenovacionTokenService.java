@@ -0,0 +1,135 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Política de sesión deslizante: solo se emite un token nuevo cuando al actual
+ * le queda menos de una fracción configurable de {@link JwtService#EXPIRATION_TIME}.
+ * Las peticiones concurrentes con el mismo token comparten una única renovación.
+ *
+ * El token anterior sigue siendo válido hasta su expiración (puede haber peticiones en vuelo con él),
+ * así que se guarda la cadena de renovaciones: el logout revoca el token presentado y sus antecesores.
+ */
+@Service
+public class RenovacionTokenService {
+
+    @Autowired
+    private JwtService jwtService;
+
+    // Fracción de vida restante por debajo de la cual se renueva (0.5 = a los 7,5 min de 15)
+    @Value("${jwt.renovacion.umbral:0.5}")
+    private double umbralRenovacion;
+
+    // Token original -> token que lo reemplazó (se conserva hasta que expira el original)
+    private final Map<String, Renovacion> renovaciones = new ConcurrentHashMap<>();
+
+    // jti del token nuevo -> jti y expiración del token que renovó (mientras el anterior no expire)
+    private final Map<String, Antecesor> antecesores = new ConcurrentHashMap<>();
+
+    // Cada cuántas renovaciones se purgan las entradas cuyo token original ya expiró
+    private static final int PURGA_CADA = 256;
+    // Una sesión de 15 minutos no encadena más de unas pocas renovaciones vigentes; es solo un tope de seguridad
+    private static final int MAX_CADENA = 64;
+    private final AtomicLong renovacionesDesdeInicio = new AtomicLong();
+
+    private final LongAdder renovacionesRealizadas = new LongAdder();
+    private final LongAdder renovacionesReutilizadas = new LongAdder();
+    private final LongAdder renovacionesOmitidas = new LongAdder();
+
+    /**
+     * Devuelve el token que debe enviarse en la cookie, o null si el actual aún no necesita renovarse.
+     */
+    public String renovarSiCorresponde(String token, UserDetails userDetails) {
+        return renovarSiCorresponde(token, jwtService.extractAllClaims(token), userDetails);
+    }
+
+    /**
+     * Igual que {@link #renovarSiCorresponde(String, UserDetails)} con los claims ya resueltos por el filtro.
+     */
+    public String renovarSiCorresponde(String token, Claims claims, UserDetails userDetails) {
+        long ahora = System.currentTimeMillis();
+        long expiraEn = claims.getExpiration().getTime();
+
+        if (expiraEn - ahora > (long) (JwtService.EXPIRATION_TIME * umbralRenovacion)) {
+            renovacionesOmitidas.increment();
+            return null;
+        }
+
+        Renovacion existente = renovaciones.get(token);
+        if (existente != null) {
+            renovacionesReutilizadas.increment();
+            return existente.nuevoToken();
+        }
+
+        if (renovacionesDesdeInicio.incrementAndGet() % PURGA_CADA == 0) {
+            renovaciones.values().removeIf(r -> r.expiraOriginal() <= ahora);
+            antecesores.values().removeIf(a -> a.expiraEn() <= ahora);
+        }
+
+        // computeIfAbsent bloquea a las peticiones concurrentes con el mismo token mientras se firma
+        boolean[] firmado = {false};
+        Renovacion renovacion = renovaciones.computeIfAbsent(token, t -> {
+            firmado[0] = true;
+            // El jti se elige aquí para no tener que leer (y hashear) el token recién firmado
+            String nuevoJti = UUID.randomUUID().toString();
+            String nuevoToken = jwtService.generateToken(userDetails, nuevoJti);
+            antecesores.put(nuevoJti, new Antecesor(claims.getId(), expiraEn));
+            return new Renovacion(nuevoToken, expiraEn);
+        });
+        if (firmado[0]) {
+            renovacionesRealizadas.increment();
+        } else {
+            renovacionesReutilizadas.increment();
+        }
+        return renovacion.nuevoToken();
+    }
+
+    /**
+     * Tokens que precedieron al del jti indicado en su cadena de renovaciones y aún no expiran,
+     * del más reciente al más antiguo.
+     */
+    public List<Antecesor> antecesoresDe(String jti) {
+        List<Antecesor> cadena = new ArrayList<>();
+        long ahora = System.currentTimeMillis();
+        Antecesor antecesor = jti != null ? antecesores.get(jti) : null;
+        while (antecesor != null && antecesor.expiraEn() > ahora && cadena.size() < MAX_CADENA) {
+            cadena.add(antecesor);
+            antecesor = antecesores.get(antecesor.jti());
+        }
+        return cadena;
+    }
+
+    // --- Métricas ---
+
+    public long getRenovacionesRealizadas() {
+        return renovacionesRealizadas.sum();
+    }
+
+    public long getRenovacionesReutilizadas() {
+        return renovacionesReutilizadas.sum();
+    }
+
+    public long getRenovacionesOmitidas() {
+        return renovacionesOmitidas.sum();
+    }
+
+    public int getRenovacionesEnMemoria() {
+        return renovaciones.size();
+    }
+
+    private record Renovacion(String nuevoToken, long expiraOriginal) {}
+
+    public record Antecesor(String jti, long expiraEn) {}
+}
@@ -0,0 +1,30 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.request.AulaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.AulaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.OcupacionAulaDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Catálogo de aulas y consultas de ocupación (sin leer horarios de la BD).
+ */
+public interface ServicioAula {
+
+    List<AulaDTO> listarAulas();
+
+    AulaDTO crearAula(AulaRequestDTO request);
+
+    AulaDTO actualizarAula(Long id, AulaRequestDTO request);
+
+    void desactivarAula(Long id);
+
+    void eliminarAula(Long id);
+
+    OcupacionAulaDTO obtenerOcupacion(Long id);
+
+    // Aulas activas con aforo suficiente y libres en esa franja
+    List<AulaDTO> listarAulasDisponibles(DayOfWeek dia, LocalTime horaInicio, LocalTime horaFin, Integer capacidadMinima);
+}
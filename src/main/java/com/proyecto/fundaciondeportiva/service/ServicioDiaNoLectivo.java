@@ -0,0 +1,20 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.request.DiaNoLectivoRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.DiaNoLectivoDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendario institucional de días sin clases.
+ * Registrar o quitar un día ajusta las sesiones ya generadas de esa fecha.
+ */
+public interface ServicioDiaNoLectivo {
+
+    List<DiaNoLectivoDTO> listar(LocalDate desde, LocalDate hasta);
+
+    DiaNoLectivoDTO registrar(DiaNoLectivoRequestDTO request);
+
+    void eliminar(Long id);
+}
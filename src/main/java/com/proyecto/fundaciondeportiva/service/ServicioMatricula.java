@@ -1,10 +1,16 @@
 package com.proyecto.fundaciondeportiva.service;
 
+import com.proyecto.fundaciondeportiva.dto.request.CalificacionesSeccionRequestDTO;
 import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.CalificacionesSeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ImportacionMatriculasResponseDTO;
 import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ServicioMatricula {
 
@@ -25,13 +31,30 @@ public interface ServicioMatricula {
     // Operaciones de Administrador
     List<MatriculaResponseDTO> listarTodasLasMatriculas();
 
+    // Listado paginado por cursor (id); los filtros en null no se aplican
+    PaginaCursorDTO<MatriculaResponseDTO> listarMatriculasPaginadas(Long despuesDe, Integer tamano, EstadoMatricula estado,
+                                                                    Long seccionId, Long alumnoId);
+
+    // Recorre todas las matrículas que cumplen los filtros sin cargarlas todas en memoria
+    void exportarMatriculas(EstadoMatricula estado, Long seccionId, Long alumnoId, Consumer<MatriculaResponseDTO> destino);
+
     MatriculaResponseDTO obtenerMatriculaPorId(Long id);
 
     MatriculaResponseDTO actualizarEstadoMatricula(Long id, EstadoMatricula nuevoEstado);
 
     MatriculaResponseDTO asignarCalificacion(Long id, Double calificacion);
 
+    // Calificaciones de toda una sección en una transacción; devuelve el resultado de cada fila
+    CalificacionesSeccionResponseDTO asignarCalificacionesSeccion(Long seccionId,
+                                                                  List<CalificacionesSeccionRequestDTO.CalificacionAlumnoDTO> calificaciones);
+
+    // Igual, desde un CSV: DNI o código de estudiante, calificación
+    CalificacionesSeccionResponseDTO importarCalificacionesSeccion(Long seccionId, InputStream csv);
+
     void eliminarMatricula(Long id);
 
     void eliminarMatriculaEstudiante(Long alumnoId, Long seccionId);
+
+    // Importación masiva desde CSV: DNI o código de estudiante, código de sección[, observaciones]
+    ImportacionMatriculasResponseDTO importarMatriculas(InputStream csv);
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package com.proyecto.fundaciondeportiva.service;
 
+import com.proyecto.fundaciondeportiva.dto.request.BusquedaSeccionDTO;
 import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.ValidacionHorariosRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.BusquedaSeccionesResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ReporteCrucesHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionEnCursoDTO;
 import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
 
@@ -27,7 +32,17 @@ public interface ServicioSeccion {
 
     List<SeccionResponseDTO> listarSeccionesConCupo();
     List<SeccionResponseDTO> listarSeccionesPorNivel(NivelAcademico nivel);
+    List<SeccionResponseDTO> listarSeccionesPorNivelYGrado(NivelAcademico nivel, String grado);
 
     // NUEVO MÉTODO
     List<SeccionResponseDTO> listarSeccionesPorHorario(DayOfWeek dia, LocalTime hora);
+
+    // Vista reducida de las clases en curso, servida solo desde memoria
+    List<SeccionEnCursoDTO> listarClasesEnCurso(DayOfWeek dia, LocalTime hora);
+
+    // Búsqueda con filtros combinables y paginación por cursor
+    BusquedaSeccionesResponseDTO buscarSecciones(BusquedaSeccionDTO filtros);
+
+    // Vista previa de cruces de horario del profesor (no guarda nada)
+    ReporteCrucesHorarioDTO validarHorariosProfesor(ValidacionHorariosRequestDTO request);
 }
\ No newline at end of file
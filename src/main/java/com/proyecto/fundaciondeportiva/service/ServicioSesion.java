@@ -1,8 +1,19 @@
 package com.proyecto.fundaciondeportiva.service;
 
 import com.proyecto.fundaciondeportiva.dto.request.SesionUpdateDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaSesionesDTO;
 import com.proyecto.fundaciondeportiva.dto.response.SesionDTO;
 
+import java.time.LocalDate;
+import java.util.List;
+
 public interface ServicioSesion {
     SesionDTO actualizarInfoSesion(Long id, SesionUpdateDTO request);
-}
\ No newline at end of file
+
+    // Sesiones de la sección en orden cronológico, opcionalmente entre dos fechas; 'resumen' omite los recursos
+    List<SesionDTO> listarSesionesDeSeccion(Long seccionId, LocalDate desde, LocalDate hasta, boolean resumen);
+
+    // Igual, por páginas: 'despuesDe' es el siguienteCursor de la página anterior
+    PaginaSesionesDTO paginarSesionesDeSeccion(Long seccionId, LocalDate desde, LocalDate hasta,
+                                               String despuesDe, Integer tamano, boolean resumen);
+}
@@ -0,0 +1,209 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lista de tokens revocados (logout), indexada por el 'jti' del token.
+ *
+ * - Un filtro tipo Bloom delante del conjunto exacto: el caso habitual (token no revocado)
+ *   se resuelve con unas pocas lecturas de bits, sin reservar memoria.
+ * - Cada entrada se guarda solo hasta la expiración natural del token.
+ * - Las revocaciones se anexan a un archivo pequeño para sobrevivir a reinicios;
+ *   al purgar expirados el archivo se reescribe compactado.
+ */
+@Service
+public class TokenRevocacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocacionService.class);
+
+    // Número de sondas del filtro por jti
+    private static final int SONDAS = 4;
+    // Cada cuántas revocaciones se purgan las entradas expiradas
+    private static final int PURGAR_CADA = 256;
+
+    @Value("${jwt.revocacion.archivo:data/tokens-revocados.log}")
+    private String rutaArchivo;
+
+    // Tamaño del filtro en bits (potencia de 2)
+    @Value("${jwt.revocacion.bits-filtro:1048576}")
+    private int bitsFiltro;
+
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray filtro;
+    private int revocacionesDesdePurga = 0;
+    private Path archivo;
+
+    @PostConstruct
+    public void init() {
+        this.bitsFiltro = Integer.highestOneBit(Math.max(bitsFiltro, 64));
+        this.archivo = Paths.get(rutaArchivo);
+        cargarArchivo();
+        synchronized (this) {
+            purgarYCompactar(System.currentTimeMillis());
+        }
+        logger.info("Lista de revocación cargada con {} tokens vigentes", revocados.size());
+    }
+
+    /**
+     * Indica si el token con este jti fue revocado y aún no expira.
+     */
+    public boolean estaRevocado(String jti) {
+        if (jti == null || !posiblementeRevocado(filtro, jti)) {
+            return false;
+        }
+        Long expiraEn = revocados.get(jti);
+        return expiraEn != null && expiraEn > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoca el token hasta su expiración natural.
+     */
+    public synchronized void revocar(String jti, long expiraEn) {
+        long ahora = System.currentTimeMillis();
+        if (jti == null || expiraEn <= ahora || revocados.putIfAbsent(jti, expiraEn) != null) {
+            return;
+        }
+        marcar(filtro, jti);
+        anexarAlArchivo(jti, expiraEn);
+
+        if (++revocacionesDesdePurga >= PURGAR_CADA) {
+            purgarYCompactar(ahora);
+        }
+    }
+
+    public int getTokensRevocados() {
+        return revocados.size();
+    }
+
+    // --- Filtro ---
+
+    private boolean posiblementeRevocado(AtomicLongArray bits, String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int mascara = bitsFiltro - 1;
+        for (int i = 0; i < SONDAS; i++) {
+            int bit = (h1 + i * h2) & mascara;
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void marcar(AtomicLongArray bits, String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int mascara = bitsFiltro - 1;
+        for (int i = 0; i < SONDAS; i++) {
+            int bit = (h1 + i * h2) & mascara;
+            int palabra = bit >>> 6;
+            long valor = 1L << (bit & 63);
+            long actual;
+            do {
+                actual = bits.get(palabra);
+            } while ((actual & valor) == 0 && !bits.compareAndSet(palabra, actual, actual | valor));
+        }
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, sin crear arrays intermedios
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // --- Persistencia ---
+
+    private void cargarArchivo() {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        try {
+            List<String> lineas = Files.readAllLines(archivo, StandardCharsets.UTF_8);
+            for (String linea : lineas) {
+                int separador = linea.indexOf(';');
+                if (separador <= 0) {
+                    continue;
+                }
+                try {
+                    long expiraEn = Long.parseLong(linea.substring(separador + 1).trim());
+                    if (expiraEn > ahora) {
+                        revocados.put(linea.substring(0, separador), expiraEn);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.warn("Línea inválida en la lista de revocación: {}", linea);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("No se pudo leer la lista de revocación {}", archivo, e);
+        }
+    }
+
+    private void anexarAlArchivo(String jti, long expiraEn) {
+        try {
+            crearDirectorio();
+            Files.writeString(archivo, jti + ";" + expiraEn + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // La revocación sigue vigente en memoria aunque no se haya podido persistir
+            logger.error("No se pudo persistir la revocación del token {}", jti, e);
+        }
+    }
+
+    /**
+     * Elimina las entradas expiradas, reconstruye el filtro y reescribe el archivo.
+     * Se llama con el lock del servicio tomado para no perder revocaciones concurrentes.
+     */
+    private void purgarYCompactar(long ahora) {
+        revocados.values().removeIf(expiraEn -> expiraEn <= ahora);
+
+        AtomicLongArray nuevoFiltro = new AtomicLongArray(bitsFiltro / 64);
+        revocados.keySet().forEach(jti -> marcar(nuevoFiltro, jti));
+        this.filtro = nuevoFiltro;
+        this.revocacionesDesdePurga = 0;
+
+        try {
+            crearDirectorio();
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entrada : revocados.entrySet()) {
+                    writer.write(entrada.getKey() + ";" + entrada.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("No se pudo compactar la lista de revocación {}", archivo, e);
+        }
+    }
+
+    private void crearDirectorio() throws IOException {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+    }
+}
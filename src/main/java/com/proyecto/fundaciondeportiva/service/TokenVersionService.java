@@ -0,0 +1,70 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabla en memoria con la versión vigente de los tokens de cada usuario.
+ * Se carga de BD la primera vez que se consulta un usuario y se invalida
+ * cuando el usuario se edita o se elimina, de modo que los JWT anteriores se rechazan.
+ */
+@Service
+public class TokenVersionService {
+
+    // Marca para usuarios que ya no existen: ningún token coincide con ella
+    private static final int USUARIO_ELIMINADO = -1;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private final Map<Long, Integer> versiones = new ConcurrentHashMap<>();
+
+    // Sube con cada invalidación: un valor leído de BD mientras se invalidaba no queda en la tabla
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    /**
+     * Indica si la versión que trae el token sigue siendo la vigente para el usuario.
+     * La consulta a BD se hace fuera del mapa (no bloquea a otros usuarios del mismo bin).
+     */
+    public boolean esVersionVigente(Long usuarioId, int versionToken) {
+        Integer vigente = versiones.get(usuarioId);
+        if (vigente == null) {
+            long leidaEn = invalidaciones.get();
+            vigente = usuarioRepository.findTokenVersionById(usuarioId).orElse(USUARIO_ELIMINADO);
+            versiones.putIfAbsent(usuarioId, vigente);
+            if (invalidaciones.get() != leidaEn) {
+                versiones.remove(usuarioId, vigente);
+            }
+        }
+        return vigente != USUARIO_ELIMINADO && vigente == versionToken;
+    }
+
+    /**
+     * Descarta la versión cacheada del usuario. Si hay una transacción en curso,
+     * se descarta tras el commit para no volver a cargar el valor antiguo.
+     */
+    public void invalidar(Long usuarioId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    descartar(usuarioId);
+                }
+            });
+        } else {
+            descartar(usuarioId);
+        }
+    }
+
+    private void descartar(Long usuarioId) {
+        invalidaciones.incrementAndGet();
+        versiones.remove(usuarioId);
+    }
+}
@@ -1,7 +1,9 @@
 package com.proyecto.fundaciondeportiva.service;
 
 import com.proyecto.fundaciondeportiva.dto.input.UsuarioInputDTO;
+import com.proyecto.fundaciondeportiva.dto.output.UsuarioOutputDTO;
 import com.proyecto.fundaciondeportiva.dto.output.UsuarioUpdateDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
 import com.proyecto.fundaciondeportiva.dto.response.UsuarioResponse;
 import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
 import com.proyecto.fundaciondeportiva.exception.ValidacionException;
@@ -9,11 +11,14 @@ import com.proyecto.fundaciondeportiva.model.entity.PerfilAlumno;
 import com.proyecto.fundaciondeportiva.model.entity.PerfilProfesor;
 import com.proyecto.fundaciondeportiva.model.entity.Usuario;
 import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import com.proyecto.fundaciondeportiva.repository.ExportacionRepository;
 import com.proyecto.fundaciondeportiva.repository.PerfilAlumnoRepository;
 import com.proyecto.fundaciondeportiva.repository.PerfilProfesorRepository;
 import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,9 +29,14 @@ import org.springframework.util.StringUtils;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-public class UsuarioService implements UserDetailsService {
+public class UsuarioService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final int TAMANO_PAGINA_POR_DEFECTO = 50;
+    private static final int TAMANO_PAGINA_MAXIMO = 500;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -40,6 +50,16 @@ public class UsuarioService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    // El índice de clases en curso muestra el nombre del profesor
+    @Autowired
+    private HorariosEnCursoService horariosEnCursoService;
+
+    @Autowired
+    private ExportacionRepository exportacionRepository;
+
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -47,6 +67,19 @@ public class UsuarioService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
     }
 
+    /**
+     * Llamado por DaoAuthenticationProvider tras un login exitoso cuando el hash
+     * guardado usa un costo de BCrypt distinto al configurado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + user.getUsername()));
+        usuario.setPassword(newPassword);
+        return usuarioRepository.save(usuario);
+    }
+
     @Transactional
     public Usuario crearUsuario(UsuarioInputDTO request) {
 
@@ -119,6 +152,37 @@ public class UsuarioService implements UserDetailsService {
         return usuarioRepository.findAll();
     }
 
+    /**
+     * Página de usuarios ordenada por id a partir de 'despuesDe' (cursor), con filtro opcional por rol.
+     * Una sola consulta con la proyección plana, sin COUNT ni OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UsuarioOutputDTO> listarUsuariosPaginados(Long despuesDe, Integer tamano, Rol rol) {
+        int limite = tamano == null ? TAMANO_PAGINA_POR_DEFECTO : Math.min(Math.max(tamano, 1), TAMANO_PAGINA_MAXIMO);
+
+        List<UsuarioOutputDTO> filas = usuarioRepository.findPaginaPlana(despuesDe == null ? 0L : despuesDe, rol,
+                PageRequest.of(0, limite + 1));
+        boolean hayMas = filas.size() > limite;
+        if (hayMas) {
+            filas = filas.subList(0, limite);
+        }
+        return PaginaCursorDTO.<UsuarioOutputDTO>builder()
+                .contenido(filas)
+                .siguienteCursor(hayMas ? filas.get(filas.size() - 1).getId() : null)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    /**
+     * Recorre todos los usuarios (opcionalmente de un rol) con un cursor de la base de datos.
+     */
+    @Transactional(readOnly = true)
+    public void exportarUsuarios(Rol rol, Consumer<UsuarioOutputDTO> destino) {
+        try (Stream<UsuarioOutputDTO> filas = exportacionRepository.streamUsuarios(rol)) {
+            filas.forEach(destino);
+        }
+    }
+
     @Transactional(readOnly = true)
     public Usuario obtenerUsuarioPorId(Long id) {
         return usuarioRepository.findById(id)
@@ -134,6 +198,8 @@ public class UsuarioService implements UserDetailsService {
     public Usuario actualizarUsuario(Long id, UsuarioUpdateDTO request) {
 
         Usuario usuario = obtenerUsuarioPorId(id);
+        // Solo los cambios de credenciales invalidan las sesiones abiertas
+        boolean credencialesCambiadas = false;
 
         //  CAMBIO: Actualización de Nombres y Apellidos
         if (StringUtils.hasText(request.getNombres())) {
@@ -144,12 +210,14 @@ public class UsuarioService implements UserDetailsService {
         }
         if (StringUtils.hasText(request.getPassword())) {
             usuario.setPassword(passwordEncoder.encode(request.getPassword()));
+            credencialesCambiadas = true;
         }
         if (StringUtils.hasText(request.getEmail()) && !request.getEmail().equals(usuario.getEmail())) {
             if (usuarioRepository.existsByEmail(request.getEmail())) {
                 throw new ValidacionException("El nuevo correo electrónico ya está en uso.");
             }
             usuario.setEmail(request.getEmail());
+            credencialesCambiadas = true;
         }
 
         // --- Actualizar Perfiles ---
@@ -184,6 +252,18 @@ public class UsuarioService implements UserDetailsService {
             if (StringUtils.hasText(request.getGradoAcademico())) perfil.setGradoAcademico(request.getGradoAcademico());
         }
 
+        // Con otro email o contraseña, los tokens emitidos antes dejan de ser válidos.
+        // Nombres y perfiles no viajan en el token: editarlos no cierra la sesión.
+        // (El rol y el estado activo no se editan aquí; si se agregan, también deben subir la versión.)
+        if (credencialesCambiadas) {
+            int versionActual = usuario.getTokenVersion() != null ? usuario.getTokenVersion() : 0;
+            usuario.setTokenVersion(versionActual + 1);
+            tokenVersionService.invalidar(usuario.getId());
+        }
+        if (usuario.getRol() == Rol.PROFESOR) {
+            horariosEnCursoService.invalidar();
+        }
+
         return usuarioRepository.save(usuario);
     }
 
@@ -204,6 +284,7 @@ public class UsuarioService implements UserDetailsService {
             }
         }
         usuarioRepository.delete(usuario);
+        tokenVersionService.invalidar(id);
     }
 
     private String generarCodigoEstudianteUnico() {
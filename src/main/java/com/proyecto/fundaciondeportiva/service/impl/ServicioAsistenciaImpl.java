@@ -2,26 +2,58 @@ package com.proyecto.fundaciondeportiva.service.impl;
 
 import com.proyecto.fundaciondeportiva.dto.request.RegistroAsistenciaDTO;
 import com.proyecto.fundaciondeportiva.dto.response.AsistenciaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.RegistroAsistenciaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ResultadoFilaAsistenciaDTO;
 import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
 import com.proyecto.fundaciondeportiva.model.entity.*;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoAsistencia;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
 import com.proyecto.fundaciondeportiva.repository.*;
 import com.proyecto.fundaciondeportiva.service.ServicioAsistencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class ServicioAsistenciaImpl implements ServicioAsistencia {
 
+    private static final Logger logger = LoggerFactory.getLogger(ServicioAsistenciaImpl.class);
+
+    // Inserta o, si ya existe (sesion_id, alumno_id), actualiza. MySQL 8.0.19+ usa el alias de fila;
+    // VALUES(col) está obsoleto desde 8.0.20 pero es la única forma que aceptan MySQL 5.7 y H2 (modo MySQL)
+    private static final String UPSERT_ASISTENCIA_ALIAS =
+            "INSERT INTO asistencias (sesion_id, alumno_id, estado, observacion) VALUES (?, ?, ?, ?) AS nueva " +
+            "ON DUPLICATE KEY UPDATE estado = nueva.estado, observacion = nueva.observacion";
+    private static final String UPSERT_ASISTENCIA_VALUES =
+            "INSERT INTO asistencias (sesion_id, alumno_id, estado, observacion) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE estado = VALUES(estado), observacion = VALUES(observacion)";
+
+    // Matrículas ya cerradas: sus alumnos solo pueden tener asistencia en sesiones pasadas
+    private static final Set<EstadoMatricula> ESTADOS_CERRADOS = Set.of(EstadoMatricula.COMPLETADA, EstadoMatricula.REPROBADA);
+
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+
+    private static final int TAMANO_LOTE = 500;
+    private static final int LONGITUD_MAXIMA_OBSERVACION = 255;
+
     @Autowired
     private AsistenciaRepository asistenciaRepository;
     @Autowired
@@ -30,6 +62,11 @@ public class ServicioAsistenciaImpl implements ServicioAsistencia {
     private MatriculaRepository matriculaRepository;
     @Autowired
     private UsuarioRepository usuarioRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Se elige con la versión de la base en el primer guardado
+    private volatile String upsertAsistencia;
 
     @Override
     @Transactional(readOnly = true)
@@ -79,28 +116,119 @@ public class ServicioAsistenciaImpl implements ServicioAsistencia {
         return resultado;
     }
 
+    /**
+     * Guarda la hoja completa de una sesión: valida todas las filas contra las matrículas activas
+     * de la sección (en sesiones pasadas también las completadas o reprobadas) y escribe las válidas
+     * con un único upsert por lotes sobre la clave (sesion_id, alumno_id). Dos profesores guardando
+     * la misma hoja a la vez no chocan con la restricción única: el segundo actualiza lo que insertó el primero.
+     */
     @Override
     @Transactional
-    public void registrarAsistenciaMasiva(RegistroAsistenciaDTO request) {
+    public RegistroAsistenciaResponseDTO registrarAsistenciaMasiva(RegistroAsistenciaDTO request) {
+        long inicio = System.currentTimeMillis();
+
         Sesion sesion = sesionRepository.findById(request.getSesionId())
                 .orElseThrow(() -> new RecursoNoEncontradoException("Sesión no encontrada"));
+        List<RegistroAsistenciaDTO.DetalleAsistenciaDTO> detalles =
+                request.getDetalles() != null ? request.getDetalles() : List.of();
+        if (detalles.isEmpty()) {
+            throw new ValidacionException("Debe enviar al menos un alumno en la hoja de asistencia.");
+        }
 
-        for (RegistroAsistenciaDTO.DetalleAsistenciaDTO detalle : request.getDetalles()) {
-            Usuario alumno = usuarioRepository.findById(detalle.getAlumnoId())
-                    .orElseThrow(() -> new RecursoNoEncontradoException("Alumno no encontrado ID: " + detalle.getAlumnoId()));
+        // 1. Alumnos con matrícula activa en la sección de la sesión; en sesiones pasadas también
+        //    los que ya la completaron o reprobaron (corrección de hojas antiguas)
+        Long seccionId = sesion.getSeccion().getId();
+        Set<Long> matriculados = new HashSet<>(matriculaRepository.findAlumnoIdsBySeccionIdAndEstado(seccionId, EstadoMatricula.ACTIVA));
+        boolean sesionPasada = sesion.getFecha().isBefore(LocalDate.now());
+        if (sesionPasada) {
+            matriculados.addAll(matriculaRepository.findAlumnoIdsBySeccionIdAndEstadoIn(seccionId, ESTADOS_CERRADOS));
+        }
 
-            // Buscamos si ya existe el registro para actualizarlo, sino creamos uno nuevo
-            Asistencia asistencia = asistenciaRepository.findBySesionIdAndAlumnoId(sesion.getId(), alumno.getId())
-                    .orElse(Asistencia.builder()
-                            .sesion(sesion)
-                            .alumno(alumno)
-                            .build());
+        // 2. Validar cada fila
+        List<ResultadoFilaAsistenciaDTO> resultados = new ArrayList<>(detalles.size());
+        List<RegistroAsistenciaDTO.DetalleAsistenciaDTO> validas = new ArrayList<>();
+        Set<Long> registrados = new HashSet<>();
 
-            asistencia.setEstado(detalle.getEstado());
-            asistencia.setObservacion(detalle.getObservacion());
+        for (int i = 0; i < detalles.size(); i++) {
+            RegistroAsistenciaDTO.DetalleAsistenciaDTO detalle = detalles.get(i);
+            ResultadoFilaAsistenciaDTO.ResultadoFilaAsistenciaDTOBuilder resultado = ResultadoFilaAsistenciaDTO.builder()
+                    .fila(i + 1)
+                    .alumnoId(detalle == null ? null : detalle.getAlumnoId())
+                    .estado(detalle == null ? null : detalle.getEstado());
 
-            asistenciaRepository.save(asistencia);
+            String error = null;
+            if (detalle == null || detalle.getAlumnoId() == null) {
+                error = "Debe indicar el alumnoId";
+            } else if (detalle.getEstado() == null) {
+                error = "Debe indicar el estado de asistencia";
+            } else if (detalle.getObservacion() != null && detalle.getObservacion().length() > LONGITUD_MAXIMA_OBSERVACION) {
+                error = "La observación no puede superar " + LONGITUD_MAXIMA_OBSERVACION + " caracteres";
+            } else if (!matriculados.contains(detalle.getAlumnoId())) {
+                error = sesionPasada
+                        ? "El alumno no tiene matrícula activa, completada ni reprobada en esta sección"
+                        : "El alumno no tiene matrícula activa en esta sección";
+            } else if (!registrados.add(detalle.getAlumnoId())) {
+                error = "El alumno aparece más de una vez en la hoja";
+            }
+            if (error != null) {
+                resultados.add(resultado.exito(false).mensaje(error).build());
+                continue;
+            }
+
+            validas.add(detalle);
+            resultados.add(resultado.exito(true).mensaje("Asistencia registrada").build());
+        }
+
+        // 3. Upsert en lotes JDBC (no hay entidades Asistencia cargadas que puedan quedar desactualizadas)
+        jdbcTemplate.batchUpdate(upsertAsistencia(), validas, TAMANO_LOTE, (ps, detalle) -> {
+            ps.setLong(1, sesion.getId());
+            ps.setLong(2, detalle.getAlumnoId());
+            ps.setString(3, detalle.getEstado().name());
+            ps.setString(4, detalle.getObservacion());
+        });
+
+        long duracion = System.currentTimeMillis() - inicio;
+        logger.info("Asistencia de la sesión {}: {} registradas, {} rechazadas en {} ms",
+                sesion.getId(), validas.size(), detalles.size() - validas.size(), duracion);
+
+        return RegistroAsistenciaResponseDTO.builder()
+                .sesionId(sesion.getId())
+                .totalFilas(detalles.size())
+                .registradas(validas.size())
+                .rechazadas(detalles.size() - validas.size())
+                .duracionMs(duracion)
+                .filas(resultados)
+                .build();
+    }
+
+    private String upsertAsistencia() {
+        String sql = upsertAsistencia;
+        if (sql == null) {
+            sql = jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+                DatabaseMetaData metaData = conexion.getMetaData();
+                return admiteAliasDeFila(metaData.getDatabaseProductName(), metaData.getDatabaseProductVersion())
+                        ? UPSERT_ASISTENCIA_ALIAS : UPSERT_ASISTENCIA_VALUES;
+            });
+            upsertAsistencia = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * El alias de fila en INSERT ... ON DUPLICATE KEY UPDATE existe desde MySQL 8.0.19 (MariaDB no lo tiene).
+     */
+    static boolean admiteAliasDeFila(String producto, String version) {
+        if (producto == null || version == null || !producto.equalsIgnoreCase("MySQL")) {
+            return false;
+        }
+        Matcher m = VERSION.matcher(version);
+        if (!m.find()) {
+            return false;
         }
+        int mayor = Integer.parseInt(m.group(1));
+        int menor = Integer.parseInt(m.group(2));
+        int parche = Integer.parseInt(m.group(3));
+        return mayor > 8 || (mayor == 8 && (menor > 0 || parche >= 19));
     }
 
     @Override
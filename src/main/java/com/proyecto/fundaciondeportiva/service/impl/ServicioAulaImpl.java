@@ -0,0 +1,156 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.AulaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.AulaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.OcupacionAulaDTO;
+import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.Aula;
+import com.proyecto.fundaciondeportiva.repository.AulaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
+import com.proyecto.fundaciondeportiva.service.ServicioAula;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class ServicioAulaImpl implements ServicioAula {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioAulaImpl.class);
+
+    // Días que cuentan para el porcentaje de uso
+    private static final int DIAS_DE_JORNADA = 6;
+
+    @Autowired
+    private AulaRepository aulaRepository;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private OcupacionAulasService ocupacionAulasService;
+
+    @Value("${aulas.jornada.inicio:07:00}")
+    private LocalTime jornadaInicio;
+
+    @Value("${aulas.jornada.fin:22:00}")
+    private LocalTime jornadaFin;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AulaDTO> listarAulas() {
+        return aulaRepository.findAllByOrderByCodigoAsc().stream()
+                .map(AulaDTO::deEntidad)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public AulaDTO crearAula(AulaRequestDTO request) {
+        String codigo = request.getCodigo().trim();
+        if (aulaRepository.existsByCodigo(codigo)) {
+            throw new ValidacionException("Ya existe un aula con código " + codigo);
+        }
+        Aula aula = aulaRepository.save(Aula.builder()
+                .codigo(codigo)
+                .nombre(request.getNombre().trim())
+                .capacidad(request.getCapacidad())
+                .build());
+        logger.info("Aula creada: {} (capacidad {})", aula.getCodigo(), aula.getCapacidad());
+        return AulaDTO.deEntidad(aula);
+    }
+
+    @Override
+    @Transactional
+    public AulaDTO actualizarAula(Long id, AulaRequestDTO request) {
+        Aula aula = buscarAula(id);
+        String codigo = request.getCodigo().trim();
+        if (aulaRepository.existsByCodigoAndIdNot(codigo, id)) {
+            throw new ValidacionException("Ya existe un aula con código " + codigo);
+        }
+        int capacidadMaxima = seccionRepository.findCapacidadMaximaEnAula(id);
+        if (request.getCapacidad() < capacidadMaxima) {
+            throw new ValidacionException(String.format(
+                    "No puedes reducir la capacidad a %d: hay secciones en el aula con capacidad %d", request.getCapacidad(), capacidadMaxima));
+        }
+        if (!aula.getCodigo().equals(codigo)) {
+            // Las secciones muestran el código del aula; se mantiene al día en un solo UPDATE
+            seccionRepository.renombrarAula(id, codigo);
+        }
+        aula.setCodigo(codigo);
+        aula.setNombre(request.getNombre().trim());
+        aula.setCapacidad(request.getCapacidad());
+        return AulaDTO.deEntidad(aulaRepository.save(aula));
+    }
+
+    @Override
+    @Transactional
+    public void desactivarAula(Long id) {
+        // Las secciones que ya la usan la conservan; solo deja de ofrecerse para secciones nuevas
+        Aula aula = buscarAula(id);
+        aula.setActiva(false);
+        aulaRepository.save(aula);
+    }
+
+    @Override
+    @Transactional
+    public void eliminarAula(Long id) {
+        Aula aula = buscarAula(id);
+        if (seccionRepository.existsByAulaAsignadaId(id)) {
+            throw new ValidacionException("No se puede eliminar un aula asignada a secciones; desactívala");
+        }
+        aulaRepository.delete(aula);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OcupacionAulaDTO obtenerOcupacion(Long id) {
+        Aula aula = buscarAula(id);
+        Map<DayOfWeek, Integer> porDia = ocupacionAulasService.minutosOcupados(id, LocalTime.MIDNIGHT, null);
+        int enJornada = ocupacionAulasService.minutosOcupados(id, jornadaInicio, jornadaFin).entrySet().stream()
+                .filter(e -> e.getKey() != DayOfWeek.SUNDAY)
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+        long minutosJornada = Duration.between(jornadaInicio, jornadaFin).toMinutes() * DIAS_DE_JORNADA;
+
+        return OcupacionAulaDTO.builder()
+                .aulaId(aula.getId())
+                .codigo(aula.getCodigo())
+                .capacidad(aula.getCapacidad())
+                .minutosPorDia(porDia)
+                .minutosSemana(porDia.values().stream().mapToInt(Integer::intValue).sum())
+                .jornadaInicio(jornadaInicio)
+                .jornadaFin(jornadaFin)
+                .porcentajeUso(minutosJornada > 0 ? Math.round(enJornada * 1000.0 / minutosJornada) / 10.0 : 0.0)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AulaDTO> listarAulasDisponibles(DayOfWeek dia, LocalTime horaInicio, LocalTime horaFin, Integer capacidadMinima) {
+        if (!horaInicio.isBefore(horaFin)) {
+            throw new ValidacionException("La hora de inicio debe ser anterior a la hora de fin");
+        }
+        // El filtro por aforo lo hace la BD (tabla pequeña); la ocupación se mira en memoria
+        return aulaRepository.findByActivaTrueAndCapacidadGreaterThanEqualOrderByCapacidadAsc(capacidadMinima != null ? capacidadMinima : 0).stream()
+                .filter(aula -> ocupacionAulasService.estaLibre(aula.getId(), dia, horaInicio, horaFin))
+                .map(AulaDTO::deEntidad)
+                .collect(Collectors.toList());
+    }
+
+    private Aula buscarAula(Long id) {
+        return aulaRepository.findById(id)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Aula no encontrada con id: " + id));
+    }
+}
@@ -9,6 +9,7 @@ import com.proyecto.fundaciondeportiva.model.entity.Usuario;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
 import com.proyecto.fundaciondeportiva.repository.CursoRepository;
 import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import com.proyecto.fundaciondeportiva.service.HorariosEnCursoService;
 import com.proyecto.fundaciondeportiva.service.ServicioCurso;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -35,6 +36,10 @@ public class ServicioCursoImpl implements ServicioCurso {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // El índice de clases en curso muestra el título del curso
+    @Autowired
+    private HorariosEnCursoService horariosEnCursoService;
+
     @Override
     @Transactional(readOnly = true)
     public List<CursoResponseDTO> listarTodosLosCursos() {
@@ -129,6 +134,7 @@ public class ServicioCursoImpl implements ServicioCurso {
             cursoExistente.setNivelDestino(request.getNivelDestino());
 
             Curso cursoActualizado = cursoRepository.save(cursoExistente);
+            horariosEnCursoService.invalidar();
             logger.info("Curso actualizado exitosamente: {}", cursoActualizado.getId());
 
             return CursoResponseDTO.deEntidad(cursoActualizado);
@@ -153,6 +159,7 @@ public class ServicioCursoImpl implements ServicioCurso {
 
         try {
             cursoRepository.deleteById(id);
+            horariosEnCursoService.invalidar();
             logger.info("Curso eliminado exitosamente: {}", id);
         } catch (Exception e) {
             logger.error("Error al eliminar curso", e);
@@ -0,0 +1,73 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.DiaNoLectivoRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.DiaNoLectivoDTO;
+import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.DiaNoLectivo;
+import com.proyecto.fundaciondeportiva.repository.DiaNoLectivoRepository;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import com.proyecto.fundaciondeportiva.service.ServicioDiaNoLectivo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ServicioDiaNoLectivoImpl implements ServicioDiaNoLectivo {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioDiaNoLectivoImpl.class);
+
+    @Autowired
+    private DiaNoLectivoRepository diaNoLectivoRepository;
+
+    @Autowired
+    private CalendarioSesionesService calendarioSesionesService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DiaNoLectivoDTO> listar(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new ValidacionException("'hasta' no puede ser anterior a 'desde'");
+        }
+        return diaNoLectivoRepository.findByFechaBetweenOrderByFechaAsc(desde, hasta).stream()
+                .map(DiaNoLectivoDTO::deEntidad)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public DiaNoLectivoDTO registrar(DiaNoLectivoRequestDTO request) {
+        if (diaNoLectivoRepository.existsByFecha(request.getFecha())) {
+            throw new ValidacionException("La fecha " + request.getFecha() + " ya está registrada como no lectiva");
+        }
+        DiaNoLectivo dia = diaNoLectivoRepository.save(DiaNoLectivo.builder()
+                .fecha(request.getFecha())
+                .motivo(request.getMotivo().trim())
+                .build());
+        logger.info("Día no lectivo registrado: {} ({})", dia.getFecha(), dia.getMotivo());
+
+        // Las sesiones ya generadas para esa fecha se quitan (salvo las que tienen asistencia o recursos)
+        int[] retiro = calendarioSesionesService.retirarFecha(dia.getFecha());
+        DiaNoLectivoDTO dto = DiaNoLectivoDTO.deEntidad(dia);
+        dto.setSesionesEliminadas(retiro[0]);
+        dto.setSesionesConservadas(retiro[1]);
+        return dto;
+    }
+
+    @Override
+    @Transactional
+    public void eliminar(Long id) {
+        DiaNoLectivo dia = diaNoLectivoRepository.findById(id)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Día no lectivo no encontrado con id: " + id));
+        diaNoLectivoRepository.delete(dia);
+        diaNoLectivoRepository.flush();
+        logger.info("Día no lectivo eliminado: {}", dia.getFecha());
+        calendarioSesionesService.restaurarFecha(dia.getFecha());
+    }
+}
@@ -1,39 +1,67 @@
 package com.proyecto.fundaciondeportiva.service.impl;
 
+import com.proyecto.fundaciondeportiva.dto.request.CalificacionesSeccionRequestDTO.CalificacionAlumnoDTO;
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
 import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.CalificacionesSeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ImportacionMatriculasResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.MatriculaFilaDTO;
 import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ResultadoFilaCalificacionDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ResultadoFilaImportacionDTO;
 import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
 import com.proyecto.fundaciondeportiva.exception.ValidacionException;
 import com.proyecto.fundaciondeportiva.model.entity.Horario;
 import com.proyecto.fundaciondeportiva.model.entity.Matricula;
+import com.proyecto.fundaciondeportiva.model.entity.PerfilAlumno;
 import com.proyecto.fundaciondeportiva.model.entity.Seccion;
 import com.proyecto.fundaciondeportiva.model.entity.Usuario;
 import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
 import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import com.proyecto.fundaciondeportiva.repository.ExportacionRepository;
 import com.proyecto.fundaciondeportiva.repository.HorarioRepository;
 import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
 import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
 import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService;
 import com.proyecto.fundaciondeportiva.service.ServicioMatricula;
+import com.proyecto.fundaciondeportiva.util.LectorCsv;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ServicioMatriculaImpl implements ServicioMatricula {
 
     private static final Logger logger = LoggerFactory.getLogger(ServicioMatriculaImpl.class);
 
+    // Importación masiva: filas por lote JDBC y tamaño máximo de las listas IN de las precargas
+    private static final int TAMANO_LOTE_INSERCION = 500;
+    private static final int TAMANO_LOTE_CONSULTA = 1000;
+    private static final double CALIFICACION_MINIMA = 0;
+    private static final double CALIFICACION_MAXIMA = 20;
+    private static final double CALIFICACION_APROBATORIA = 10.5;
+    private static final int TAMANO_PAGINA_POR_DEFECTO = 50;
+    private static final int TAMANO_PAGINA_MAXIMO = 500;
+    private static final Set<String> ENCABEZADOS_CSV = Set.of("dni", "codigo", "codigoestudiante", "codigo_estudiante", "alumno");
+
     @Autowired
     private MatriculaRepository matriculaRepository;
 
@@ -43,9 +71,18 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    @Autowired
+    private CruceHorariosService cruceHorariosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private HorarioRepository horarioRepository;
 
+    @Autowired
+    private ExportacionRepository exportacionRepository;
+
     // --- OPERACIONES DE ALUMNO ---
 
     @Override
@@ -93,45 +130,22 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
                         seccion.getCurso().getTitulo() + "'. No puedes inscribirte dos veces en el mismo curso.");
             }
 
-            // 6. Validar que haya cupo disponible
-            long matriculasActivas = matriculaRepository.countMatriculasActivasBySeccionId(request.getSeccionId());
-            if (matriculasActivas >= seccion.getCapacidad()) {
+            // 6. Validar que haya cupo disponible (chequeo rápido; la reserva atómica se hace en el paso 9)
+            if (seccion.getMatriculadosActivos() >= seccion.getCapacidad()) {
                 throw new ValidacionException("La sección ha alcanzado su capacidad máxima.");
             }
 
             // 7. VALIDACIÓN ESTRICTA DE NIVEL Y GRADO
-            if (!alumno.getPerfilAlumno().getNivel().equals(seccion.getNivelSeccion())) {
-                throw new ValidacionException(
-                        String.format("Nivel incorrecto. Tú eres de %s y la sección es de %s",
-                                alumno.getPerfilAlumno().getNivel(), seccion.getNivelSeccion())
-                );
-            }
-
-            // Validar Grado (Extrayendo solo el número para comparar)
-            Integer gradoAlumno = extraerNumeroGrado(alumno.getPerfilAlumno().getGrado());
-            Integer gradoSeccion = extraerNumeroGrado(seccion.getGradoSeccion());
-
-            if (gradoAlumno != null && gradoSeccion != null) {
-                if (!gradoAlumno.equals(gradoSeccion)) {
-                    throw new ValidacionException(
-                            String.format("Grado incorrecto. Tú estás en %sº grado y la sección es para %sº grado.",
-                                    gradoAlumno, gradoSeccion)
-                    );
-                }
-            } else {
-                // Fallback: Comparación de texto si falla la numérica
-                if (!alumno.getPerfilAlumno().getGrado().equalsIgnoreCase(seccion.getGradoSeccion())) {
-                    throw new ValidacionException(
-                            String.format("Grado incorrecto. Tú estás en %s y la sección es para %s.",
-                                    alumno.getPerfilAlumno().getGrado(), seccion.getGradoSeccion())
-                    );
-                }
-            }
+            validarNivelYGrado(alumno.getPerfilAlumno(), seccion);
 
             // 8.  VALIDAR CRUCE DE HORARIOS (ALUMNO) - OPTIMIZADO
             validarCruceHorariosAlumno(alumnoId, seccion);
 
-            // 9. Crear la matrícula
+            // 9. Reservar el cupo con un UPDATE condicional: nunca se supera la capacidad
+            //    aunque lleguen muchas matrículas a la vez (la fila queda bloqueada hasta el commit)
+            reservarCupo(seccion);
+
+            // 10. Crear la matrícula
             Matricula nuevaMatricula = Matricula.builder()
                     .alumno(alumno)
                     .seccion(seccion)
@@ -171,6 +185,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
 
         matricula.setEstado(EstadoMatricula.RETIRADA);
         matricula.setFechaRetiro(LocalDateTime.now());
+        seccionRepository.liberarCupo(seccionId);
 
         logger.info("Matrícula marcada como retirada. Matrícula ID: {}", matricula.getId());
         return MatriculaResponseDTO.deEntidad(matriculaRepository.save(matricula));
@@ -198,6 +213,9 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
             );
         }
 
+        if (matricula.getEstado() == EstadoMatricula.ACTIVA) {
+            seccionRepository.liberarCupo(seccionId);
+        }
         matriculaRepository.delete(matricula);
         logger.info("Matrícula eliminada físicamente. Alumno ID: {}, Sección ID: {}", alumnoId, seccionId);
     }
@@ -208,7 +226,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
         if (!usuarioRepository.existsById(alumnoId)) {
             throw new RecursoNoEncontradoException("Alumno no encontrado");
         }
-        return matriculaRepository.findByAlumnoId(alumnoId).stream()
+        return matriculaRepository.findConDetalleByAlumnoId(alumnoId).stream()
                 .map(MatriculaResponseDTO::deEntidad)
                 .collect(Collectors.toList());
     }
@@ -219,7 +237,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
         if (!usuarioRepository.existsById(alumnoId)) {
             throw new RecursoNoEncontradoException("Alumno no encontrado");
         }
-        return matriculaRepository.findByAlumnoIdAndEstado(alumnoId, EstadoMatricula.ACTIVA).stream()
+        return matriculaRepository.findConDetalleByAlumnoIdAndEstado(alumnoId, EstadoMatricula.ACTIVA).stream()
                 .map(MatriculaResponseDTO::deEntidad)
                 .collect(Collectors.toList());
     }
@@ -231,7 +249,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
             throw new RecursoNoEncontradoException("Sección no encontrada");
         }
 
-        List<Matricula> matriculas = matriculaRepository.findBySeccionId(seccionId);
+        List<Matricula> matriculas = matriculaRepository.findConDetalleBySeccionId(seccionId);
 
         // 1. Ordenamos por apellidos
         matriculas.sort(Comparator.comparing(m -> m.getAlumno().getApellidos(), String.CASE_INSENSITIVE_ORDER));
@@ -254,7 +272,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
             throw new RecursoNoEncontradoException("Sección no encontrada");
         }
 
-        List<Matricula> matriculas = matriculaRepository.findBySeccionIdAndEstado(seccionId, EstadoMatricula.ACTIVA);
+        List<Matricula> matriculas = matriculaRepository.findConDetalleBySeccionIdAndEstado(seccionId, EstadoMatricula.ACTIVA);
 
         // 1. Ordenamos por apellidos
         matriculas.sort(Comparator.comparing(m -> m.getAlumno().getApellidos(), String.CASE_INSENSITIVE_ORDER));
@@ -273,11 +291,71 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
     @Override
     @Transactional(readOnly = true)
     public List<MatriculaResponseDTO> listarTodasLasMatriculas() {
-        return matriculaRepository.findAll().stream()
+        return matriculaRepository.findAllConDetalle().stream()
                 .map(MatriculaResponseDTO::deEntidad)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<MatriculaResponseDTO> listarMatriculasPaginadas(Long despuesDe, Integer tamano, EstadoMatricula estado,
+                                                                           Long seccionId, Long alumnoId) {
+        int limite = tamano == null ? TAMANO_PAGINA_POR_DEFECTO : Math.min(Math.max(tamano, 1), TAMANO_PAGINA_MAXIMO);
+
+        // Se pide una fila de más para saber si hay otra página sin hacer un COUNT
+        List<MatriculaFilaDTO> filas = matriculaRepository.findPaginaPlana(despuesDe == null ? 0L : despuesDe,
+                estado, seccionId, alumnoId, PageRequest.of(0, limite + 1));
+        boolean hayMas = filas.size() > limite;
+        if (hayMas) {
+            filas = filas.subList(0, limite);
+        }
+
+        Set<Long> seccionIds = filas.stream().map(MatriculaFilaDTO::getSeccionId).collect(Collectors.toSet());
+        Map<Long, List<HorarioDTO>> horarios = seccionIds.isEmpty()
+                ? Map.of()
+                : horariosPorSeccion(horarioRepository.findBySeccionIdIn(seccionIds));
+
+        List<MatriculaResponseDTO> contenido = filas.stream()
+                .map(f -> f.aResponse(horarios.getOrDefault(f.getSeccionId(), List.of())))
+                .collect(Collectors.toList());
+
+        return PaginaCursorDTO.<MatriculaResponseDTO>builder()
+                .contenido(contenido)
+                .siguienteCursor(hayMas ? filas.get(filas.size() - 1).getId() : null)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarMatriculas(EstadoMatricula estado, Long seccionId, Long alumnoId, Consumer<MatriculaResponseDTO> destino) {
+        // Los horarios vienen en el mismo cursor (una fila por horario), así no se cargan los de todas las secciones
+        long exportadas = 0;
+        try (Stream<Object[]> filas = exportacionRepository.streamMatriculasConHorarios(estado, seccionId, alumnoId)) {
+            Iterator<Object[]> it = filas.iterator();
+            MatriculaFilaDTO actual = null;
+            List<HorarioDTO> horarios = new ArrayList<>();
+            while (it.hasNext()) {
+                Object[] fila = it.next();
+                MatriculaFilaDTO matricula = (MatriculaFilaDTO) fila[0];
+                if (actual != null && !actual.getId().equals(matricula.getId())) {
+                    destino.accept(actual.aResponse(horarios));
+                    exportadas++;
+                    horarios = new ArrayList<>();
+                }
+                actual = matricula;
+                if (fila[1] != null) {
+                    horarios.add(new HorarioDTO((DayOfWeek) fila[1], (LocalTime) fila[2], (LocalTime) fila[3]));
+                }
+            }
+            if (actual != null) {
+                destino.accept(actual.aResponse(horarios));
+                exportadas++;
+            }
+        }
+        logger.info("Exportación de matrículas completada: {} filas", exportadas);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public MatriculaResponseDTO obtenerMatriculaPorId(Long id) {
@@ -297,6 +375,7 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
             matricula.setFechaRetiro(LocalDateTime.now());
         }
 
+        ajustarCupoPorCambioDeEstado(matricula, nuevoEstado);
         matricula.setEstado(nuevoEstado);
         return MatriculaResponseDTO.deEntidad(matriculaRepository.save(matricula));
     }
@@ -306,8 +385,9 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
     public MatriculaResponseDTO asignarCalificacion(Long id, Double calificacion) {
         logger.info("Asignando calificación {} a matrícula ID {}", calificacion, id);
 
-        if (calificacion < 0 || calificacion > 20) {
-            throw new ValidacionException("Calificación inválida. Debe estar entre 0 y 20.");
+        String error = validarCalificacion(calificacion);
+        if (error != null) {
+            throw new ValidacionException(error);
         }
 
         Matricula matricula = matriculaRepository.findById(id)
@@ -317,87 +397,558 @@ public class ServicioMatriculaImpl implements ServicioMatricula {
 
         // Actualizar estado basado en calificación y período
         if (matricula.getSeccion().getFechaFin().isBefore(LocalDate.now())) {
-            if (calificacion >= 10.5) {
-                matricula.setEstado(EstadoMatricula.COMPLETADA);
-                logger.info("Matrícula completada con éxito");
-            } else {
-                matricula.setEstado(EstadoMatricula.REPROBADA);
-                logger.info("Matrícula marcada como reprobada");
-            }
+            EstadoMatricula estadoFinal = estadoPorCalificacion(calificacion);
+            ajustarCupoPorCambioDeEstado(matricula, estadoFinal);
+            matricula.setEstado(estadoFinal);
+            logger.info("Matrícula marcada como {}", estadoFinal);
         }
 
         return MatriculaResponseDTO.deEntidad(matriculaRepository.save(matricula));
     }
 
+    // --- CALIFICACIONES POR SECCIÓN ---
+
+    @Override
+    @Transactional
+    public CalificacionesSeccionResponseDTO asignarCalificacionesSeccion(Long seccionId, List<CalificacionAlumnoDTO> calificaciones) {
+        if (calificaciones == null || calificaciones.isEmpty()) {
+            throw new ValidacionException("Debe enviar al menos una calificación.");
+        }
+        List<FilaCalificacion> filas = new ArrayList<>(calificaciones.size());
+        for (int i = 0; i < calificaciones.size(); i++) {
+            filas.add(new FilaCalificacion(i + 1, calificaciones.get(i), null));
+        }
+        return aplicarCalificaciones(seccionId, filas);
+    }
+
+    @Override
+    @Transactional
+    public CalificacionesSeccionResponseDTO importarCalificacionesSeccion(Long seccionId, InputStream csv) {
+        List<FilaCalificacion> filas = leerCsvCalificaciones(csv);
+        if (filas.isEmpty()) {
+            throw new ValidacionException("El archivo CSV no contiene filas.");
+        }
+        return aplicarCalificaciones(seccionId, filas);
+    }
+
+    /**
+     * Valida todas las filas en memoria contra las matrículas de la sección (una consulta)
+     * y aplica las válidas con un UPDATE por lotes. La sección queda bloqueada durante la carga.
+     * Las reglas son las de asignarCalificacion: si la sección ya terminó, la matrícula pasa a
+     * COMPLETADA o REPROBADA y, si estaba ACTIVA, libera su cupo.
+     */
+    private CalificacionesSeccionResponseDTO aplicarCalificaciones(Long seccionId, List<FilaCalificacion> filas) {
+        long inicio = System.currentTimeMillis();
+
+        Seccion seccion = seccionRepository.findParaActualizarById(seccionId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Sección no encontrada"));
+        boolean seccionTerminada = seccion.getFechaFin().isBefore(LocalDate.now());
+
+        // 1. Índices de las matrículas de la sección por id, alumno, DNI y código de estudiante
+        Map<Long, Matricula> porId = new HashMap<>();
+        Map<Long, Matricula> porAlumnoId = new HashMap<>();
+        Map<String, Matricula> porDniOCodigo = new HashMap<>();
+        for (Matricula m : matriculaRepository.findConAlumnoBySeccionId(seccionId)) {
+            porId.put(m.getId(), m);
+            porAlumnoId.put(m.getAlumno().getId(), m);
+            PerfilAlumno perfil = m.getAlumno().getPerfilAlumno();
+            if (perfil != null) {
+                porDniOCodigo.put(perfil.getDni(), m);
+                porDniOCodigo.put(perfil.getCodigoEstudiante(), m);
+            }
+        }
+
+        // 2. Validar cada fila
+        List<ResultadoFilaCalificacionDTO> resultados = new ArrayList<>(filas.size());
+        List<CalificacionAplicada> aplicadas = new ArrayList<>();
+        Set<Long> calificadas = new HashSet<>();
+        int cuposLiberados = 0;
+
+        for (FilaCalificacion fila : filas) {
+            CalificacionAlumnoDTO datos = fila.datos();
+            ResultadoFilaCalificacionDTO.ResultadoFilaCalificacionDTOBuilder resultado = ResultadoFilaCalificacionDTO.builder()
+                    .fila(fila.numero())
+                    .alumno(datos == null ? null : identificadorAlumno(datos))
+                    .calificacion(datos == null ? null : datos.getCalificacion());
+
+            String error = fila.error();
+            Matricula matricula = null;
+            if (error == null && datos == null) {
+                error = "Fila vacía";
+            }
+            if (error == null) {
+                if (datos.getMatriculaId() != null) {
+                    matricula = porId.get(datos.getMatriculaId());
+                } else if (datos.getAlumnoId() != null) {
+                    matricula = porAlumnoId.get(datos.getAlumnoId());
+                } else if (datos.getAlumno() != null && !datos.getAlumno().isBlank()) {
+                    matricula = porDniOCodigo.get(datos.getAlumno().trim());
+                } else {
+                    error = "Debe indicar matriculaId, alumnoId o alumno (DNI o código de estudiante)";
+                }
+            }
+            if (error == null && matricula == null) {
+                error = "El alumno no está matriculado en esta sección";
+            }
+            if (error == null) {
+                error = validarCalificacion(datos.getCalificacion());
+            }
+            if (error == null && !calificadas.add(matricula.getId())) {
+                error = "La matrícula aparece más de una vez en la carga";
+            }
+            if (error != null) {
+                resultados.add(resultado.exito(false).mensaje(error).build());
+                continue;
+            }
+
+            EstadoMatricula estado = matricula.getEstado();
+            if (seccionTerminada) {
+                estado = estadoPorCalificacion(datos.getCalificacion());
+                if (matricula.getEstado() == EstadoMatricula.ACTIVA) {
+                    cuposLiberados++;
+                }
+            }
+            aplicadas.add(new CalificacionAplicada(matricula.getId(), datos.getCalificacion(), estado));
+            resultados.add(resultado.matriculaId(matricula.getId()).estado(estado)
+                    .exito(true).mensaje("Calificación registrada").build());
+        }
+
+        // 3. Aplicar en lotes JDBC (las entidades cargadas no se modifican, así que JPA no vuelve a escribirlas)
+        jdbcTemplate.batchUpdate(
+                "UPDATE matriculas SET calificacion_final = ?, estado = ? WHERE id = ?",
+                aplicadas, TAMANO_LOTE_INSERCION,
+                (ps, aplicada) -> {
+                    ps.setDouble(1, aplicada.calificacion());
+                    ps.setString(2, aplicada.estado().name());
+                    ps.setLong(3, aplicada.matriculaId());
+                });
+        if (cuposLiberados > 0) {
+            jdbcTemplate.update("UPDATE secciones SET matriculados_activos = GREATEST(matriculados_activos - ?, 0) WHERE id = ?",
+                    cuposLiberados, seccionId);
+        }
+
+        long duracion = System.currentTimeMillis() - inicio;
+        logger.info("Calificaciones de la sección {}: {} registradas, {} rechazadas en {} ms",
+                seccionId, aplicadas.size(), filas.size() - aplicadas.size(), duracion);
+
+        return CalificacionesSeccionResponseDTO.builder()
+                .seccionId(seccionId)
+                .totalFilas(filas.size())
+                .actualizadas(aplicadas.size())
+                .rechazadas(filas.size() - aplicadas.size())
+                .duracionMs(duracion)
+                .filas(resultados)
+                .build();
+    }
+
+    /**
+     * CSV de calificaciones: DNI o código de estudiante, calificación. Encabezado opcional.
+     * Se acepta la coma decimal (18,5) cuando el valor no se confunde con el separador: con ';' o entre comillas.
+     */
+    private List<FilaCalificacion> leerCsvCalificaciones(InputStream csv) {
+        List<FilaCalificacion> filas = new ArrayList<>();
+        try (LectorCsv lector = new LectorCsv(csv)) {
+            List<String> campos;
+            while ((campos = lector.siguiente()) != null) {
+                if (filas.isEmpty() && ENCABEZADOS_CSV.contains(campos.get(0).toLowerCase(Locale.ROOT))) {
+                    continue;
+                }
+
+                String alumno = campos.get(0);
+                String texto = campos.size() > 1 ? campos.get(1) : "";
+                Double calificacion = null;
+                String error = null;
+                if (alumno.isEmpty() || texto.isEmpty()) {
+                    error = "Formato inválido: se esperaba 'DNI o código de estudiante, calificación'";
+                } else {
+                    try {
+                        calificacion = Double.parseDouble(texto.replace(',', '.'));
+                    } catch (NumberFormatException e) {
+                        error = "Calificación no numérica: " + texto;
+                    }
+                }
+                filas.add(new FilaCalificacion(lector.getLinea(),
+                        CalificacionAlumnoDTO.builder().alumno(alumno).calificacion(calificacion).build(), error));
+            }
+        } catch (IOException e) {
+            throw new ValidacionException("No se pudo leer el archivo CSV: " + e.getMessage());
+        }
+        return filas;
+    }
+
+    private static String identificadorAlumno(CalificacionAlumnoDTO datos) {
+        if (datos.getAlumno() != null) {
+            return datos.getAlumno();
+        }
+        if (datos.getAlumnoId() != null) {
+            return "alumno " + datos.getAlumnoId();
+        }
+        return datos.getMatriculaId() != null ? "matrícula " + datos.getMatriculaId() : null;
+    }
+
     @Override
     @Transactional
     public void eliminarMatricula(Long id) {
         logger.info("Eliminando matrícula ID {}", id);
 
-        if (!matriculaRepository.existsById(id)) {
-            throw new RecursoNoEncontradoException("Matrícula no encontrada");
-        }
+        Matricula matricula = matriculaRepository.findById(id)
+                .orElseThrow(() -> new RecursoNoEncontradoException("Matrícula no encontrada"));
 
-        matriculaRepository.deleteById(id);
+        if (matricula.getEstado() == EstadoMatricula.ACTIVA) {
+            seccionRepository.liberarCupo(matricula.getSeccion().getId());
+        }
+        matriculaRepository.delete(matricula);
         logger.info("Matrícula eliminada exitosamente");
     }
 
-    // --- MÉTODOS PRIVADOS AUXILIARES ---
+    // --- IMPORTACIÓN MASIVA ---
 
-    private void validarCruceHorariosAlumno(Long alumnoId, Seccion seccion) {
-        List<Horario> horariosNuevos = seccion.getHorarios();
+    @Override
+    @Transactional
+    public ImportacionMatriculasResponseDTO importarMatriculas(InputStream csv) {
+        long inicio = System.currentTimeMillis();
 
-        if (horariosNuevos == null || horariosNuevos.isEmpty()) {
-            logger.warn("La sección ID {} no tiene horarios asignados", seccion.getId());
-            return;
+        // 1. Leer el CSV
+        List<FilaCsv> filas = leerCsv(csv);
+        if (filas.isEmpty()) {
+            throw new ValidacionException("El archivo CSV no contiene filas.");
+        }
+        logger.info("Importando {} filas de matrículas", filas.size());
+
+        // 2. Precargar todo lo referenciado con pocas consultas por conjuntos
+        Set<String> clavesAlumno = new HashSet<>();
+        // Ordenados: los lotes bloquean las secciones en orden global de código (ver findParaImportacionPorCodigos)
+        Set<String> codigosSeccion = new TreeSet<>();
+        for (FilaCsv fila : filas) {
+            if (fila.error() == null) {
+                clavesAlumno.add(fila.alumno());
+                codigosSeccion.add(fila.codigoSeccion());
+            }
         }
 
-        for (Horario horario : horariosNuevos) {
-            // Validar que el horario sea válido
-            if (!horario.esValido()) {
-                throw new ValidacionException(
-                        String.format("El horario del %s es inválido (inicio debe ser antes de fin)",
-                                horario.getDiaSemana())
-                );
+        Map<String, Usuario> alumnosPorClave = new HashMap<>();
+        for (List<String> lote : enLotes(clavesAlumno)) {
+            // El mismo valor puede ser un DNI o un código: dos consultas simples aprovechan cada índice
+            for (Usuario alumno : usuarioRepository.findAlumnosPorDnis(lote)) {
+                alumnosPorClave.putIfAbsent(alumno.getPerfilAlumno().getDni(), alumno);
+            }
+            for (Usuario alumno : usuarioRepository.findAlumnosPorCodigosEstudiante(lote)) {
+                alumnosPorClave.putIfAbsent(alumno.getPerfilAlumno().getCodigoEstudiante(), alumno);
             }
+        }
 
-            // Usar query optimizada para detectar cruce
-            boolean hayCruce = horarioRepository.existeCruceAlumno(
-                    alumnoId,
-                    horario.getDiaSemana(),
-                    horario.getHoraInicio(),
-                    horario.getHoraFin()
-            );
+        // Las secciones quedan bloqueadas hasta el commit: el cupo calculado en memoria es fiable
+        Map<String, Seccion> seccionesPorCodigo = new HashMap<>();
+        for (List<String> lote : enLotes(codigosSeccion)) {
+            seccionRepository.findParaImportacionPorCodigos(lote)
+                    .forEach(seccion -> seccionesPorCodigo.put(seccion.getCodigo(), seccion));
+        }
 
-            if (hayCruce) {
-                throw new ValidacionException(
-                        String.format("Conflicto de horario: Ya tienes una clase asignada el %s entre %s y %s.",
-                                horario.getDiaSemana(), horario.getHoraInicio(), horario.getHoraFin())
-                );
+        Map<Long, SituacionAlumno> situaciones = new HashMap<>();
+        Set<Long> alumnoIds = new HashSet<>();
+        alumnosPorClave.values().forEach(alumno -> alumnoIds.add(alumno.getId()));
+        for (List<Long> lote : enLotes(alumnoIds)) {
+            for (Matricula existente : matriculaRepository.findConSeccionPorAlumnoIds(lote)) {
+                Long alumnoId = existente.getAlumno().getId();
+                situaciones.computeIfAbsent(alumnoId, id -> new SituacionAlumno())
+                        .registrar(existente.getSeccion(), existente.getEstado() == EstadoMatricula.ACTIVA);
             }
         }
+
+        // 3. Validar cada fila en memoria con las mismas reglas que la matrícula individual
+        List<ResultadoFilaImportacionDTO> resultados = new ArrayList<>(filas.size());
+        List<MatriculaNueva> nuevas = new ArrayList<>();
+        Map<Long, Integer> cuposTomados = new HashMap<>();
+
+        for (FilaCsv fila : filas) {
+            ResultadoFilaImportacionDTO resultado = ResultadoFilaImportacionDTO.builder()
+                    .fila(fila.numero())
+                    .alumno(fila.alumno())
+                    .codigoSeccion(fila.codigoSeccion())
+                    .build();
+            try {
+                if (fila.error() != null) {
+                    throw new ValidacionException(fila.error());
+                }
+                Usuario alumno = alumnosPorClave.get(fila.alumno());
+                Seccion seccion = seccionesPorCodigo.get(fila.codigoSeccion());
+                SituacionAlumno situacion = alumno == null ? null
+                        : situaciones.computeIfAbsent(alumno.getId(), id -> new SituacionAlumno());
+
+                validarFilaImportacion(fila, alumno, seccion, situacion, cuposTomados);
+
+                situacion.registrar(seccion, true);
+                cuposTomados.merge(seccion.getId(), 1, Integer::sum);
+                nuevas.add(new MatriculaNueva(alumno.getId(), seccion.getId(), fila.observaciones()));
+
+                resultado.setExito(true);
+                resultado.setMensaje("Matrícula creada");
+            } catch (RecursoNoEncontradoException | ValidacionException e) {
+                resultado.setExito(false);
+                resultado.setMensaje(e.getMessage());
+            }
+            resultados.add(resultado);
+        }
+
+        // 4. Insertar las matrículas y sumar los cupos en lotes JDBC (sin pasar por el contexto de JPA)
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO matriculas (alumno_id, seccion_id, estado, fecha_matricula, observaciones) " +
+                        "VALUES (?, ?, ?, ?, ?)",
+                nuevas, TAMANO_LOTE_INSERCION,
+                (ps, nueva) -> {
+                    ps.setLong(1, nueva.alumnoId());
+                    ps.setLong(2, nueva.seccionId());
+                    ps.setString(3, EstadoMatricula.ACTIVA.name());
+                    ps.setTimestamp(4, ahora);
+                    ps.setString(5, nueva.observaciones());
+                });
+
+        // Las secciones están bloqueadas desde la precarga, así que el cupo calculado sigue siendo válido
+        jdbcTemplate.batchUpdate(
+                "UPDATE secciones SET matriculados_activos = matriculados_activos + ? WHERE id = ?",
+                new ArrayList<>(cuposTomados.entrySet()), TAMANO_LOTE_INSERCION,
+                (ps, cupo) -> {
+                    ps.setInt(1, cupo.getValue());
+                    ps.setLong(2, cupo.getKey());
+                });
+
+        long duracion = System.currentTimeMillis() - inicio;
+        logger.info("Importación terminada: {} creadas, {} rechazadas en {} ms",
+                nuevas.size(), filas.size() - nuevas.size(), duracion);
+
+        return ImportacionMatriculasResponseDTO.builder()
+                .totalFilas(filas.size())
+                .creadas(nuevas.size())
+                .rechazadas(filas.size() - nuevas.size())
+                .duracionMs(duracion)
+                .filas(resultados)
+                .build();
     }
 
     /**
-     * Extrae el número del grado desde un string (ej: "6º grado" -> 6)
+     * Reglas de matricularseEnSeccion, evaluadas sobre los datos precargados.
      */
-    private Integer extraerNumeroGrado(String textoGrado) {
-        if (textoGrado == null) {
-            return null;
+    private void validarFilaImportacion(FilaCsv fila, Usuario alumno, Seccion seccion,
+                                        SituacionAlumno situacion, Map<Long, Integer> cuposTomados) {
+        if (alumno == null) {
+            throw new RecursoNoEncontradoException("Alumno no encontrado con DNI o código: " + fila.alumno());
+        }
+        if (alumno.getRol() != Rol.ALUMNO) {
+            throw new ValidacionException("El usuario no es un alumno");
+        }
+        if (seccion == null) {
+            throw new RecursoNoEncontradoException("Sección no encontrada con código: " + fila.codigoSeccion());
+        }
+        if (!seccion.getActiva()) {
+            throw new ValidacionException("La sección no está activa.");
+        }
+        if (seccion.getFechaFin().isBefore(LocalDate.now())) {
+            throw new ValidacionException("La sección ya ha finalizado.");
+        }
+        if (situacion.seccionIds.contains(seccion.getId())) {
+            throw new ValidacionException("El alumno ya está matriculado en esta sección");
+        }
+        if (situacion.cursosActivos.contains(seccion.getCurso().getId())) {
+            throw new ValidacionException("El alumno ya está matriculado en una sección del curso '" +
+                    seccion.getCurso().getTitulo() + "'.");
+        }
+        int ocupados = seccion.getMatriculadosActivos() + cuposTomados.getOrDefault(seccion.getId(), 0);
+        if (ocupados >= seccion.getCapacidad()) {
+            throw new ValidacionException("La sección ha alcanzado su capacidad máxima.");
         }
 
-        Pattern p = Pattern.compile("\\d+");
-        Matcher m = p.matcher(textoGrado);
+        validarNivelYGrado(alumno.getPerfilAlumno(), seccion);
 
-        if (m.find()) {
-            try {
-                return Integer.parseInt(m.group());
-            } catch (NumberFormatException e) {
-                logger.warn("No se pudo extraer número de grado: {}", textoGrado);
-                return null;
+        validarHorariosDeSeccion(seccion.getHorarios());
+        List<CruceHorariosService.Conflicto> conflictos = CruceHorariosService.buscarConflictos(
+                situacion.horariosActivos, seccion.getHorarios().stream()
+                        .map(CruceHorariosService.Intervalo::deHorario)
+                        .collect(Collectors.toList()));
+        if (!conflictos.isEmpty()) {
+            throw new ValidacionException("Conflicto de horario: " + CruceHorariosService.describir(conflictos));
+        }
+    }
+
+    /**
+     * Lee el CSV completo a filas en memoria (con {@link LectorCsv}): la importación bloquea todas sus
+     * secciones en orden global de código y responde con el resultado de cada fila, así que no se
+     * procesa por partes. El tamaño del archivo lo acota el límite de subida multipart.
+     * Acepta ',' o ';' como separador (según el encabezado o la primera fila), valores entre comillas
+     * y una línea de encabezado opcional.
+     */
+    private List<FilaCsv> leerCsv(InputStream csv) {
+        List<FilaCsv> filas = new ArrayList<>();
+        try (LectorCsv lector = new LectorCsv(csv)) {
+            List<String> campos;
+            while ((campos = lector.siguiente()) != null) {
+                if (filas.isEmpty() && ENCABEZADOS_CSV.contains(campos.get(0).toLowerCase(Locale.ROOT))) {
+                    continue;
+                }
+
+                String alumno = campos.get(0);
+                String codigoSeccion = campos.size() > 1 ? campos.get(1) : "";
+                String observaciones = campos.size() > 2 && !campos.get(2).isEmpty() ? campos.get(2) : null;
+                String error = null;
+                if (alumno.isEmpty() || codigoSeccion.isEmpty()) {
+                    error = "Formato inválido: se esperaba 'DNI o código de estudiante, código de sección'";
+                } else if (observaciones != null && observaciones.length() > 500) {
+                    error = "Las observaciones no pueden superar los 500 caracteres";
+                }
+                filas.add(new FilaCsv(lector.getLinea(), alumno, codigoSeccion, observaciones, error));
+            }
+        } catch (IOException e) {
+            throw new ValidacionException("No se pudo leer el archivo CSV: " + e.getMessage());
+        }
+        return filas;
+    }
+
+    private static <T> List<List<T>> enLotes(Collection<T> valores) {
+        List<T> lista = new ArrayList<>(valores);
+        List<List<T>> lotes = new ArrayList<>();
+        for (int i = 0; i < lista.size(); i += TAMANO_LOTE_CONSULTA) {
+            lotes.add(lista.subList(i, Math.min(i + TAMANO_LOTE_CONSULTA, lista.size())));
+        }
+        return lotes;
+    }
+
+    private record FilaCsv(int numero, String alumno, String codigoSeccion, String observaciones, String error) {
+    }
+
+    private record MatriculaNueva(Long alumnoId, Long seccionId, String observaciones) {
+    }
+
+    private record FilaCalificacion(int numero, CalificacionAlumnoDTO datos, String error) {
+    }
+
+    private record CalificacionAplicada(Long matriculaId, Double calificacion, EstadoMatricula estado) {
+    }
+
+    /**
+     * Lo que ya tiene un alumno (secciones, cursos y horarios activos), más lo aceptado en esta importación.
+     */
+    private static final class SituacionAlumno {
+        private final Set<Long> seccionIds = new HashSet<>();
+        private final Set<Long> cursosActivos = new HashSet<>();
+        private final List<CruceHorariosService.Intervalo> horariosActivos = new ArrayList<>();
+
+        void registrar(Seccion seccion, boolean activa) {
+            seccionIds.add(seccion.getId());
+            if (activa) {
+                cursosActivos.add(seccion.getCurso().getId());
+                seccion.getHorarios().forEach(h -> horariosActivos.add(CruceHorariosService.Intervalo.deHorario(h)));
             }
         }
+    }
 
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * Mensaje de error si la calificación falta o está fuera de rango; null si es válida.
+     */
+    private static String validarCalificacion(Double calificacion) {
+        if (calificacion == null || calificacion.isNaN()) {
+            return "La calificación es obligatoria.";
+        }
+        if (calificacion < CALIFICACION_MINIMA || calificacion > CALIFICACION_MAXIMA) {
+            return "Calificación inválida. Debe estar entre 0 y 20.";
+        }
         return null;
     }
+
+    private static EstadoMatricula estadoPorCalificacion(Double calificacion) {
+        return calificacion >= CALIFICACION_APROBATORIA ? EstadoMatricula.COMPLETADA : EstadoMatricula.REPROBADA;
+    }
+
+    private static Map<Long, List<HorarioDTO>> horariosPorSeccion(List<Horario> horarios) {
+        // getSeccion().getId() no inicializa el proxy LAZY de la sección
+        return horarios.stream().collect(Collectors.groupingBy(h -> h.getSeccion().getId(),
+                Collectors.mapping(h -> new HorarioDTO(h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin()),
+                        Collectors.toList())));
+    }
+
+    /**
+     * Ocupa un cupo de la sección de forma atómica o falla si ya está llena.
+     */
+    private void reservarCupo(Seccion seccion) {
+        if (seccionRepository.reservarCupo(seccion.getId()) == 0) {
+            throw new ValidacionException("La sección ha alcanzado su capacidad máxima.");
+        }
+        // Solo refleja el valor en memoria (la columna no se escribe desde la entidad)
+        seccion.setMatriculadosActivos(seccion.getMatriculadosActivos() + 1);
+    }
+
+    /**
+     * Mantiene el contador de cupos cuando una matrícula entra o sale del estado ACTIVA.
+     */
+    private void ajustarCupoPorCambioDeEstado(Matricula matricula, EstadoMatricula nuevoEstado) {
+        boolean eraActiva = matricula.getEstado() == EstadoMatricula.ACTIVA;
+        boolean seraActiva = nuevoEstado == EstadoMatricula.ACTIVA;
+        if (eraActiva && !seraActiva) {
+            seccionRepository.liberarCupo(matricula.getSeccion().getId());
+        } else if (!eraActiva && seraActiva) {
+            reservarCupo(matricula.getSeccion());
+        }
+    }
+
+    /**
+     * El nivel debe coincidir y el grado se compara por su número (ej: "3º grado" == "3").
+     */
+    private void validarNivelYGrado(PerfilAlumno perfil, Seccion seccion) {
+        if (!perfil.getNivel().equals(seccion.getNivelSeccion())) {
+            throw new ValidacionException(
+                    String.format("Nivel incorrecto. Tú eres de %s y la sección es de %s",
+                            perfil.getNivel(), seccion.getNivelSeccion())
+            );
+        }
+
+        // Validar Grado con el número normalizado al guardar (ej: "6º grado" -> 6)
+        Integer gradoAlumno = perfil.getGradoNumero();
+        Integer gradoSeccion = seccion.getGradoNumero();
+
+        if (gradoAlumno != null && gradoSeccion != null) {
+            if (!gradoAlumno.equals(gradoSeccion)) {
+                throw new ValidacionException(
+                        String.format("Grado incorrecto. Tú estás en %sº grado y la sección es para %sº grado.",
+                                gradoAlumno, gradoSeccion)
+                );
+            }
+        } else {
+            // Fallback: Comparación de texto si alguno de los grados no tiene número
+            if (!perfil.getGrado().equalsIgnoreCase(seccion.getGradoSeccion())) {
+                throw new ValidacionException(
+                        String.format("Grado incorrecto. Tú estás en %s y la sección es para %s.",
+                                perfil.getGrado(), seccion.getGradoSeccion())
+                );
+            }
+        }
+    }
+
+    private void validarCruceHorariosAlumno(Long alumnoId, Seccion seccion) {
+        List<Horario> horariosNuevos = seccion.getHorarios();
+
+        if (horariosNuevos == null || horariosNuevos.isEmpty()) {
+            logger.warn("La sección ID {} no tiene horarios asignados", seccion.getId());
+            return;
+        }
+
+        validarHorariosDeSeccion(horariosNuevos);
+
+        // Una sola consulta con los horarios del alumno; el cruce se calcula en memoria
+        List<CruceHorariosService.Conflicto> conflictos = cruceHorariosService.conflictosAlumno(alumnoId, horariosNuevos);
+        if (!conflictos.isEmpty()) {
+            throw new ValidacionException("Conflicto de horario: " + CruceHorariosService.describir(conflictos));
+        }
+    }
+
+    private void validarHorariosDeSeccion(List<Horario> horarios) {
+        for (Horario horario : horarios) {
+            if (!horario.esValido()) {
+                throw new ValidacionException(
+                        String.format("El horario del %s es inválido (inicio debe ser antes de fin)",
+                                horario.getDiaSemana())
+                );
+            }
+        }
+    }
 }
\ No newline at end of file
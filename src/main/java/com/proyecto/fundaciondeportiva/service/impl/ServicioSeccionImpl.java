@@ -1,24 +1,41 @@
 package com.proyecto.fundaciondeportiva.service.impl;
 
+import com.proyecto.fundaciondeportiva.dto.request.BusquedaSeccionDTO;
 import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
 import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.ValidacionHorariosRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.BusquedaSeccionesResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ConflictoHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ReporteCrucesHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionEnCursoDTO;
 import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
 import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
 import com.proyecto.fundaciondeportiva.exception.ValidacionException;
 import com.proyecto.fundaciondeportiva.model.entity.*;
 import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.model.enums.OrdenSeccion;
 import com.proyecto.fundaciondeportiva.repository.*;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService;
+import com.proyecto.fundaciondeportiva.service.HorariosEnCursoService;
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
 import com.proyecto.fundaciondeportiva.service.ServicioSeccion;
+import com.proyecto.fundaciondeportiva.util.GradoUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +43,9 @@ public class ServicioSeccionImpl implements ServicioSeccion {
 
     private static final Logger logger = LoggerFactory.getLogger(ServicioSeccionImpl.class);
 
+    private static final int TAMANO_BUSQUEDA_DEFECTO = 50;
+    private static final int TAMANO_BUSQUEDA_MAXIMO = 200;
+
     @Autowired
     private SeccionRepository seccionRepository;
 
@@ -39,11 +59,25 @@ public class ServicioSeccionImpl implements ServicioSeccion {
     private PerfilProfesorRepository perfilProfesorRepository;
 
     @Autowired
-    private HorarioRepository horarioRepository;
+    private CruceHorariosService cruceHorariosService;
+
+    @Autowired
+    private BusquedaSeccionRepository busquedaSeccionRepository;
 
-    //  INYECCIÓN NECESARIA PARA LAS SESIONES
+    // Inserta las sesiones con lotes JDBC
     @Autowired
-    private SesionRepository sesionRepository;
+    private CalendarioSesionesService calendarioSesionesService;
+
+    @Autowired
+    private AulaRepository aulaRepository;
+
+    // Ocupación semanal de las aulas en memoria
+    @Autowired
+    private OcupacionAulasService ocupacionAulasService;
+
+    // Índice en memoria de las clases en curso; se invalida con cada cambio de sección
+    @Autowired
+    private HorariosEnCursoService horariosEnCursoService;
 
     @Override
     @Transactional(readOnly = true)
@@ -95,6 +129,8 @@ public class ServicioSeccionImpl implements ServicioSeccion {
             throw new ValidacionException("La sección debe tener al menos un horario");
         }
 
+        Aula aula = resolverAula(request, null);
+
         String codigoGenerado = generarCodigoUnico();
 
         Seccion nuevaSeccion = Seccion.builder()
@@ -102,7 +138,8 @@ public class ServicioSeccionImpl implements ServicioSeccion {
                 .nombre(request.getNombre())
                 .nivelSeccion(request.getNivelSeccion())
                 .gradoSeccion(request.getGradoSeccion())
-                .aula(request.getAula())
+                .aula(aula != null ? aula.getCodigo() : request.getAula())
+                .aulaAsignada(aula)
                 .capacidad(request.getCapacidad())
                 .fechaInicio(request.getFechaInicio())
                 .fechaFin(request.getFechaFin())
@@ -123,9 +160,11 @@ public class ServicioSeccionImpl implements ServicioSeccion {
         }
 
         Seccion seccionGuardada = seccionRepository.save(nuevaSeccion);
+        reservarAula(seccionGuardada);
+        horariosEnCursoService.invalidar();
 
         //  GENERACIÓN AUTOMÁTICA DE SESIONES
-        generarSesionesAutomaticas(seccionGuardada);
+        calendarioSesionesService.generarSesiones(seccionGuardada);
 
         logger.info("Sección creada exitosamente. Sección ID: {}, Código: {}", seccionGuardada.getId(), codigoGenerado);
         return SeccionResponseDTO.deEntidad(seccionGuardada);
@@ -157,29 +196,32 @@ public class ServicioSeccionImpl implements ServicioSeccion {
             throw new ValidacionException("La sección debe tener al menos un horario");
         }
 
+        Aula aula = resolverAula(request, seccion.getAulaAsignada());
+
         int estudiantesActuales = seccion.getNumeroEstudiantesMatriculados();
         if (request.getCapacidad() < estudiantesActuales) {
             throw new ValidacionException(String.format("No puedes reducir la capacidad a %d cuando ya hay %d alumnos matriculados", request.getCapacidad(), estudiantesActuales));
         }
 
-        // Detectar si cambiaron fechas u horarios para saber si regenerar sesiones
+        // Detectar si cambiaron fechas u horarios para saber si hay que tocar el calendario
         boolean fechasCambiaron = !seccion.getFechaInicio().isEqual(request.getFechaInicio()) ||
                 !seccion.getFechaFin().isEqual(request.getFechaFin());
-        // Simplificación: asumimos que si se llama a update, los horarios podrían haber cambiado.
-        // Lo ideal sería comparar la lista, pero regenerar es más seguro.
+        boolean horariosCambiaron = !mismosHorarios(seccion.getHorarios(), request.getHorarios());
 
         seccion.setNombre(request.getNombre());
         seccion.setNivelSeccion(request.getNivelSeccion());
         seccion.setGradoSeccion(request.getGradoSeccion());
-        seccion.setAula(request.getAula());
+        seccion.setAula(aula != null ? aula.getCodigo() : request.getAula());
+        seccion.setAulaAsignada(aula);
         seccion.setCapacidad(request.getCapacidad());
         seccion.setFechaInicio(request.getFechaInicio());
         seccion.setFechaFin(request.getFechaFin());
         seccion.setCurso(curso);
         seccion.setProfesor(profesor);
 
-        seccion.getHorarios().clear();
-        if (request.getHorarios() != null) {
+        // Los horarios solo se reemplazan si cambiaron (si no, sus filas quedan intactas)
+        if (horariosCambiaron) {
+            seccion.getHorarios().clear();
             request.getHorarios().forEach(hDTO -> {
                 Horario h = Horario.builder()
                         .diaSemana(hDTO.getDiaSemana())
@@ -191,15 +233,17 @@ public class ServicioSeccionImpl implements ServicioSeccion {
         }
 
         Seccion seccionActualizada = seccionRepository.save(seccion);
-
-        //  REGENERACIÓN DE SESIONES (Si se edita la sección, recalculamos el calendario)
-        // 1. Borrar sesiones futuras/todas (depende de tu regla de negocio, aquí borramos todas para regenerar limpio)
-        sesionRepository.deleteBySeccionId(id);
-
-        // 2. Crear nuevas
-        generarSesionesAutomaticas(seccionActualizada);
-
-        logger.info("Sección actualizada y calendario regenerado. Sección ID: {}", id);
+        reservarAula(seccionActualizada);
+        horariosEnCursoService.invalidar();
+
+        //  SINCRONIZACIÓN DE SESIONES: solo si cambió el calendario, y solo las sesiones afectadas
+        // (las pasadas y las que siguen en el horario conservan su asistencia y recursos)
+        if (fechasCambiaron || horariosCambiaron) {
+            calendarioSesionesService.sincronizarSesiones(seccionActualizada);
+            logger.info("Sección actualizada y calendario sincronizado. Sección ID: {}", id);
+        } else {
+            logger.info("Sección actualizada sin cambios de calendario. Sección ID: {}", id);
+        }
         return SeccionResponseDTO.deEntidad(seccionActualizada);
     }
 
@@ -214,6 +258,8 @@ public class ServicioSeccionImpl implements ServicioSeccion {
             throw new ValidacionException("No se puede eliminar una sección que tiene alumnos matriculados.");
         }
         seccionRepository.deleteById(id);
+        ocupacionAulasService.liberar(id);
+        horariosEnCursoService.invalidar();
     }
 
     @Override
@@ -222,6 +268,8 @@ public class ServicioSeccionImpl implements ServicioSeccion {
         Seccion s = seccionRepository.findById(id).orElseThrow(() -> new RecursoNoEncontradoException("Sección no encontrada"));
         s.setActiva(false);
         seccionRepository.save(s);
+        ocupacionAulasService.liberar(id);
+        horariosEnCursoService.invalidar();
     }
 
     @Override
@@ -230,6 +278,9 @@ public class ServicioSeccionImpl implements ServicioSeccion {
         Seccion s = seccionRepository.findById(id).orElseThrow(() -> new RecursoNoEncontradoException("Sección no encontrada"));
         s.setActiva(true);
         seccionRepository.save(s);
+        // Mientras estuvo inactiva otra sección pudo tomar su aula
+        reservarAula(s);
+        horariosEnCursoService.invalidar();
     }
 
     @Override
@@ -265,49 +316,21 @@ public class ServicioSeccionImpl implements ServicioSeccion {
         return seccionRepository.findByNivelSeccionAndActivaTrue(nivel).stream().map(SeccionResponseDTO::deEntidad).collect(Collectors.toList());
     }
 
-    // --- MÉTODOS PRIVADOS ---
-
-    /**
-     *  LÓGICA PRINCIPAL: Genera las sesiones en base a fechas y horarios
-     */
-    private void generarSesionesAutomaticas(Seccion seccion) {
-        LocalDate inicio = seccion.getFechaInicio();
-        LocalDate fin = seccion.getFechaFin();
-        List<Horario> horariosConfigurados = seccion.getHorarios();
-
-        if (horariosConfigurados == null || horariosConfigurados.isEmpty()) {
-            return;
-        }
-
-        // Recorrer día por día el rango de fechas (Java 9+ datesUntil)
-        List<Sesion> sesionesAGenerar = inicio.datesUntil(fin.plusDays(1))
-                .filter(fecha -> {
-                    // Verificar si la fecha cae en un día de clase (Lunes, Martes...)
-                    return horariosConfigurados.stream()
-                            .anyMatch(h -> h.getDiaSemana() == fecha.getDayOfWeek());
-                })
-                .map(fecha -> {
-                    // Crear una sesión por cada bloque horario de ese día
-                    return horariosConfigurados.stream()
-                            .filter(h -> h.getDiaSemana() == fecha.getDayOfWeek())
-                            .map(horario -> Sesion.builder()
-                                    .fecha(fecha)
-                                    .horaInicio(horario.getHoraInicio())
-                                    .horaFin(horario.getHoraFin())
-                                    .tema(null) // Se deja vacío para que el profe lo llene luego
-                                    .seccion(seccion)
-                                    .build())
-                            .collect(Collectors.toList());
-                })
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
-
-        if (!sesionesAGenerar.isEmpty()) {
-            sesionRepository.saveAll(sesionesAGenerar);
-            logger.info(" Se generaron {} sesiones automáticas para la sección {}", sesionesAGenerar.size(), seccion.getCodigo());
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<SeccionResponseDTO> listarSeccionesPorNivelYGrado(NivelAcademico nivel, String grado) {
+        // El filtro por grado numérico se resuelve en SQL; si el texto no trae número se compara literal
+        Integer gradoNumero = GradoUtil.aNumero(grado);
+        List<Seccion> secciones = gradoNumero != null
+                ? seccionRepository.findByNivelSeccionAndGradoNumeroAndActivaTrue(nivel, gradoNumero)
+                : seccionRepository.findByNivelSeccionAndGradoSeccion(nivel, grado).stream()
+                        .filter(Seccion::getActiva)
+                        .collect(Collectors.toList());
+        return secciones.stream().map(SeccionResponseDTO::deEntidad).collect(Collectors.toList());
     }
 
+    // --- MÉTODOS PRIVADOS ---
+
     private void validarFechas(LocalDate fechaInicio, LocalDate fechaFin) {
         if (fechaInicio == null || fechaFin == null) throw new ValidacionException("Las fechas son obligatorias");
         if (fechaInicio.isAfter(fechaFin)) throw new ValidacionException("Inicio no puede ser después del fin");
@@ -325,10 +348,69 @@ public class ServicioSeccionImpl implements ServicioSeccion {
                 .orElseThrow(() -> new RecursoNoEncontradoException("Profesor no encontrado con DNI: " + dni)).getUsuario();
     }
 
+    /**
+     * Aula registrada de la petición (null si la sección usa texto libre o ninguna).
+     * Debe estar activa, salvo que la sección ya la tuviera, y tener aforo para la capacidad pedida.
+     */
+    private Aula resolverAula(SeccionRequestDTO request, Aula aulaActual) {
+        if (request.getAulaId() == null) {
+            return null;
+        }
+        Aula aula = aulaRepository.findById(request.getAulaId())
+                .orElseThrow(() -> new RecursoNoEncontradoException("Aula no encontrada con id: " + request.getAulaId()));
+        boolean esLaActual = aulaActual != null && aulaActual.getId().equals(aula.getId());
+        if (!aula.getActiva() && !esLaActual) {
+            throw new ValidacionException("El aula " + aula.getCodigo() + " está desactivada");
+        }
+        if (request.getCapacidad() > aula.getCapacidad()) {
+            throw new ValidacionException(String.format("La capacidad de la sección (%d) supera el aforo del aula %s (%d)",
+                    request.getCapacidad(), aula.getCodigo(), aula.getCapacidad()));
+        }
+        return aula;
+    }
+
+    /**
+     * Reserva el aula de la sección para sus horarios, o la libera si no tiene aula o está inactiva.
+     * Si otra sección ya ocupa el aula en esas horas, se lanza la validación (y la transacción se revierte).
+     */
+    private void reservarAula(Seccion seccion) {
+        Aula aula = seccion.getAulaAsignada();
+        if (aula == null || !seccion.getActiva()) {
+            ocupacionAulasService.liberar(seccion.getId());
+            return;
+        }
+        List<CruceHorariosService.Intervalo> horarios = seccion.getHorarios().stream()
+                .map(CruceHorariosService.Intervalo::deHorario)
+                .collect(Collectors.toList());
+        List<CruceHorariosService.Conflicto> conflictos = ocupacionAulasService.reservar(aula.getId(), seccion.getId(), horarios);
+        if (!conflictos.isEmpty()) {
+            Map<Long, String> codigos = seccionRepository.findAllById(conflictos.stream()
+                            .map(c -> c.ocupado().seccionId()).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(Seccion::getId, Seccion::getCodigo));
+            throw new ValidacionException("El aula " + aula.getCodigo() + " ya está ocupada: " + conflictos.stream()
+                    .map(c -> c.getDescripcion() + " (sección " + codigos.get(c.ocupado().seccionId()) + ")")
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
     private String generarCodigoUnico() {
         return "SEC-" + System.currentTimeMillis();
     }
 
+    // Misma lista de franjas (día, inicio, fin) sin importar el orden
+    private static boolean mismosHorarios(List<Horario> actuales, List<HorarioDTO> nuevos) {
+        if (actuales.size() != nuevos.size()) {
+            return false;
+        }
+        Map<CruceHorariosService.Intervalo, Long> franjas = actuales.stream()
+                .collect(Collectors.groupingBy(h -> new CruceHorariosService.Intervalo(
+                        h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin(), null), Collectors.counting()));
+        Map<CruceHorariosService.Intervalo, Long> nuevas = nuevos.stream()
+                .collect(Collectors.groupingBy(h -> new CruceHorariosService.Intervalo(
+                        h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin(), null), Collectors.counting()));
+        return franjas.equals(nuevas);
+    }
+
     private void validarHorarios(List<HorarioDTO> horarios) {
         for (HorarioDTO h : horarios) {
             if (!h.isHoraValida()) throw new ValidacionException("Horario inválido: inicio > fin en " + h.getDiaSemana());
@@ -336,11 +418,14 @@ public class ServicioSeccionImpl implements ServicioSeccion {
     }
 
     private void validarCruceHorariosProfesor(Long profesorId, List<HorarioDTO> horariosNuevos, Long seccionIdIgnorar) {
-        long idIgnorar = (seccionIdIgnorar == null) ? -1L : seccionIdIgnorar;
         for (HorarioDTO h : horariosNuevos) {
             if (!h.isHoraValida()) throw new ValidacionException("Horario inválido");
-            boolean hayCruce = horarioRepository.existeCruceProfesor(profesorId, h.getDiaSemana(), h.getHoraInicio(), h.getHoraFin(), idIgnorar);
-            if (hayCruce) throw new ValidacionException("El profesor ya tiene clase el " + h.getDiaSemana() + " en ese horario");
+        }
+        // Una sola consulta con los horarios del profesor; se informan todos los cruces
+        List<ConflictoHorarioDTO> conflictos = cruceHorariosService.conflictosProfesor(profesorId, horariosNuevos, seccionIdIgnorar);
+        if (!conflictos.isEmpty()) {
+            throw new ValidacionException("Cruces de horario: " + conflictos.stream()
+                    .map(ConflictoHorarioDTO::getDescripcion).collect(Collectors.joining("; ")));
         }
     }
 
@@ -349,8 +434,132 @@ public class ServicioSeccionImpl implements ServicioSeccion {
     @Transactional(readOnly = true)
     public List<SeccionResponseDTO> listarSeccionesPorHorario(DayOfWeek dia, LocalTime hora) {
         logger.info("Buscando secciones activas para el día {} a las {}", dia, hora);
-        return seccionRepository.findByHorarioActivo(dia, hora).stream()
+        // Qué secciones: índice en memoria. Sus datos completos: una consulta por id (sin recorrer horarios)
+        List<Long> ids = horariosEnCursoService.enCurso(dia, hora).stream()
+                .map(SeccionEnCursoDTO::getSeccionId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Seccion> porId = seccionRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Seccion::getId, s -> s));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
                 .map(SeccionResponseDTO::deEntidad)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<SeccionEnCursoDTO> listarClasesEnCurso(DayOfWeek dia, LocalTime hora) {
+        return horariosEnCursoService.enCurso(dia, hora);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BusquedaSeccionesResponseDTO buscarSecciones(BusquedaSeccionDTO filtros) {
+        if (filtros.getOrden() == null) {
+            filtros.setOrden(OrdenSeccion.CODIGO);
+        }
+        if (filtros.getHoraHasta() != null && filtros.getHoraDesde() == null) {
+            throw new ValidacionException("'horaHasta' requiere 'horaDesde'");
+        }
+        if (filtros.getHoraDesde() != null && filtros.getHoraHasta() != null
+                && !filtros.getHoraHasta().isAfter(filtros.getHoraDesde())) {
+            throw new ValidacionException("'horaHasta' debe ser posterior a 'horaDesde'");
+        }
+        int tamano = filtros.getTamano() == null ? TAMANO_BUSQUEDA_DEFECTO
+                : Math.max(1, Math.min(filtros.getTamano(), TAMANO_BUSQUEDA_MAXIMO));
+
+        Integer gradoNumero = null;
+        if (filtros.getGrado() != null && !filtros.getGrado().isBlank()) {
+            gradoNumero = GradoUtil.aNumero(filtros.getGrado());
+            if (gradoNumero == null) {
+                throw new ValidacionException("Grado no válido: " + filtros.getGrado());
+            }
+        }
+
+        Comparable<?> valorCursor = null;
+        Long idCursor = null;
+        if (filtros.getCursor() != null && !filtros.getCursor().isBlank()) {
+            String[] partes = leerCursor(filtros);
+            valorCursor = valorDeCursor(filtros.getOrden(), partes[1]);
+            idCursor = Long.valueOf(partes[2]);
+        }
+
+        // Se pide una fila de más para saber si hay otra página
+        List<Seccion> secciones = busquedaSeccionRepository.buscar(filtros, gradoNumero, valorCursor, idCursor, tamano + 1);
+        boolean hayMas = secciones.size() > tamano;
+        if (hayMas) {
+            secciones = secciones.subList(0, tamano);
+        }
+
+        String siguienteCursor = hayMas ? escribirCursor(filtros, secciones.get(secciones.size() - 1)) : null;
+        return BusquedaSeccionesResponseDTO.builder()
+                .contenido(secciones.stream().map(SeccionResponseDTO::deEntidad).collect(Collectors.toList()))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReporteCrucesHorarioDTO validarHorariosProfesor(ValidacionHorariosRequestDTO request) {
+        validarHorarios(request.getHorarios());
+        Usuario profesor = buscarProfesorPorDni(request.getProfesorDni());
+        List<ConflictoHorarioDTO> conflictos = cruceHorariosService.conflictosProfesor(
+                profesor.getId(), request.getHorarios(), request.getSeccionId());
+        return ReporteCrucesHorarioDTO.builder()
+                .sinCruces(conflictos.isEmpty())
+                .conflictos(conflictos)
+                .build();
+    }
+
+    // ==================== CURSOR DE BÚSQUEDA ====================
+    // Formato (Base64 URL): "ORDEN:ASC|valor|id". El orden va dentro para rechazar un cursor
+    // reutilizado con otro orden, donde el valor guardado no tendría sentido.
+
+    private static String escribirCursor(BusquedaSeccionDTO filtros, Seccion ultima) {
+        String valor = switch (filtros.getOrden()) {
+            case CODIGO -> ultima.getCodigo();
+            case NOMBRE -> ultima.getNombre();
+            case FECHA_INICIO -> ultima.getFechaInicio().toString();
+            case CUPOS_DISPONIBLES -> String.valueOf(ultima.getCapacidad() - ultima.getMatriculadosActivos());
+        };
+        String texto = prefijoCursor(filtros) + "|" + valor + "|" + ultima.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // [prefijo, valor, id]; el valor puede contener '|', así que se corta por el primero y el último
+    private static String[] leerCursor(BusquedaSeccionDTO filtros) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(filtros.getCursor()), StandardCharsets.UTF_8);
+            int primero = texto.indexOf('|');
+            int ultimo = texto.lastIndexOf('|');
+            if (primero < 0 || primero == ultimo || !texto.substring(0, primero).equals(prefijoCursor(filtros))) {
+                throw new ValidacionException("Cursor inválido o de otro orden");
+            }
+            String id = texto.substring(ultimo + 1);
+            Long.parseLong(id);
+            return new String[]{texto.substring(0, primero), texto.substring(primero + 1, ultimo), id};
+        } catch (IllegalArgumentException e) {
+            throw new ValidacionException("Cursor inválido");
+        }
+    }
+
+    private static Comparable<?> valorDeCursor(OrdenSeccion orden, String valor) {
+        try {
+            return switch (orden) {
+                case CODIGO, NOMBRE -> valor;
+                case FECHA_INICIO -> LocalDate.parse(valor);
+                case CUPOS_DISPONIBLES -> Integer.valueOf(valor);
+            };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidacionException("Cursor inválido");
+        }
+    }
+
+    private static String prefijoCursor(BusquedaSeccionDTO filtros) {
+        return filtros.getOrden().name() + ":" + (filtros.isDescendente() ? "DESC" : "ASC");
+    }
+}
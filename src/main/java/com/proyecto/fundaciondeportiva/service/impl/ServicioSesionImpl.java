@@ -1,21 +1,42 @@
 package com.proyecto.fundaciondeportiva.service.impl;
 
 import com.proyecto.fundaciondeportiva.dto.request.SesionUpdateDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaSesionesDTO;
+import com.proyecto.fundaciondeportiva.dto.response.RecursoDTO;
 import com.proyecto.fundaciondeportiva.dto.response.SesionDTO;
 import com.proyecto.fundaciondeportiva.exception.RecursoNoEncontradoException;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.Recurso;
 import com.proyecto.fundaciondeportiva.model.entity.Sesion;
+import com.proyecto.fundaciondeportiva.repository.RecursoRepository;
 import com.proyecto.fundaciondeportiva.repository.SesionRepository;
 import com.proyecto.fundaciondeportiva.service.ServicioSesion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 public class ServicioSesionImpl implements ServicioSesion {
 
+    public static final int TAMANO_PAGINA_POR_DEFECTO = 50;
+    public static final int TAMANO_PAGINA_MAXIMO = 200;
+
     @Autowired
     private SesionRepository sesionRepository;
 
+    @Autowired
+    private RecursoRepository recursoRepository;
+
     @Override
     @Transactional
     public SesionDTO actualizarInfoSesion(Long id, SesionUpdateDTO request) {
@@ -35,4 +56,77 @@ public class ServicioSesionImpl implements ServicioSesion {
         Sesion sesionGuardada = sesionRepository.save(sesion);
         return SesionDTO.deEntidad(sesionGuardada);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SesionDTO> listarSesionesDeSeccion(Long seccionId, LocalDate desde, LocalDate hasta, boolean resumen) {
+        validarRango(desde, hasta);
+        List<Sesion> sesiones = sesionRepository.findDeSeccion(seccionId, desde, hasta, null, null, Pageable.unpaged());
+        return aDTOs(sesiones, resumen);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaSesionesDTO paginarSesionesDeSeccion(Long seccionId, LocalDate desde, LocalDate hasta,
+                                                      String despuesDe, Integer tamano, boolean resumen) {
+        validarRango(desde, hasta);
+        int limite = tamano == null ? TAMANO_PAGINA_POR_DEFECTO : Math.min(Math.max(tamano, 1), TAMANO_PAGINA_MAXIMO);
+
+        LocalDateTime cursor = null;
+        if (despuesDe != null && !despuesDe.isBlank()) {
+            try {
+                cursor = LocalDateTime.parse(despuesDe);
+            } catch (DateTimeParseException e) {
+                throw new ValidacionException("Cursor de sesiones inválido: " + despuesDe);
+            }
+        }
+
+        // Se pide una de más para saber si hay otra página sin contar el total
+        List<Sesion> sesiones = new ArrayList<>(sesionRepository.findDeSeccion(seccionId, desde, hasta,
+                cursor != null ? cursor.toLocalDate() : null,
+                cursor != null ? cursor.toLocalTime() : null,
+                PageRequest.of(0, limite + 1)));
+        boolean hayMas = sesiones.size() > limite;
+        if (hayMas) {
+            sesiones = sesiones.subList(0, limite);
+        }
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            Sesion ultima = sesiones.get(sesiones.size() - 1);
+            siguienteCursor = LocalDateTime.of(ultima.getFecha(), ultima.getHoraInicio()).toString();
+        }
+
+        return PaginaSesionesDTO.builder()
+                .contenido(aDTOs(sesiones, resumen))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && hasta.isBefore(desde)) {
+            throw new ValidacionException("La fecha 'hasta' no puede ser anterior a 'desde'");
+        }
+    }
+
+    // Los recursos de todas las sesiones se traen en una sola consulta, no uno por sesión
+    private List<SesionDTO> aDTOs(List<Sesion> sesiones, boolean resumen) {
+        if (resumen || sesiones.isEmpty()) {
+            return sesiones.stream()
+                    .map(sesion -> SesionDTO.deEntidad(sesion, resumen ? null : new ArrayList<>()))
+                    .collect(Collectors.toList());
+        }
+
+        Map<Long, List<RecursoDTO>> recursosPorSesion = recursoRepository
+                .findBySesionIdIn(sesiones.stream().map(Sesion::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.groupingBy(recurso -> recurso.getSesion().getId(),
+                        Collectors.mapping(RecursoDTO::deEntidad, Collectors.toList())));
+
+        return sesiones.stream()
+                .map(sesion -> SesionDTO.deEntidad(sesion,
+                        recursosPorSesion.getOrDefault(sesion.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.proyecto.fundaciondeportiva.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza el grado escrito a mano ("3º grado", "3ro", "3", "Tercero") a su número.
+ * Se usa al guardar alumnos y secciones para llenar la columna 'grado_numero'.
+ */
+public final class GradoUtil {
+
+    private static final Pattern NUMERO = Pattern.compile("\\d+");
+    private static final Pattern PALABRA = Pattern.compile("\\p{L}+");
+
+    // Ordinales escritos con letras (primaria llega a sexto, secundaria a quinto)
+    private static final Map<String, Integer> ORDINALES = Map.of(
+            "primero", 1, "primer", 1,
+            "segundo", 2,
+            "tercero", 3, "tercer", 3,
+            "cuarto", 4,
+            "quinto", 5,
+            "sexto", 6);
+
+    private GradoUtil() {
+    }
+
+    /**
+     * Primer número que aparece en el texto; si no hay, el primer ordinal escrito con letras.
+     * Null si no hay ninguno de los dos.
+     */
+    public static Integer aNumero(String textoGrado) {
+        if (textoGrado == null) {
+            return null;
+        }
+        Matcher m = NUMERO.matcher(textoGrado);
+        if (m.find()) {
+            try {
+                return Integer.parseInt(m.group());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String sinTildes = Normalizer.normalize(textoGrado, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        Matcher palabras = PALABRA.matcher(sinTildes);
+        while (palabras.find()) {
+            Integer ordinal = ORDINALES.get(palabras.group());
+            if (ordinal != null) {
+                return ordinal;
+            }
+        }
+        return null;
+    }
+}
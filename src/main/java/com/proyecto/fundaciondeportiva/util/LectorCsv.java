@@ -0,0 +1,136 @@
+package com.proyecto.fundaciondeportiva.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV registro a registro, para las importaciones.
+ * - El separador (';' o ',') se decide una vez con la primera línea no vacía (normalmente el encabezado)
+ * - Los valores entre comillas dobles pueden contener el separador, saltos de línea y comillas escapadas ("")
+ * - Se ignoran el BOM de UTF-8 y las líneas en blanco; los valores se devuelven sin espacios alrededor
+ */
+public final class LectorCsv implements Closeable {
+
+    private final BufferedReader reader;
+    private char separador;
+    private int lineasLeidas;
+    private int lineaRegistro;
+
+    public LectorCsv(InputStream csv) {
+        this.reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve los campos del siguiente registro, o null al llegar al final del archivo.
+     */
+    public List<String> siguiente() throws IOException {
+        String linea = siguienteLineaNoVacia();
+        if (linea == null) {
+            return null;
+        }
+        lineaRegistro = lineasLeidas;
+        if (separador == 0) {
+            separador = detectarSeparador(linea);
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        int i = 0;
+        while (true) {
+            if (i == linea.length()) {
+                if (!entreComillas) {
+                    break;
+                }
+                // Salto de línea dentro de un valor entre comillas: el registro sigue en la línea siguiente
+                String continuacion = leerLinea();
+                if (continuacion == null) {
+                    break;
+                }
+                campo.append('\n');
+                linea = continuacion;
+                i = 0;
+                continue;
+            }
+            char c = linea.charAt(i++);
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i < linea.length() && linea.charAt(i) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == separador) {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else if (c == '"' && campo.toString().isBlank()) {
+                campo.setLength(0);
+                entreComillas = true;
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Número de línea (desde 1) donde empieza el último registro devuelto.
+     */
+    public int getLinea() {
+        return lineaRegistro;
+    }
+
+    /**
+     * Separador detectado, o 0 si todavía no se leyó ningún registro.
+     */
+    public char getSeparador() {
+        return separador;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String siguienteLineaNoVacia() throws IOException {
+        String linea;
+        do {
+            linea = leerLinea();
+        } while (linea != null && linea.isBlank());
+        return linea;
+    }
+
+    private String leerLinea() throws IOException {
+        String linea = reader.readLine();
+        if (linea != null) {
+            lineasLeidas++;
+            if (lineasLeidas == 1 && linea.startsWith("\uFEFF")) {
+                linea = linea.substring(1);
+            }
+        }
+        return linea;
+    }
+
+    // ';' solo si aparece fuera de comillas: así una coma decimal entre comillas no confunde la detección
+    private static char detectarSeparador(String linea) {
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            } else if (c == ';' && !entreComillas) {
+                return ';';
+            }
+        }
+        return ',';
+    }
+}
@@ -0,0 +1,43 @@
+package com.proyecto.fundaciondeportiva.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escritura de exportaciones en NDJSON (un objeto JSON por línea) directamente sobre la respuesta.
+ * El contenedor envía el buffer a medida que se llena, así que la memoria no crece con el número de filas.
+ */
+public final class NdjsonUtil {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private NdjsonUtil() {
+    }
+
+    /**
+     * Prepara la respuesta como descarga y devuelve un consumidor que escribe cada objeto en una línea.
+     */
+    public static <T> Consumer<T> escritor(ObjectMapper objectMapper, HttpServletResponse response, String nombreArchivo)
+            throws IOException {
+        response.setContentType(MEDIA_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + nombreArchivo + "\"");
+
+        ObjectWriter writer = objectMapper.writer();
+        OutputStream out = response.getOutputStream();
+        return fila -> {
+            try {
+                out.write(writer.writeValueAsBytes(fila));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.proyecto.fundaciondeportiva.benchmark;
+
+import com.proyecto.fundaciondeportiva.model.entity.Horario;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService.SesionPlanificada;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara cómo se insertan los calendarios de 100 secciones nuevas (un periodo de 20 semanas,
+ * 5 bloques por semana: 100 sesiones por sección, 10 000 en total):
+ * - un INSERT por sesión leyendo la clave generada (lo que hace saveAll con IDENTITY)
+ * - lotes JDBC de 500 (CalendarioSesionesService)
+ *
+ * Por defecto usa H2 en memoria, donde no hay red y la diferencia es pequeña. Para medir contra MySQL
+ * se define BENCHMARK_DB_URL (y BENCHMARK_DB_USER / BENCHMARK_DB_PASSWORD) y se compara con y sin
+ * rewriteBatchedStatements=true en la URL.
+ * Ejecutar: mvn -P benchmark test-compile exec:exec -Dbenchmark.filtro=CalendarioSesiones
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarioSesionesBenchmark {
+
+    private static final int SECCIONES = 100;
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String INSERTAR =
+            "INSERT INTO benchmark_sesiones (seccion_id, fecha, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)";
+
+    private Connection conexion;
+    private List<SesionPlanificada> calendario;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        String url = System.getenv().getOrDefault("BENCHMARK_DB_URL", "jdbc:h2:mem:benchmark_sesiones;DB_CLOSE_DELAY=-1");
+        conexion = DriverManager.getConnection(url,
+                System.getenv().getOrDefault("BENCHMARK_DB_USER", "sa"),
+                System.getenv().getOrDefault("BENCHMARK_DB_PASSWORD", ""));
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS benchmark_sesiones");
+            st.execute("CREATE TABLE benchmark_sesiones (id BIGINT AUTO_INCREMENT PRIMARY KEY, seccion_id BIGINT NOT NULL, " +
+                    "tema VARCHAR(200), fecha DATE NOT NULL, hora_inicio TIME NOT NULL, hora_fin TIME NOT NULL)");
+            st.execute("CREATE INDEX idx_benchmark_sesion_seccion ON benchmark_sesiones (seccion_id)");
+        }
+
+        List<Horario> horarios = new ArrayList<>();
+        for (DayOfWeek dia : List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY)) {
+            horarios.add(Horario.builder().diaSemana(dia).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 30)).build());
+        }
+        LocalDate inicio = LocalDate.of(2025, 3, 3);
+        calendario = CalendarioSesionesService.planificar(inicio, inicio.plusWeeks(20).minusDays(1), horarios, Set.of());
+    }
+
+    // Cada invocación parte de la tabla vacía, como al abrir un periodo
+    @Setup(Level.Invocation)
+    public void vaciar() throws SQLException {
+        try (Statement st = conexion.createStatement()) {
+            st.execute("TRUNCATE TABLE benchmark_sesiones");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS benchmark_sesiones");
+        }
+        conexion.close();
+    }
+
+    @Benchmark
+    public long unInsertPorSesion() throws SQLException {
+        long ultimoId = 0;
+        try (PreparedStatement ps = conexion.prepareStatement(INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+            for (long seccion = 1; seccion <= SECCIONES; seccion++) {
+                for (SesionPlanificada sesion : calendario) {
+                    asignar(ps, seccion, sesion);
+                    ps.executeUpdate();
+                    try (ResultSet claves = ps.getGeneratedKeys()) {
+                        claves.next();
+                        ultimoId = claves.getLong(1);
+                    }
+                }
+            }
+        }
+        return ultimoId;
+    }
+
+    @Benchmark
+    public int lotesJdbc() throws SQLException {
+        int insertadas = 0;
+        try (PreparedStatement ps = conexion.prepareStatement(INSERTAR)) {
+            for (long seccion = 1; seccion <= SECCIONES; seccion++) {
+                int enLote = 0;
+                for (SesionPlanificada sesion : calendario) {
+                    asignar(ps, seccion, sesion);
+                    ps.addBatch();
+                    if (++enLote == TAMANO_LOTE) {
+                        insertadas += ps.executeBatch().length;
+                        enLote = 0;
+                    }
+                }
+                // Como en la aplicación: cada sección se inserta en su propia llamada
+                if (enLote > 0) {
+                    insertadas += ps.executeBatch().length;
+                }
+            }
+        }
+        return insertadas;
+    }
+
+    private static void asignar(PreparedStatement ps, long seccionId, SesionPlanificada sesion) throws SQLException {
+        ps.setLong(1, seccionId);
+        ps.setDate(2, Date.valueOf(sesion.fecha()));
+        ps.setTime(3, Time.valueOf(sesion.horaInicio()));
+        ps.setTime(4, Time.valueOf(sesion.horaFin()));
+    }
+}
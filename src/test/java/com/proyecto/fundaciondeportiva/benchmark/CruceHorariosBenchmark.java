@@ -0,0 +1,152 @@
+package com.proyecto.fundaciondeportiva.benchmark;
+
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService.Intervalo;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la validación de cruces de horario de un alumno:
+ * - una consulta por horario candidato (como hacía existeCruceAlumno)
+ * - una consulta con todos los horarios del alumno + barrido en memoria (CruceHorariosService)
+ *
+ * Usa H2 en memoria con el mismo esquema de horarios/matrículas.
+ * Ejecutar: mvn -P benchmark test-compile exec:exec -Dbenchmark.filtro=CruceHorarios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CruceHorariosBenchmark {
+
+    private static final int SECCIONES = 2000;
+    private static final int ALUMNOS = 2000;
+    private static final int MATRICULAS_POR_ALUMNO = 8;
+
+    private static final String CRUCE_POR_HORARIO =
+            "SELECT COUNT(*) FROM horarios h WHERE h.seccion_id IN (" +
+            "  SELECT m.seccion_id FROM matriculas m WHERE m.alumno_id = ? AND m.estado = 'ACTIVA') " +
+            "AND h.dia_semana = ? AND h.hora_inicio < ? AND h.hora_fin > ?";
+
+    private static final String HORARIOS_DEL_ALUMNO =
+            "SELECT h.seccion_id, h.dia_semana, h.hora_inicio, h.hora_fin FROM horarios h WHERE h.seccion_id IN (" +
+            "  SELECT m.seccion_id FROM matriculas m WHERE m.alumno_id = ? AND m.estado = 'ACTIVA')";
+
+    // Horarios de la sección en la que el alumno intenta matricularse
+    @Param({"2", "5"})
+    private int horariosCandidatos;
+
+    private Connection conexion;
+    private PreparedStatement cruce;
+    private PreparedStatement horariosAlumno;
+    private List<Intervalo> candidatos;
+    private List<Intervalo> ocupadosPrecargados;
+    private long alumnoId;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        conexion = DriverManager.getConnection("jdbc:h2:mem:benchmark_cruces;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            st.execute("CREATE TABLE horarios (id BIGINT AUTO_INCREMENT PRIMARY KEY, seccion_id BIGINT NOT NULL, " +
+                    "dia_semana VARCHAR(10) NOT NULL, hora_inicio TIME NOT NULL, hora_fin TIME NOT NULL)");
+            st.execute("CREATE INDEX idx_seccion_dia ON horarios (seccion_id, dia_semana)");
+            st.execute("CREATE TABLE matriculas (id BIGINT AUTO_INCREMENT PRIMARY KEY, alumno_id BIGINT NOT NULL, " +
+                    "seccion_id BIGINT NOT NULL, estado VARCHAR(20) NOT NULL)");
+            st.execute("CREATE INDEX idx_matricula_alumno ON matriculas (alumno_id)");
+        }
+
+        Random random = new Random(42);
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO horarios (seccion_id, dia_semana, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)")) {
+            for (long seccion = 1; seccion <= SECCIONES; seccion++) {
+                for (int i = 0; i < 3; i++) {
+                    LocalTime inicio = LocalTime.of(7 + random.nextInt(10), 0);
+                    ps.setLong(1, seccion);
+                    ps.setString(2, DayOfWeek.of(1 + random.nextInt(5)).name());
+                    ps.setTime(3, Time.valueOf(inicio));
+                    ps.setTime(4, Time.valueOf(inicio.plusMinutes(90)));
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO matriculas (alumno_id, seccion_id, estado) VALUES (?, ?, 'ACTIVA')")) {
+            for (long alumno = 1; alumno <= ALUMNOS; alumno++) {
+                for (int i = 0; i < MATRICULAS_POR_ALUMNO; i++) {
+                    ps.setLong(1, alumno);
+                    ps.setLong(2, 1 + random.nextInt(SECCIONES));
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+
+        cruce = conexion.prepareStatement(CRUCE_POR_HORARIO);
+        horariosAlumno = conexion.prepareStatement(HORARIOS_DEL_ALUMNO);
+        alumnoId = 1 + random.nextInt(ALUMNOS);
+
+        candidatos = new ArrayList<>();
+        for (int i = 0; i < horariosCandidatos; i++) {
+            LocalTime inicio = LocalTime.of(7 + random.nextInt(10), 30);
+            candidatos.add(new Intervalo(DayOfWeek.of(1 + i % 5), inicio, inicio.plusMinutes(90), null));
+        }
+        ocupadosPrecargados = cargarOcupados();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public int consultaPorHorario() throws SQLException {
+        int cruces = 0;
+        for (Intervalo candidato : candidatos) {
+            cruce.setLong(1, alumnoId);
+            cruce.setString(2, candidato.dia().name());
+            cruce.setTime(3, Time.valueOf(candidato.fin()));
+            cruce.setTime(4, Time.valueOf(candidato.inicio()));
+            try (ResultSet rs = cruce.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    cruces++;
+                }
+            }
+        }
+        return cruces;
+    }
+
+    @Benchmark
+    public int unaConsultaYBarrido() throws SQLException {
+        return CruceHorariosService.buscarConflictos(cargarOcupados(), candidatos).size();
+    }
+
+    // Solo el barrido, con los horarios ya en memoria (coste de CPU del motor)
+    @Benchmark
+    public int soloBarrido() {
+        return CruceHorariosService.buscarConflictos(ocupadosPrecargados, candidatos).size();
+    }
+
+    private List<Intervalo> cargarOcupados() throws SQLException {
+        List<Intervalo> ocupados = new ArrayList<>();
+        horariosAlumno.setLong(1, alumnoId);
+        try (ResultSet rs = horariosAlumno.executeQuery()) {
+            while (rs.next()) {
+                ocupados.add(new Intervalo(DayOfWeek.valueOf(rs.getString(2)),
+                        rs.getTime(3).toLocalTime(), rs.getTime(4).toLocalTime(), rs.getLong(1)));
+            }
+        }
+        return ocupados;
+    }
+}
@@ -0,0 +1,84 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El contador materializado de cupos: la reconciliación corrige descuadres y las lecturas
+ * de cupo no tocan la colección de matrículas.
+ */
+@PruebaJpa
+@Import(ContadorCuposReconciliacion.class)
+class ContadorCuposReconciliacionTest {
+
+    @Autowired
+    private ContadorCuposReconciliacion reconciliacion;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reconciliaElContadorYLasLecturasNoCarganMatriculas() {
+        Usuario profesor = datos.profesor("profe.cupos@test.com");
+        Curso curso = datos.curso("CUR-C", "Arte", NivelAcademico.PRIMARIA, profesor);
+        Seccion seccion = seccionRepository.save(datos.seccion("SEC-C", curso, profesor).capacidad(2).build());
+
+        EstadoMatricula[] estados = {EstadoMatricula.ACTIVA, EstadoMatricula.ACTIVA, EstadoMatricula.RETIRADA};
+        for (int i = 0; i < estados.length; i++) {
+            Usuario alumno = usuarioRepository.save(Usuario.builder()
+                    .nombres("Alumno" + i).apellidos("Cupos").email("cupos" + i + "@test.com")
+                    .password("x").rol(Rol.ALUMNO).build());
+            matriculaRepository.save(Matricula.builder().alumno(alumno).seccion(seccion).estado(estados[i]).build());
+        }
+
+        // Contador descuadrado a propósito
+        jdbcTemplate.update("UPDATE secciones SET matriculados_activos = 7 WHERE id = ?", seccion.getId());
+        assertEquals(1, reconciliacion.reconciliar());
+        assertEquals(2, seccionRepository.findById(seccion.getId()).orElseThrow().getMatriculadosActivos());
+        assertEquals(0, reconciliacion.reconciliar());
+
+        // Las RETIRADAS no ocupan cupo: 2 activas de 2 => sin cupo
+        assertTrue(seccionRepository.findSeccionesConCupoDisponible().isEmpty());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            Seccion cargada = seccionRepository.findById(seccion.getId()).orElseThrow();
+            SeccionResponseDTO dto = SeccionResponseDTO.deEntidad(cargada);
+            assertEquals(2, dto.getEstudiantesMatriculados());
+            assertFalse(dto.getTieneCupo());
+            assertFalse(Hibernate.isInitialized(cargada.getMatriculas()));
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.proyecto.fundaciondeportiva.config;
+
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migración de una base creada antes de la clave única de sesiones: se quitan los duplicados sin datos,
+ * se crea la clave y se borra el índice anterior.
+ */
+@PruebaJpa
+@Import(SesionesUnicasInitializer.class)
+class SesionesUnicasInitializerTest {
+
+    private static final String INSERTAR =
+            "INSERT INTO sesiones (seccion_id, fecha, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private SesionesUnicasInitializer initializer;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void quitaLosDuplicadosSinDatosYCreaLaClaveUnica() {
+        Usuario profesor = datos.profesor("profe.sesiones@test.com");
+        Curso curso = datos.curso("CUR-SU", "Arte", NivelAcademico.PRIMARIA, profesor);
+        Long seccionId = seccionRepository.save(datos.seccion("SEC-SU", curso, profesor).build()).getId();
+
+        // Estado de una base anterior: sin clave única, con el índice viejo y sesiones repetidas
+        jdbcTemplate.execute("ALTER TABLE sesiones DROP CONSTRAINT " + Sesion.CLAVE_NATURAL);
+        jdbcTemplate.execute("CREATE INDEX idx_sesion_seccion ON sesiones (seccion_id)");
+        LocalDate lunes = LocalDate.now().plusDays(7);
+        LocalTime ocho = LocalTime.of(8, 0);
+        LocalTime diez = LocalTime.of(10, 0);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update(INSERTAR, seccionId, lunes, ocho, LocalTime.of(9, 0));
+            jdbcTemplate.update(INSERTAR, seccionId, lunes, diez, LocalTime.of(11, 0));
+        }
+        jdbcTemplate.update(INSERTAR, seccionId, lunes.plusDays(1), ocho, LocalTime.of(9, 0));
+        // La copia más nueva de las 10:00 tiene un recurso: es la que se conserva
+        Long conRecurso = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM sesiones WHERE hora_inicio = ?", Long.class, diez);
+        jdbcTemplate.update("INSERT INTO recursos (titulo, url, momento, sesion_id) VALUES ('Guía', 'http://guia', 'ANTES', ?)",
+                conRecurso);
+
+        initializer.run();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sesiones", Integer.class));
+        List<Long> deLasDiez = jdbcTemplate.queryForList("SELECT id FROM sesiones WHERE hora_inicio = ?", Long.class, diez);
+        assertEquals(List.of(conRecurso), deLasDiez);
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update(INSERTAR, seccionId, lunes, ocho, LocalTime.of(9, 30)));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_SESION_SECCION'", Integer.class));
+
+        // Una segunda ejecución no cambia nada
+        initializer.run();
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sesiones", Integer.class));
+    }
+}
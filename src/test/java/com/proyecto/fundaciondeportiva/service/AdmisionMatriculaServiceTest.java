@@ -0,0 +1,161 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.TicketAdmisionDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoTicketAdmision;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.service.impl.ServicioMatriculaImpl;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Con la apertura de matrículas en cola: cada sección se llena exactamente hasta su capacidad
+ * y los cupos se asignan en orden de llegada. Las solicitudes duplicadas reciben el mismo ticket.
+ */
+@PruebaJpa
+@Import(AdmisionMatriculaService.class)
+class AdmisionMatriculaServiceTest {
+
+    private static final int CAPACIDAD = 20;
+    private static final int SECCIONES = 3;
+    private static final int ALUMNOS = 150;
+
+    @Autowired
+    private AdmisionMatriculaService admision;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Test
+    void colasPorSeccionRespetanCapacidadYOrdenDeLlegada() throws Exception {
+        Usuario profesor = datos.profesor("profe.admision@test.com");
+
+        List<Long> secciones = new ArrayList<>();
+        for (int s = 0; s < SECCIONES; s++) {
+            // Cursos distintos para que un alumno pueda pedir varias secciones
+            Curso curso = datos.curso("CUR-A" + s, "Curso " + s, NivelAcademico.SECUNDARIA, profesor);
+            Seccion seccion = datos.seccion("SEC-A" + s, curso, profesor)
+                    .gradoSeccion("2").capacidad(CAPACIDAD).build();
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(DayOfWeek.of(s + 1)).horaInicio(LocalTime.of(10, 0)).horaFin(LocalTime.of(11, 0))
+                    .build());
+            secciones.add(seccionRepository.save(seccion).getId());
+        }
+
+        List<Long> alumnos = new ArrayList<>();
+        for (int i = 0; i < ALUMNOS; i++) {
+            alumnos.add(datos.alumno("admision" + i + "@test.com", String.format("5%07d", i), "A-" + i,
+                    NivelAcademico.SECUNDARIA, "2").getId());
+        }
+
+        // Cada alumno pide una sección; el orden de llegada es el orden de la lista
+        List<List<TicketAdmisionDTO>> porSeccion = new ArrayList<>();
+        secciones.forEach(s -> porSeccion.add(new ArrayList<>()));
+        List<Long> alumnoDeTicket = new ArrayList<>();
+        for (int i = 0; i < ALUMNOS; i++) {
+            TicketAdmisionDTO ticket = admision.solicitar(alumnos.get(i),
+                    MatriculaRequestDTO.builder().seccionId(secciones.get(i % SECCIONES)).build());
+            porSeccion.get(i % SECCIONES).add(ticket);
+            alumnoDeTicket.add(alumnos.get(i));
+        }
+
+        for (int s = 0; s < SECCIONES; s++) {
+            List<TicketAdmisionDTO> tickets = porSeccion.get(s);
+            for (int t = 0; t < tickets.size(); t++) {
+                Long alumnoId = alumnoDeTicket.get(t * SECCIONES + s);
+                TicketAdmisionDTO resuelto = admision.esperar(tickets.get(t).getTicketId(), alumnoId)
+                        .get(60, TimeUnit.SECONDS);
+                // Los primeros CAPACIDAD en llegar obtienen cupo; el resto se rechaza
+                assertEquals(t < CAPACIDAD ? EstadoTicketAdmision.ACEPTADA : EstadoTicketAdmision.RECHAZADA,
+                        resuelto.getEstado(), "Ticket " + t + " de la sección " + s);
+            }
+            assertEquals(CAPACIDAD, matriculaRepository.countMatriculasActivasBySeccionId(secciones.get(s)));
+        }
+        assertEquals(0, admision.getSolicitudesEnEspera());
+    }
+
+    @Test
+    void solicitudesDuplicadasSimultaneasRecibenElMismoTicketConsultable() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Retiene la primera solicitud en proceso para que las siguientes de la sección sigan EN_COLA
+        ServicioMatricula retenida = new ServicioMatriculaImpl() {
+            @Override
+            public MatriculaResponseDTO matricularseEnSeccion(Long alumnoId, MatriculaRequestDTO request) {
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        };
+        AdmisionMatriculaService servicio = new AdmisionMatriculaService();
+        ReflectionTestUtils.setField(servicio, "servicioMatricula", retenida);
+        ReflectionTestUtils.setField(servicio, "workers", 1);
+        ReflectionTestUtils.setField(servicio, "maximoPorSeccion", 100);
+        ReflectionTestUtils.setField(servicio, "retencionSegundos", 900L);
+        servicio.init();
+
+        ExecutorService alumnos = Executors.newFixedThreadPool(16);
+        try {
+            String primero = servicio.solicitar(1L, MatriculaRequestDTO.builder().seccionId(7L).build()).getTicketId();
+            long limite = System.currentTimeMillis() + 5000;
+            while (servicio.consultar(primero, 1L).getEstado() != EstadoTicketAdmision.PROCESANDO
+                    && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<TicketAdmisionDTO>> duplicados = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                duplicados.add(alumnos.submit(() -> {
+                    salida.await();
+                    return servicio.solicitar(2L, MatriculaRequestDTO.builder().seccionId(7L).build());
+                }));
+            }
+            salida.countDown();
+            List<TicketAdmisionDTO> recibidos = new ArrayList<>();
+            for (Future<TicketAdmisionDTO> duplicado : duplicados) {
+                recibidos.add(duplicado.get(10, TimeUnit.SECONDS));
+            }
+
+            Set<String> ids = recibidos.stream().map(TicketAdmisionDTO::getTicketId).collect(Collectors.toSet());
+            assertEquals(1, ids.size());
+            // Cada respuesta, también la de los duplicados, trae la posición real y se puede consultar
+            assertTrue(recibidos.stream().allMatch(t -> Integer.valueOf(0).equals(t.getPosicion())));
+            TicketAdmisionDTO consultado = servicio.consultar(ids.iterator().next(), 2L);
+            assertEquals(EstadoTicketAdmision.EN_COLA, consultado.getEstado());
+            assertEquals(0, consultado.getPosicion());
+            assertEquals(1, servicio.getSolicitudesEnEspera());
+        } finally {
+            liberar.countDown();
+            alumnos.shutdownNow();
+            servicio.cerrar();
+        }
+    }
+}
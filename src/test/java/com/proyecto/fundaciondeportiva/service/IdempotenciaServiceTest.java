@@ -0,0 +1,83 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reintentos y duplicados concurrentes con la misma Idempotency-Key ejecutan la operación una sola vez.
+ */
+@PruebaJpa
+@Import({IdempotenciaService.class, JacksonAutoConfiguration.class})
+class IdempotenciaServiceTest {
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Test
+    void duplicadosConcurrentesEsperanALaPrimeraEjecucion() throws Exception {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+
+        List<Future<ResponseEntity<?>>> respuestas = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            respuestas.add(pool.submit(() -> {
+                salida.await();
+                return idempotenciaService.ejecutar("clave-1", "prueba", "7", Map.of("seccionId", 3), () -> {
+                    ejecuciones.incrementAndGet();
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ResponseEntity<>(Map.of("id", 99), HttpStatus.CREATED);
+                });
+            }));
+        }
+        salida.countDown();
+        for (Future<ResponseEntity<?>> respuesta : respuestas) {
+            ResponseEntity<?> r = respuesta.get(10, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.CREATED, r.getStatusCode());
+            assertEquals(Map.of("id", 99), r.getBody());
+        }
+        pool.shutdown();
+        assertEquals(1, ejecuciones.get());
+
+        // Misma clave con otra petición: se rechaza sin ejecutar
+        assertThrows(ValidacionException.class, () -> idempotenciaService.ejecutar("clave-1", "prueba", "7",
+                Map.of("seccionId", 4), () -> ResponseEntity.ok().build()));
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void rechazosDeNegocioSeRepitenYErroresInesperadosLiberanLaClave() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ValidacionException.class, () -> idempotenciaService.ejecutar("clave-2", "prueba", "7", "x", () -> {
+                ejecuciones.incrementAndGet();
+                throw new ValidacionException("Ya estás matriculado en esta sección");
+            }));
+        }
+        assertEquals(1, ejecuciones.get());
+
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.ejecutar("clave-3", "prueba", "7", "x", () -> {
+            throw new IllegalStateException("caída de la base de datos");
+        }));
+        ResponseEntity<?> reintento = idempotenciaService.ejecutar("clave-3", "prueba", "7", "x", () -> ResponseEntity.ok("hecho"));
+        assertEquals("hecho", reintento.getBody());
+    }
+}
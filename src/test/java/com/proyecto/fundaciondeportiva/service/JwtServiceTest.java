@@ -0,0 +1,154 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.config.JwtAuthenticationFilter;
+import com.proyecto.fundaciondeportiva.config.UsuarioPrincipal;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La cache de tokens verificados: aciertos, expiración, purga cuando está llena
+ * y un solo digest del token por pasada del filtro.
+ */
+class JwtServiceTest {
+
+    private static final String SECRETO = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void crear() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRETO);
+        ReflectionTestUtils.setField(jwtService, "maxEntradasCache", 3);
+        jwtService.init();
+    }
+
+    @Test
+    void verificaUnaVezYLuegoRespondeDesdeLaCache() {
+        String token = jwtService.generateToken(new UsuarioPrincipal(7L, "alumno@test.com", Rol.ALUMNO, 2));
+
+        UsuarioPrincipal principal = jwtService.extractPrincipal(token);
+        assertEquals(7L, principal.getId());
+        assertEquals(Rol.ALUMNO, principal.getRol());
+        assertEquals(2, principal.getTokenVersion());
+        assertEquals("alumno@test.com", jwtService.extractUsername(token));
+        assertNotNull(jwtService.extractId(token));
+
+        assertEquals(1, jwtService.getFallosCache());
+        assertEquals(2, jwtService.getAciertosCache());
+        assertEquals(1, jwtService.getTamanoCache());
+
+        // Un token alterado no coincide con el cacheado y no pasa la firma
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(alterado));
+        assertEquals(1, jwtService.getTamanoCache());
+    }
+
+    @Test
+    void unTokenExpiradoNoSeSirveDesdeLaCache() throws InterruptedException {
+        String token = firmarConVida("expira@test.com", 2000);
+        assertEquals("expira@test.com", jwtService.extractUsername(token));
+        assertEquals(1, jwtService.getTamanoCache());
+
+        Thread.sleep(2100);
+        assertThrows(ExpiredJwtException.class, () -> jwtService.extractUsername(token));
+        assertEquals(0, jwtService.getTamanoCache());
+    }
+
+    @Test
+    void conLaCacheLlenaPurgaLosExpiradosYNoCrece() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            jwtService.extractUsername(firmarConVida("corto" + i + "@test.com", 2000));
+        }
+        assertEquals(3, jwtService.getTamanoCache());
+        Thread.sleep(2100);
+
+        // Primer fallo con la cache llena: se purgan los tres expirados y entra el nuevo
+        jwtService.extractUsername(jwtService.generateToken(new UsuarioPrincipal(1L, "a@test.com", Rol.ALUMNO, 0)));
+        assertEquals(1, jwtService.getTamanoCache());
+
+        jwtService.extractUsername(jwtService.generateToken(new UsuarioPrincipal(2L, "b@test.com", Rol.ALUMNO, 0)));
+        jwtService.extractUsername(jwtService.generateToken(new UsuarioPrincipal(3L, "c@test.com", Rol.ALUMNO, 0)));
+        assertEquals(3, jwtService.getTamanoCache());
+
+        // Llena con tokens vigentes: el siguiente se verifica igual pero no se cachea ni se recorre la cache
+        String extra = jwtService.generateToken(new UsuarioPrincipal(4L, "d@test.com", Rol.ALUMNO, 0));
+        assertEquals("d@test.com", jwtService.extractUsername(extra));
+        assertEquals("d@test.com", jwtService.extractUsername(extra));
+        assertEquals(3, jwtService.getTamanoCache());
+    }
+
+    @Test
+    void unaPasadaDelFiltroCalculaElDigestUnaSolaVez(@TempDir Path directorio) throws Exception {
+        RenovacionTokenService renovacion = new RenovacionTokenService();
+        ReflectionTestUtils.setField(renovacion, "jwtService", jwtService);
+        ReflectionTestUtils.setField(renovacion, "umbralRenovacion", 0.5);
+        TokenRevocacionService revocacion = new TokenRevocacionService();
+        ReflectionTestUtils.setField(revocacion, "rutaArchivo", directorio.resolve("revocados.log").toString());
+        ReflectionTestUtils.setField(revocacion, "bitsFiltro", 1 << 12);
+        revocacion.init();
+
+        UserDetailsService usuarios = email -> User.withUsername(email).password("x").roles("ALUMNO").build();
+        JwtAuthenticationFilter filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", usuarios);
+        ReflectionTestUtils.setField(filtro, "renovacionTokenService", renovacion);
+        ReflectionTestUtils.setField(filtro, "tokenRevocacionService", revocacion);
+        ReflectionTestUtils.setField(filtro, "principalLigero", false);
+
+        // Con poca vida restante la pasada también renueva: se recorren todas las comprobaciones
+        String token = firmarConVida("filtro@test.com", 60_000);
+        try {
+            for (int pasada = 1; pasada <= 2; pasada++) {
+                SecurityContextHolder.clearContext();
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/me");
+                request.setCookies(new Cookie("jwt_token", token));
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filtro.doFilter(request, response, new MockFilterChain());
+
+                assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+                assertNotNull(response.getCookie("jwt_token"), "El token debía renovarse");
+                // Cada búsqueda en la cache (acierto o fallo) es un digest del token
+                assertEquals(pasada, jwtService.getAciertosCache() + jwtService.getFallosCache());
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // La expiración del JWT se guarda en segundos: con 2 s de vida el token dura al menos 1 s
+    private static String firmarConVida(String email, long vidaMs) {
+        long ahora = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(email)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(ahora))
+                .setExpiration(new Date(ahora + vidaMs))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRETO)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
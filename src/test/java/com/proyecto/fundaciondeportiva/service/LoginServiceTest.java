@@ -0,0 +1,163 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.config.SecurityConfig;
+import com.proyecto.fundaciondeportiva.exception.DemasiadasSolicitudesException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Límites por email e IP, 429 con la cola del pool llena, purga de cubetas y rehash de BCrypt al iniciar sesión.
+ */
+class LoginServiceTest {
+
+    private static final double SIN_RECARGA = 0.000001;
+
+    private LoginService loginService;
+
+    @AfterEach
+    void cerrar() {
+        if (loginService != null) {
+            loginService.cerrar();
+        }
+    }
+
+    @Test
+    void limitaPorEmailYPorIp() {
+        loginService = crear(autenticacionInmediata(), 64, 5, SIN_RECARGA, 8, SIN_RECARGA);
+
+        for (int i = 0; i < 5; i++) {
+            loginService.autenticar("Alumno@Test.com", "x", "10.0.0.1");
+        }
+        // El email se normaliza: otra capitalización comparte la misma cubeta
+        assertThrows(DemasiadasSolicitudesException.class, () -> loginService.autenticar(" alumno@test.com", "x", "10.0.0.1"));
+
+        // La IP ya gastó 6 de sus 8 intentos (el rechazado por email también cuenta)
+        loginService.autenticar("otro@test.com", "x", "10.0.0.1");
+        loginService.autenticar("otro2@test.com", "x", "10.0.0.1");
+        assertThrows(DemasiadasSolicitudesException.class, () -> loginService.autenticar("otro3@test.com", "x", "10.0.0.1"));
+
+        // Otra IP no se ve afectada
+        loginService.autenticar("otro3@test.com", "x", "10.0.0.2");
+        assertEquals(2, loginService.getRechazadosPorLimite());
+    }
+
+    @Test
+    void respondeDemasiadasSolicitudesConLaColaLlena() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AuthenticationManager bloqueante = auth -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return auth;
+        };
+        loginService = crear(bloqueante, 1, 1000, SIN_RECARGA, 1000, SIN_RECARGA);
+        ReflectionTestUtils.setField(loginService, "esperaMaximaMs", 10_000L);
+
+        // Ocupa todos los hilos del pool y el único lugar de la cola
+        int enVuelo = Runtime.getRuntime().availableProcessors() + 1;
+        ExecutorService clientes = Executors.newFixedThreadPool(enVuelo);
+        List<Future<?>> logins = new ArrayList<>();
+        try {
+            for (int i = 0; i < enVuelo; i++) {
+                String email = "espera" + i + "@test.com";
+                logins.add(clientes.submit(() -> loginService.autenticar(email, "x", "10.0.0.1")));
+            }
+            long limite = System.currentTimeMillis() + 5000;
+            while (loginService.getColaActual() < 1 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(DemasiadasSolicitudesException.class, () -> loginService.autenticar("tarde@test.com", "x", "10.0.0.1"));
+            assertEquals(1, loginService.getRechazadosPorCola());
+
+            liberar.countDown();
+            for (Future<?> login : logins) {
+                login.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            liberar.countDown();
+            clientes.shutdownNow();
+        }
+    }
+
+    @Test
+    void purgaLasCubetasInactivasCadaCiertosIntentos() {
+        // Recarga instantánea: cada cubeta vuelve a estar llena en cuanto se usa
+        loginService = crear(autenticacionInmediata(), 64, 5, 1e12, 30, 1e12);
+
+        for (int i = 1; i < 256; i++) {
+            loginService.autenticar("rotado" + i + "@test.com", "x", "10.0.0.1");
+        }
+        assertEquals(255 + 1, loginService.getCubetasActivas());
+
+        // El intento 256 purga antes de consumir: solo quedan sus propias cubetas
+        loginService.autenticar("rotado256@test.com", "x", "10.0.0.1");
+        assertEquals(2, loginService.getCubetasActivas());
+    }
+
+    @Test
+    void reCifraElHashConCostoAntiguoAlIniciarSesion() {
+        SecurityConfig seguridad = new SecurityConfig();
+        ReflectionTestUtils.setField(seguridad, "costoBcrypt", 5);
+        PasswordEncoder encoder = seguridad.passwordEncoder();
+
+        AtomicReference<String> hashGuardado = new AtomicReference<>(new BCryptPasswordEncoder(4).encode("secreta"));
+        AtomicInteger rehashes = new AtomicInteger();
+        AuthenticationProvider proveedor = seguridad.authenticationProvider(
+                email -> User.withUsername(email).password(hashGuardado.get()).roles("ALUMNO").build(),
+                (usuario, nuevoHash) -> {
+                    rehashes.incrementAndGet();
+                    hashGuardado.set(nuevoHash);
+                    return User.withUserDetails(usuario).password(nuevoHash).build();
+                },
+                encoder);
+        loginService = crear(new ProviderManager(proveedor), 64, 5, SIN_RECARGA, 30, SIN_RECARGA);
+
+        UserDetails autenticado = (UserDetails) loginService.autenticar("alumno@test.com", "secreta", "10.0.0.1").getPrincipal();
+        assertEquals("alumno@test.com", autenticado.getUsername());
+        assertEquals(1, rehashes.get());
+        assertTrue(hashGuardado.get().startsWith("$2a$05$"));
+        assertTrue(encoder.matches("secreta", hashGuardado.get()));
+
+        // Con el costo ya actualizado no vuelve a re-cifrar
+        loginService.autenticar("alumno@test.com", "secreta", "10.0.0.1");
+        assertEquals(1, rehashes.get());
+    }
+
+    private static AuthenticationManager autenticacionInmediata() {
+        return auth -> new UsernamePasswordAuthenticationToken(auth.getPrincipal(), null, List.of());
+    }
+
+    private static LoginService crear(AuthenticationManager authenticationManager, int colaMaxima,
+                                      int capacidadEmail, double recargaEmail, int capacidadIp, double recargaIp) {
+        LoginService servicio = new LoginService();
+        ReflectionTestUtils.setField(servicio, "authenticationManager", authenticationManager);
+        ReflectionTestUtils.setField(servicio, "colaMaxima", colaMaxima);
+        ReflectionTestUtils.setField(servicio, "esperaMaximaMs", 5000L);
+        ReflectionTestUtils.setField(servicio, "capacidadPorEmail", capacidadEmail);
+        ReflectionTestUtils.setField(servicio, "recargaPorEmail", recargaEmail);
+        ReflectionTestUtils.setField(servicio, "capacidadPorIp", capacidadIp);
+        ReflectionTestUtils.setField(servicio, "recargaPorIp", recargaIp);
+        servicio.init();
+        return servicio;
+    }
+}
@@ -0,0 +1,172 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.config.UsuarioPrincipal;
+import com.proyecto.fundaciondeportiva.controller.AuthController;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Renovación deslizante: umbral, una sola firma por token aunque lleguen peticiones concurrentes,
+ * purga de las renovaciones antiguas y revocación de toda la cadena en el logout.
+ */
+class RenovacionTokenServiceTest {
+
+    private static final String SECRETO = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final UsuarioPrincipal ALUMNO = new UsuarioPrincipal(5L, "renueva@test.com", Rol.ALUMNO, 0);
+
+    @TempDir
+    Path directorio;
+
+    private JwtService jwtService;
+    private RenovacionTokenService renovacionTokenService;
+
+    @BeforeEach
+    void crear() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRETO);
+        ReflectionTestUtils.setField(jwtService, "maxEntradasCache", 1000);
+        jwtService.init();
+
+        renovacionTokenService = new RenovacionTokenService();
+        ReflectionTestUtils.setField(renovacionTokenService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(renovacionTokenService, "umbralRenovacion", 0.5);
+    }
+
+    @Test
+    void soloRenuevaBajoElUmbralYUnaVezPorToken() throws Exception {
+        String recien = jwtService.generateToken(ALUMNO);
+        assertNull(renovacionTokenService.renovarSiCorresponde(recien, ALUMNO));
+        assertEquals(1, renovacionTokenService.getRenovacionesOmitidas());
+
+        // Le quedan 5 de 15 minutos: por debajo del umbral de 0.5
+        String viejo = firmarConVida(5 * 60_000);
+        ExecutorService peticiones = Executors.newFixedThreadPool(8);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<String>> nuevos = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                nuevos.add(peticiones.submit(() -> {
+                    salida.await();
+                    return renovacionTokenService.renovarSiCorresponde(viejo, ALUMNO);
+                }));
+            }
+            salida.countDown();
+            Set<String> distintos = new HashSet<>();
+            for (Future<String> nuevo : nuevos) {
+                distintos.add(nuevo.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, distintos.size());
+            assertNotEquals(viejo, distintos.iterator().next());
+        } finally {
+            peticiones.shutdownNow();
+        }
+        assertEquals(1, renovacionTokenService.getRenovacionesRealizadas());
+        assertEquals(7, renovacionTokenService.getRenovacionesReutilizadas());
+    }
+
+    @Test
+    void purgaLasRenovacionesDeTokensYaExpirados() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            renovacionTokenService.renovarSiCorresponde(firmarConVida(2000), ALUMNO);
+        }
+        Thread.sleep(2100);
+
+        for (int i = 3; i < 255; i++) {
+            renovacionTokenService.renovarSiCorresponde(firmarConVida(5 * 60_000), ALUMNO);
+        }
+        assertEquals(255, renovacionTokenService.getRenovacionesEnMemoria());
+
+        // La renovación 256 purga las tres cuyo token original ya expiró
+        renovacionTokenService.renovarSiCorresponde(firmarConVida(5 * 60_000), ALUMNO);
+        assertEquals(253, renovacionTokenService.getRenovacionesEnMemoria());
+    }
+
+    @Test
+    void elLogoutRevocaTambienLosTokensQueSeRenovaron() {
+        TokenRevocacionService revocacion = new TokenRevocacionService();
+        ReflectionTestUtils.setField(revocacion, "rutaArchivo", directorio.resolve("revocados.log").toString());
+        ReflectionTestUtils.setField(revocacion, "bitsFiltro", 1 << 12);
+        revocacion.init();
+
+        AuthController authController = new AuthController();
+        ReflectionTestUtils.setField(authController, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authController, "tokenRevocacionService", revocacion);
+        ReflectionTestUtils.setField(authController, "renovacionTokenService", renovacionTokenService);
+
+        // Cadena: original -> renovado -> actual (umbral > 1: cualquier token se renueva)
+        ReflectionTestUtils.setField(renovacionTokenService, "umbralRenovacion", 1.1);
+        String original = jwtService.generateToken(ALUMNO);
+        String renovado = renovacionTokenService.renovarSiCorresponde(original, ALUMNO);
+        String actual = renovacionTokenService.renovarSiCorresponde(renovado, ALUMNO);
+        String otraSesion = jwtService.generateToken(ALUMNO);
+
+        assertEquals(List.of(jwtService.extractId(renovado), jwtService.extractId(original)),
+                renovacionTokenService.antecesoresDe(jwtService.extractId(actual)).stream()
+                        .map(RenovacionTokenService.Antecesor::jti).toList());
+
+        authController.logout(actual, new MockHttpServletResponse());
+
+        assertTrue(revocacion.estaRevocado(jwtService.extractId(actual)));
+        assertTrue(revocacion.estaRevocado(jwtService.extractId(renovado)));
+        assertTrue(revocacion.estaRevocado(jwtService.extractId(original)));
+        assertFalse(revocacion.estaRevocado(jwtService.extractId(otraSesion)));
+    }
+
+    @Test
+    void elLogoutConTokenExpiradoRevocaSusAntecesoresVigentes() throws InterruptedException {
+        TokenRevocacionService revocacion = new TokenRevocacionService();
+        ReflectionTestUtils.setField(revocacion, "rutaArchivo", directorio.resolve("revocados.log").toString());
+        ReflectionTestUtils.setField(revocacion, "bitsFiltro", 1 << 12);
+        revocacion.init();
+
+        AuthController authController = new AuthController();
+        ReflectionTestUtils.setField(authController, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authController, "tokenRevocacionService", revocacion);
+        ReflectionTestUtils.setField(authController, "renovacionTokenService", renovacionTokenService);
+
+        // El token presentado expira antes que el que lo precedió en la cadena
+        String vigente = jwtService.generateToken(ALUMNO);
+        String expirado = firmarConVida(2000);
+        Map<String, RenovacionTokenService.Antecesor> antecesores = antecesores();
+        antecesores.put(jwtService.extractId(expirado), new RenovacionTokenService.Antecesor(
+                jwtService.extractId(vigente), jwtService.extractExpiration(vigente).getTime()));
+        Thread.sleep(2100);
+
+        authController.logout(expirado, new MockHttpServletResponse());
+        assertTrue(revocacion.estaRevocado(jwtService.extractId(vigente)));
+
+        // Un token que no pasa la firma no revoca nada
+        authController.logout("no-es-un-jwt", new MockHttpServletResponse());
+        assertEquals(1, revocacion.getTokensRevocados());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, RenovacionTokenService.Antecesor> antecesores() {
+        return (Map<String, RenovacionTokenService.Antecesor>) ReflectionTestUtils.getField(renovacionTokenService, "antecesores");
+    }
+
+    private static String firmarConVida(long vidaMs) {
+        long ahora = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(ALUMNO.getEmail())
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(ahora))
+                .setExpiration(new Date(ahora + vidaMs))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRETO)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
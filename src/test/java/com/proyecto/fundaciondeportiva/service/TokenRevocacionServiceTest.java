@@ -0,0 +1,150 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.config.JwtAuthenticationFilter;
+import com.proyecto.fundaciondeportiva.config.UsuarioPrincipal;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lista de revocación: el filtro rechaza el token revocado, el filtro Bloom no da falsos negativos
+ * y el estado sobrevive a un reinicio descartando lo expirado al compactar.
+ */
+class TokenRevocacionServiceTest {
+
+    private static final String SECRETO = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void elFiltroRechazaUnTokenRevocado() throws Exception {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRETO);
+        ReflectionTestUtils.setField(jwtService, "maxEntradasCache", 100);
+        jwtService.init();
+        RenovacionTokenService renovacion = new RenovacionTokenService();
+        ReflectionTestUtils.setField(renovacion, "jwtService", jwtService);
+        ReflectionTestUtils.setField(renovacion, "umbralRenovacion", 0.5);
+        TokenRevocacionService revocacion = crear(directorio.resolve("revocados.log"), 1 << 12);
+
+        UserDetailsService usuarios = email -> User.withUsername(email).password("x").roles("ALUMNO").build();
+        JwtAuthenticationFilter filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filtro, "userDetailsService", usuarios);
+        ReflectionTestUtils.setField(filtro, "renovacionTokenService", renovacion);
+        ReflectionTestUtils.setField(filtro, "tokenRevocacionService", revocacion);
+        ReflectionTestUtils.setField(filtro, "principalLigero", false);
+
+        String token = jwtService.generateToken(new UsuarioPrincipal(3L, "revocado@test.com", Rol.ALUMNO, 0));
+        String otro = jwtService.generateToken(new UsuarioPrincipal(4L, "vigente@test.com", Rol.ALUMNO, 0));
+        assertEquals(HttpServletResponse.SC_OK, filtrar(filtro, token));
+
+        revocacion.revocar(jwtService.extractId(token), jwtService.extractExpiration(token).getTime());
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, filtrar(filtro, token));
+        assertEquals(HttpServletResponse.SC_OK, filtrar(filtro, otro));
+    }
+
+    @Test
+    void elFiltroBloomNoDaFalsosNegativos() {
+        // Un filtro mínimo (64 bits) se satura enseguida: da falsos positivos, nunca falsos negativos
+        TokenRevocacionService revocacion = crear(directorio.resolve("revocados.log"), 64);
+        long expiraEn = System.currentTimeMillis() + 60_000;
+        List<String> jtis = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String jti = UUID.randomUUID().toString();
+            jtis.add(jti);
+            revocacion.revocar(jti, expiraEn);
+        }
+
+        // Incluye los revocados antes de las compactaciones, que reconstruyen el filtro
+        assertTrue(jtis.stream().allMatch(revocacion::estaRevocado));
+        assertEquals(2000, revocacion.getTokensRevocados());
+        // El conjunto exacto descarta los falsos positivos del filtro
+        assertFalse(revocacion.estaRevocado(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void sobreviveAUnReinicioYDescartaLosExpirados() throws Exception {
+        Path archivo = directorio.resolve("datos/revocados.log");
+        TokenRevocacionService antes = crear(archivo, 1 << 12);
+        long ahora = System.currentTimeMillis();
+        antes.revocar("largo", ahora + 60_000);
+        antes.revocar("corto", ahora + 300);
+        antes.revocar("ya-expirado", ahora - 1);
+        assertEquals(2, Files.readAllLines(archivo, StandardCharsets.UTF_8).size());
+
+        Thread.sleep(400);
+
+        // Otra instancia sobre el mismo archivo hace de reinicio: carga, purga y compacta
+        TokenRevocacionService despues = crear(archivo, 1 << 12);
+        assertTrue(despues.estaRevocado("largo"));
+        assertFalse(despues.estaRevocado("corto"));
+        assertEquals(1, despues.getTokensRevocados());
+        assertEquals(List.of("largo;" + (ahora + 60_000)), Files.readAllLines(archivo, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compactaElArchivoCadaCiertasRevocaciones() throws Exception {
+        Path archivo = directorio.resolve("revocados.log");
+        TokenRevocacionService revocacion = crear(archivo, 1 << 12);
+        long ahora = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            revocacion.revocar("corto" + i, ahora + 300);
+        }
+        Thread.sleep(400);
+        for (int i = 100; i < 255; i++) {
+            revocacion.revocar("largo" + i, System.currentTimeMillis() + 60_000);
+        }
+        assertEquals(255, Files.readAllLines(archivo, StandardCharsets.UTF_8).size());
+
+        // La revocación 256 purga los 100 expirados y reescribe el archivo solo con los vigentes
+        revocacion.revocar("largo255", System.currentTimeMillis() + 60_000);
+        assertEquals(156, revocacion.getTokensRevocados());
+        assertEquals(156, Files.readAllLines(archivo, StandardCharsets.UTF_8).size());
+        assertTrue(revocacion.estaRevocado("largo100"));
+        assertFalse(revocacion.estaRevocado("corto0"));
+    }
+
+    private static TokenRevocacionService crear(Path archivo, int bitsFiltro) {
+        TokenRevocacionService servicio = new TokenRevocacionService();
+        ReflectionTestUtils.setField(servicio, "rutaArchivo", archivo.toString());
+        ReflectionTestUtils.setField(servicio, "bitsFiltro", bitsFiltro);
+        servicio.init();
+        return servicio;
+    }
+
+    private static int filtrar(JwtAuthenticationFilter filtro, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/me");
+        request.setCookies(new Cookie("jwt_token", token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,114 @@
+package com.proyecto.fundaciondeportiva.service;
+
+import com.proyecto.fundaciondeportiva.config.JwtAuthenticationFilter;
+import com.proyecto.fundaciondeportiva.dto.output.UsuarioUpdateDTO;
+import com.proyecto.fundaciondeportiva.model.entity.Usuario;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El principal ligero (armado con los claims del token) se acepta mientras la versión del token
+ * sea la vigente, y se rechaza en cuanto una edición de credenciales la sube.
+ */
+@PruebaJpa
+@TestPropertySource(properties = {
+        "jwt.secret=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=",
+        "jwt.revocacion.archivo=target/test-data/tokens-revocados-version.log"})
+@Import({UsuarioService.class, TokenVersionService.class, JwtService.class, JwtAuthenticationFilter.class,
+        RenovacionTokenService.class, TokenRevocacionService.class, TokenVersionServiceTest.Cifrado.class})
+class TokenVersionServiceTest {
+
+    @TestConfiguration
+    static class Cifrado {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void editarElNombreNoCierraLaSesionPeroCambiarLaContrasenaSi() throws Exception {
+        Usuario alumno = datos.alumno("ana.version@test.com", "48000000", "V-1", NivelAcademico.PRIMARIA, "3");
+        String token = jwtService.generateToken(alumno);
+
+        assertEquals(HttpServletResponse.SC_OK, filtrar(token));
+
+        usuarioService.actualizarUsuario(alumno.getId(), UsuarioUpdateDTO.builder().nombres("Ana María").build());
+        assertEquals(0, usuarioRepository.findById(alumno.getId()).orElseThrow().getTokenVersion());
+        assertEquals(HttpServletResponse.SC_OK, filtrar(token));
+
+        usuarioService.actualizarUsuario(alumno.getId(), UsuarioUpdateDTO.builder().password("nueva-clave").build());
+        assertEquals(1, usuarioRepository.findById(alumno.getId()).orElseThrow().getTokenVersion());
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, filtrar(token));
+
+        // Un token emitido después de la edición sí es válido
+        assertEquals(HttpServletResponse.SC_OK,
+                filtrar(jwtService.generateToken(usuarioRepository.findById(alumno.getId()).orElseThrow())));
+
+        // Cambiar el email también invalida los tokens anteriores
+        String antesDelEmail = jwtService.generateToken(usuarioRepository.findById(alumno.getId()).orElseThrow());
+        usuarioService.actualizarUsuario(alumno.getId(), UsuarioUpdateDTO.builder().email("ana.nueva@test.com").build());
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, filtrar(antesDelEmail));
+    }
+
+    @Test
+    void unUsuarioEliminadoNoPuedeUsarSuToken() throws Exception {
+        Usuario profesor = datos.profesor("beto.version@test.com");
+        String token = jwtService.generateToken(profesor);
+        assertEquals(HttpServletResponse.SC_OK, filtrar(token));
+
+        usuarioService.eliminarUsuario(profesor.getId());
+        assertEquals(HttpServletResponse.SC_UNAUTHORIZED, filtrar(token));
+    }
+
+    private int filtrar(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/me");
+        request.setCookies(new Cookie("jwt_token", token));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtAuthenticationFilter.doFilter(request, response, new MockFilterChain());
+        if (response.getStatus() == HttpServletResponse.SC_OK) {
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        }
+        return response.getStatus();
+    }
+}
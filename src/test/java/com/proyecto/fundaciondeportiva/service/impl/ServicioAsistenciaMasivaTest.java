@@ -0,0 +1,210 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.RegistroAsistenciaDTO;
+import com.proyecto.fundaciondeportiva.dto.request.RegistroAsistenciaDTO.DetalleAsistenciaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.RegistroAsistenciaResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoAsistencia;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.*;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La hoja de asistencia se guarda con un upsert: las filas válidas se insertan o actualizan,
+ * las demás se reportan, y dos guardados simultáneos de la misma hoja no chocan.
+ * En sesiones pasadas también se acepta a quien ya completó o reprobó la sección.
+ */
+@PruebaJpa
+class ServicioAsistenciaMasivaTest {
+
+    private static final int ALUMNOS = 40;
+
+    @Autowired
+    private ServicioAsistenciaImpl servicioAsistencia;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private SesionRepository sesionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private AsistenciaRepository asistenciaRepository;
+
+    private Seccion seccion;
+    private Long sesionId;
+    private final List<Long> alumnos = new ArrayList<>();
+    private Long alumnoRetirado;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.asistencia@test.com");
+        Curso curso = datos.curso("CUR-AS", "Lenguaje", NivelAcademico.PRIMARIA, profesor);
+        seccion = seccionRepository.save(datos.seccion("SEC-AS", curso, profesor)
+                .gradoSeccion("4").capacidad(ALUMNOS + 1).build());
+        sesionId = sesionRepository.save(Sesion.builder()
+                .fecha(LocalDate.now()).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 0))
+                .seccion(seccion).build()).getId();
+
+        for (int i = 0; i <= ALUMNOS; i++) {
+            Usuario alumno = datos.alumno("asistencia" + i + "@test.com", String.format("6%07d", i), "AS-" + i,
+                    NivelAcademico.PRIMARIA, "4");
+            // El último se retiró: ya no debe aparecer en la hoja
+            EstadoMatricula estado = i < ALUMNOS ? EstadoMatricula.ACTIVA : EstadoMatricula.RETIRADA;
+            matriculaRepository.save(Matricula.builder().alumno(alumno).seccion(seccion).estado(estado).build());
+            if (i < ALUMNOS) {
+                alumnos.add(alumno.getId());
+            } else {
+                alumnoRetirado = alumno.getId();
+            }
+        }
+    }
+
+    @Test
+    void insertaYLuegoActualizaReportandoLasFilasRechazadas() {
+        List<DetalleAsistenciaDTO> detalles = new ArrayList<>();
+        alumnos.forEach(id -> detalles.add(detalle(id, EstadoAsistencia.PRESENTE, null)));
+        detalles.add(detalle(alumnoRetirado, EstadoAsistencia.PRESENTE, null));
+        detalles.add(detalle(alumnos.get(0), EstadoAsistencia.TARDE, null));
+        detalles.add(detalle(alumnos.get(1), null, null));
+
+        RegistroAsistenciaResponseDTO primera = servicioAsistencia.registrarAsistenciaMasiva(hoja(detalles));
+        assertEquals(ALUMNOS + 3, primera.getTotalFilas());
+        assertEquals(ALUMNOS, primera.getRegistradas());
+        assertEquals(3, primera.getRechazadas());
+        assertFalse(primera.getFilas().get(ALUMNOS).isExito());
+        assertEquals(ALUMNOS + 1, primera.getFilas().get(ALUMNOS).getFila());
+        assertEquals(ALUMNOS, asistenciaRepository.findBySesionId(sesionId).size());
+
+        // Segundo guardado de parte de la hoja: actualiza sin duplicar ni tocar al resto
+        servicioAsistencia.registrarAsistenciaMasiva(hoja(List.of(
+                detalle(alumnos.get(0), EstadoAsistencia.FALTA_JUSTIFICADA, "Cita médica"),
+                detalle(alumnos.get(1), EstadoAsistencia.TARDE, null))));
+
+        Map<Long, Asistencia> guardadas = porAlumno();
+        assertEquals(ALUMNOS, guardadas.size());
+        assertEquals(EstadoAsistencia.FALTA_JUSTIFICADA, guardadas.get(alumnos.get(0)).getEstado());
+        assertEquals("Cita médica", guardadas.get(alumnos.get(0)).getObservacion());
+        assertEquals(EstadoAsistencia.TARDE, guardadas.get(alumnos.get(1)).getEstado());
+        assertEquals(EstadoAsistencia.PRESENTE, guardadas.get(alumnos.get(2)).getEstado());
+    }
+
+    @Test
+    void dosGuardadosSimultaneosDeLaMismaHojaNoChocan() throws Exception {
+        List<DetalleAsistenciaDTO> presentes = alumnos.stream()
+                .map(id -> detalle(id, EstadoAsistencia.PRESENTE, null)).collect(Collectors.toList());
+        List<DetalleAsistenciaDTO> tardes = alumnos.stream()
+                .map(id -> detalle(id, EstadoAsistencia.TARDE, null)).collect(Collectors.toList());
+
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            Future<RegistroAsistenciaResponseDTO> a = hilos.submit(() -> {
+                salida.await();
+                return servicioAsistencia.registrarAsistenciaMasiva(hoja(presentes));
+            });
+            Future<RegistroAsistenciaResponseDTO> b = hilos.submit(() -> {
+                salida.await();
+                return servicioAsistencia.registrarAsistenciaMasiva(hoja(tardes));
+            });
+            salida.countDown();
+            assertEquals(ALUMNOS, a.get(30, TimeUnit.SECONDS).getRegistradas());
+            assertEquals(ALUMNOS, b.get(30, TimeUnit.SECONDS).getRegistradas());
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        // Una fila por alumno, con el estado de alguno de los dos guardados
+        Map<Long, Asistencia> guardadas = porAlumno();
+        assertEquals(ALUMNOS, guardadas.size());
+        assertTrue(guardadas.values().stream()
+                .allMatch(a -> a.getEstado() == EstadoAsistencia.PRESENTE || a.getEstado() == EstadoAsistencia.TARDE));
+    }
+
+    @Test
+    void enSesionesPasadasAceptaMatriculasCompletadasOReprobadas() {
+        Long completado = alumnoConMatricula("completado", "69000001", EstadoMatricula.COMPLETADA);
+        Long reprobado = alumnoConMatricula("reprobado", "69000002", EstadoMatricula.REPROBADA);
+        Long pasadaId = sesionRepository.save(Sesion.builder()
+                .fecha(LocalDate.now().minusDays(7)).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 0))
+                .seccion(seccion).build()).getId();
+
+        // En la sesión de hoy solo cuentan las matrículas activas
+        RegistroAsistenciaResponseDTO hoy = servicioAsistencia.registrarAsistenciaMasiva(hoja(List.of(
+                detalle(alumnos.get(0), EstadoAsistencia.PRESENTE, null),
+                detalle(completado, EstadoAsistencia.PRESENTE, null))));
+        assertEquals(1, hoy.getRegistradas());
+        assertEquals("El alumno no tiene matrícula activa en esta sección", hoy.getFilas().get(1).getMensaje());
+
+        RegistroAsistenciaDTO hojaPasada = hoja(List.of(
+                detalle(alumnos.get(0), EstadoAsistencia.PRESENTE, null),
+                detalle(completado, EstadoAsistencia.TARDE, null),
+                detalle(reprobado, EstadoAsistencia.FALTA_JUSTIFICADA, "Corrección"),
+                detalle(alumnoRetirado, EstadoAsistencia.PRESENTE, null)));
+        hojaPasada.setSesionId(pasadaId);
+        RegistroAsistenciaResponseDTO pasada = servicioAsistencia.registrarAsistenciaMasiva(hojaPasada);
+        assertEquals(3, pasada.getRegistradas());
+        assertFalse(pasada.getFilas().get(3).isExito(), "Una matrícula retirada sigue sin aceptarse");
+        assertEquals(3, asistenciaRepository.findBySesionId(pasadaId).size());
+    }
+
+    @Test
+    void usaElAliasDeFilaSoloDondeExiste() {
+        assertTrue(ServicioAsistenciaImpl.admiteAliasDeFila("MySQL", "8.0.19"));
+        assertTrue(ServicioAsistenciaImpl.admiteAliasDeFila("MySQL", "8.0.36-azure"));
+        assertTrue(ServicioAsistenciaImpl.admiteAliasDeFila("MySQL", "8.4.0"));
+        assertFalse(ServicioAsistenciaImpl.admiteAliasDeFila("MySQL", "8.0.18"));
+        assertFalse(ServicioAsistenciaImpl.admiteAliasDeFila("MySQL", "5.7.44-log"));
+        assertFalse(ServicioAsistenciaImpl.admiteAliasDeFila("MariaDB", "11.2.2"));
+        assertFalse(ServicioAsistenciaImpl.admiteAliasDeFila("H2", "2.2.224 (2023-09-17)"));
+    }
+
+    private Long alumnoConMatricula(String nombre, String dni, EstadoMatricula estado) {
+        Usuario alumno = datos.alumno(nombre + ".asistencia@test.com", dni, "AS-" + nombre,
+                NivelAcademico.PRIMARIA, "4");
+        matriculaRepository.save(Matricula.builder().alumno(alumno).seccion(seccion).estado(estado).build());
+        return alumno.getId();
+    }
+
+    private Map<Long, Asistencia> porAlumno() {
+        return asistenciaRepository.findAll().stream()
+                .collect(Collectors.toMap(a -> a.getAlumno().getId(), a -> a));
+    }
+
+    private RegistroAsistenciaDTO hoja(List<DetalleAsistenciaDTO> detalles) {
+        RegistroAsistenciaDTO hoja = new RegistroAsistenciaDTO();
+        hoja.setSesionId(sesionId);
+        hoja.setDetalles(detalles);
+        return hoja;
+    }
+
+    private static DetalleAsistenciaDTO detalle(Long alumnoId, EstadoAsistencia estado, String observacion) {
+        DetalleAsistenciaDTO detalle = new DetalleAsistenciaDTO();
+        detalle.setAlumnoId(alumnoId);
+        detalle.setEstado(estado);
+        detalle.setObservacion(observacion);
+        return detalle;
+    }
+}
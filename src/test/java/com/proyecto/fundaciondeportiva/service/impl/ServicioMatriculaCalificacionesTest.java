@@ -0,0 +1,102 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.CalificacionesSeccionRequestDTO.CalificacionAlumnoDTO;
+import com.proyecto.fundaciondeportiva.dto.response.CalificacionesSeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga de calificaciones de una sección terminada: filas válidas e inválidas en la misma petición.
+ */
+@PruebaJpa
+class ServicioMatriculaCalificacionesTest {
+
+    private static final int ALUMNOS = 40;
+
+    @Autowired
+    private ServicioMatriculaImpl servicioMatricula;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cargaDeLaSeccionAplicaLasValidasYReportaLasDemas() {
+        Usuario profesor = datos.profesor("profe.notas@test.com");
+        Curso curso = datos.curso("CUR-N", "Historia", NivelAcademico.PRIMARIA, profesor);
+        Long seccionId = seccionRepository.save(datos.seccion("SEC-N", curso, profesor)
+                .gradoSeccion("5").capacidad(ALUMNOS)
+                .fechaInicio(LocalDate.now().minusMonths(4)).fechaFin(LocalDate.now().minusDays(1))
+                .build()).getId();
+
+        List<Long> matriculas = new ArrayList<>();
+        for (int i = 0; i < ALUMNOS; i++) {
+            Usuario alumno = datos.alumno("notas" + i + "@test.com", String.format("4%07d", i), "N-" + i,
+                    NivelAcademico.PRIMARIA, "5");
+            matriculas.add(matriculaRepository.save(Matricula.builder()
+                    .alumno(alumno).seccion(seccionRepository.getReferenceById(seccionId)).build()).getId());
+        }
+        jdbcTemplate.update("UPDATE secciones SET matriculados_activos = ? WHERE id = ?", ALUMNOS, seccionId);
+
+        // 38 notas válidas (la mitad aprobadas), una fuera de rango y una repetida
+        List<CalificacionAlumnoDTO> notas = new ArrayList<>();
+        for (int i = 0; i < ALUMNOS - 2; i++) {
+            notas.add(CalificacionAlumnoDTO.builder().matriculaId(matriculas.get(i)).calificacion(i % 2 == 0 ? 15.0 : 8.0).build());
+        }
+        notas.add(CalificacionAlumnoDTO.builder().alumno("4" + String.format("%07d", ALUMNOS - 2)).calificacion(25.0).build());
+        notas.add(CalificacionAlumnoDTO.builder().matriculaId(matriculas.get(0)).calificacion(12.0).build());
+
+        CalificacionesSeccionResponseDTO reporte = servicioMatricula.asignarCalificacionesSeccion(seccionId, notas);
+
+        assertEquals(ALUMNOS, reporte.getTotalFilas());
+        assertEquals(ALUMNOS - 2, reporte.getActualizadas());
+        assertEquals(2, reporte.getRechazadas());
+        assertFalse(reporte.getFilas().get(ALUMNOS - 1).isExito());
+        assertEquals(EstadoMatricula.COMPLETADA, matriculaRepository.findById(matriculas.get(0)).orElseThrow().getEstado());
+        assertEquals(15.0, matriculaRepository.findById(matriculas.get(0)).orElseThrow().getCalificacionFinal());
+        assertEquals(EstadoMatricula.REPROBADA, matriculaRepository.findById(matriculas.get(1)).orElseThrow().getEstado());
+        // Solo quedan ACTIVAS las dos matrículas sin nota válida, y el contador lo refleja
+        assertEquals(2, seccionRepository.findById(seccionId).orElseThrow().getMatriculadosActivos());
+
+        // El CSV usa DNI o código de estudiante y admite coma decimal con ';'
+        String csv = "dni;calificacion\n4" + String.format("%07d", ALUMNOS - 2) + ";18,5\nN-" + (ALUMNOS - 1) + ";abc\n";
+        CalificacionesSeccionResponseDTO desdeCsv = servicioMatricula.importarCalificacionesSeccion(seccionId,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, desdeCsv.getActualizadas());
+        assertEquals(1, desdeCsv.getRechazadas());
+        assertEquals(18.5, matriculaRepository.findById(matriculas.get(ALUMNOS - 2)).orElseThrow().getCalificacionFinal());
+        assertEquals(1, seccionRepository.findById(seccionId).orElseThrow().getMatriculadosActivos());
+
+        // Con ',' como separador la coma decimal va entre comillas
+        String conComas = "codigo,calificacion\nN-" + (ALUMNOS - 1) + ",\"12,5\"\n";
+        CalificacionesSeccionResponseDTO desdeCsvConComas = servicioMatricula.importarCalificacionesSeccion(seccionId,
+                new ByteArrayInputStream(conComas.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, desdeCsvConComas.getActualizadas());
+        assertEquals(12.5, matriculaRepository.findById(matriculas.get(ALUMNOS - 1)).orElseThrow().getCalificacionFinal());
+    }
+}
@@ -0,0 +1,98 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.MatriculaRequestDTO;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de estrés: cientos de alumnos se matriculan a la vez en la misma sección
+ * y nunca se supera la capacidad.
+ */
+@PruebaJpa
+class ServicioMatriculaConcurrenciaTest {
+
+    private static final int CAPACIDAD = 30;
+    private static final int ALUMNOS = 300;
+
+    @Autowired
+    private ServicioMatriculaImpl servicioMatricula;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Test
+    void matriculasConcurrentesNoSuperanLaCapacidad() throws Exception {
+        Usuario profesor = datos.profesor("profe@test.com");
+        Curso curso = datos.curso("CUR-1", "Matemática", NivelAcademico.PRIMARIA, profesor);
+        Seccion seccion = datos.seccion("SEC-1", curso, profesor)
+                .gradoSeccion("3").capacidad(CAPACIDAD).build();
+        seccion.agregarHorario(Horario.builder()
+                .diaSemana(DayOfWeek.MONDAY).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 30))
+                .build());
+        Long seccionId = seccionRepository.save(seccion).getId();
+
+        List<Long> alumnos = new ArrayList<>();
+        for (int i = 0; i < ALUMNOS; i++) {
+            alumnos.add(datos.alumno("alumno" + i + "@test.com", String.format("%08d", i), "E-" + i,
+                    NivelAcademico.PRIMARIA, "3º grado").getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadasPorCupo = new AtomicInteger();
+        List<Throwable> errores = new CopyOnWriteArrayList<>();
+
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Long alumnoId : alumnos) {
+            tareas.add(pool.submit(() -> {
+                salida.await();
+                try {
+                    servicioMatricula.matricularseEnSeccion(alumnoId,
+                            MatriculaRequestDTO.builder().seccionId(seccionId).build());
+                    exitosas.incrementAndGet();
+                } catch (ValidacionException e) {
+                    rechazadasPorCupo.incrementAndGet();
+                } catch (Throwable t) {
+                    errores.add(t);
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(errores.isEmpty(), () -> "Errores inesperados: " + errores);
+        assertEquals(CAPACIDAD, exitosas.get());
+        assertEquals(ALUMNOS - CAPACIDAD, rechazadasPorCupo.get());
+        assertEquals(CAPACIDAD, matriculaRepository.countMatriculasActivasBySeccionId(seccionId));
+        assertEquals(CAPACIDAD, seccionRepository.findById(seccionId).orElseThrow().getMatriculadosActivos());
+    }
+}
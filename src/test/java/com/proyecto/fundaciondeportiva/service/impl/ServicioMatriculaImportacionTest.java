@@ -0,0 +1,111 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.response.ImportacionMatriculasResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ResultadoFilaImportacionDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importación de matrículas por CSV: las filas válidas se insertan aunque otras fallen,
+ * y las aceptadas antes en el mismo archivo cuentan para cupos, duplicados y cruces.
+ */
+@PruebaJpa
+class ServicioMatriculaImportacionTest {
+
+    @Autowired
+    private ServicioMatriculaImpl servicioMatricula;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Test
+    void importaLasFilasValidasYReportaLasDemas() {
+        Usuario profesor = datos.profesor("profe.importacion@test.com");
+        // SEC-IA y SEC-IB se cruzan los lunes de 9:00 a 9:30
+        Seccion llena = crearSeccion(profesor, "IA", 2, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        Seccion cruzada = crearSeccion(profesor, "IB", 10, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        Seccion libre = crearSeccion(profesor, "IC", 10, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(9, 0));
+        for (int i = 0; i < 4; i++) {
+            datos.alumno("importacion" + i + "@test.com", "7100000" + i, "IMP-" + i, NivelAcademico.PRIMARIA, "3");
+        }
+
+        String csv = """
+                dni,seccion,observaciones
+                71000000,SEC-IA
+                IMP-1,SEC-IA
+                71000002,SEC-IA
+                99999999,SEC-IC
+                71000000,SEC-IB
+                71000000,SEC-IA
+                "71000002","SEC-IC","Traslado, turno ""tarde""\"
+                71000003,SEC-NOEXISTE
+                """;
+        ImportacionMatriculasResponseDTO respuesta = servicioMatricula.importarMatriculas(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(8, respuesta.getTotalFilas());
+        assertEquals(3, respuesta.getCreadas());
+        assertEquals(5, respuesta.getRechazadas());
+
+        List<ResultadoFilaImportacionDTO> filas = respuesta.getFilas();
+        assertTrue(filas.get(0).isExito());
+        assertEquals(2, filas.get(0).getFila());
+        assertTrue(filas.get(1).isExito(), "Se acepta el código de estudiante");
+        assertRechazada(filas.get(2), "capacidad máxima");
+        assertRechazada(filas.get(3), "Alumno no encontrado");
+        assertRechazada(filas.get(4), "Conflicto de horario");
+        assertRechazada(filas.get(5), "ya está matriculado en esta sección");
+        assertTrue(filas.get(6).isExito());
+        assertRechazada(filas.get(7), "Sección no encontrada");
+
+        assertEquals(2, contador(llena));
+        assertEquals(0, contador(cruzada));
+        assertEquals(1, contador(libre));
+        assertEquals(2, matriculaRepository.countMatriculasActivasBySeccionId(llena.getId()));
+        assertEquals(0, matriculaRepository.countMatriculasActivasBySeccionId(cruzada.getId()));
+        List<Matricula> enLibre = matriculaRepository.findBySeccionId(libre.getId());
+        assertEquals(1, enLibre.size());
+        // Entre comillas, el separador y las comillas dobladas son parte del valor
+        assertEquals("Traslado, turno \"tarde\"", enLibre.get(0).getObservaciones());
+        assertEquals(3, matriculaRepository.count());
+    }
+
+    private Seccion crearSeccion(Usuario profesor, String sufijo, int capacidad,
+                                 DayOfWeek dia, LocalTime inicio, LocalTime fin) {
+        Curso curso = datos.curso("CUR-" + sufijo, "Curso " + sufijo, NivelAcademico.PRIMARIA, profesor);
+        Seccion seccion = datos.seccion("SEC-" + sufijo, curso, profesor)
+                .gradoSeccion("3").capacidad(capacidad).build();
+        seccion.agregarHorario(Horario.builder().diaSemana(dia).horaInicio(inicio).horaFin(fin).build());
+        return seccionRepository.save(seccion);
+    }
+
+    private int contador(Seccion seccion) {
+        return seccionRepository.findById(seccion.getId()).orElseThrow().getMatriculadosActivos();
+    }
+
+    private static void assertRechazada(ResultadoFilaImportacionDTO fila, String motivo) {
+        assertFalse(fila.isExito(), () -> "Fila " + fila.getFila() + " debía rechazarse");
+        assertTrue(fila.getMensaje().contains(motivo), () -> "Mensaje inesperado: " + fila.getMensaje());
+    }
+}
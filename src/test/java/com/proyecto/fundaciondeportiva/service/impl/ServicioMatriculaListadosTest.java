@@ -0,0 +1,145 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.response.MatriculaResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.PaginaCursorDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.EstadoMatricula;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.MatriculaRepository;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los listados de matrículas arman el DTO completo con un número fijo de sentencias SQL,
+ * sin importar cuántas filas devuelvan.
+ */
+@PruebaJpa
+class ServicioMatriculaListadosTest {
+
+    private static final int MATRICULAS = 500;
+    private static final int SECCIONES = 5;
+
+    @Autowired
+    private ServicioMatriculaImpl servicioMatricula;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Seccion> secciones = new ArrayList<>();
+    private Long primerAlumnoId;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.listados@test.com", "70000000");
+        Curso curso = datos.curso("CUR-L", "Ciencia", NivelAcademico.PRIMARIA, profesor);
+
+        for (int i = 0; i < SECCIONES; i++) {
+            Seccion seccion = datos.seccion("SEC-L" + i, curso, profesor)
+                    .gradoSeccion("4").capacidad(MATRICULAS).build();
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(DayOfWeek.TUESDAY).horaInicio(LocalTime.of(8 + i, 0)).horaFin(LocalTime.of(9 + i, 0))
+                    .build());
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(DayOfWeek.THURSDAY).horaInicio(LocalTime.of(8 + i, 0)).horaFin(LocalTime.of(9 + i, 0))
+                    .build());
+            secciones.add(seccionRepository.save(seccion));
+        }
+
+        for (int i = 0; i < MATRICULAS; i++) {
+            Usuario alumno = datos.alumno("listado" + i + "@test.com", String.format("6%07d", i), "L-" + i,
+                    NivelAcademico.PRIMARIA, "4");
+            if (primerAlumnoId == null) {
+                primerAlumnoId = alumno.getId();
+            }
+            matriculaRepository.save(Matricula.builder()
+                    .alumno(alumno).seccion(secciones.get(i % SECCIONES)).build());
+        }
+    }
+
+    @Test
+    void listadosUsanUnNumeroFijoDeSentencias() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        estadisticas.clear();
+        List<MatriculaResponseDTO> todas = servicioMatricula.listarTodasLasMatriculas();
+        assertEquals(MATRICULAS, todas.size());
+        assertTrue(todas.stream().allMatch(m -> m.getHorarios().size() == 2 && m.getDniProfesor() != null
+                && m.getDniAlumno() != null && m.getTituloCurso() != null));
+        assertTrue(estadisticas.getPrepareStatementCount() <= 2); // matrículas + horarios
+
+        estadisticas.clear();
+        List<MatriculaResponseDTO> deSeccion = servicioMatricula.listarAlumnosDeSeccion(secciones.get(0).getId());
+        assertEquals(MATRICULAS / SECCIONES, deSeccion.size());
+        assertTrue(estadisticas.getPrepareStatementCount() <= 3); // existsById + matrículas + horarios
+
+        estadisticas.clear();
+        List<MatriculaResponseDTO> delAlumno = servicioMatricula.listarMisMatriculas(primerAlumnoId);
+        assertEquals(1, delAlumno.size());
+        assertTrue(estadisticas.getPrepareStatementCount() <= 3);
+    }
+
+    @Test
+    void paginacionPorCursorRecorreTodoSinRepetirYExportaLoMismo() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Set<Long> vistos = new HashSet<>();
+        Long cursor = null;
+        int paginas = 0;
+        PaginaCursorDTO<MatriculaResponseDTO> pagina;
+        do {
+            estadisticas.clear();
+            pagina = servicioMatricula.listarMatriculasPaginadas(cursor, 120, EstadoMatricula.ACTIVA, null, null);
+            assertTrue(estadisticas.getPrepareStatementCount() <= 2); // página + horarios
+            assertTrue(pagina.getContenido().stream().allMatch(m -> m.getHorarios().size() == 2 && m.getDniAlumno() != null));
+            pagina.getContenido().forEach(m -> assertTrue(vistos.add(m.getId())));
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (pagina.isHayMas());
+        assertEquals(MATRICULAS, vistos.size());
+        assertEquals(5, paginas);
+        assertNull(cursor);
+
+        List<MatriculaResponseDTO> exportadas = new ArrayList<>();
+        servicioMatricula.exportarMatriculas(null, secciones.get(0).getId(), null, exportadas::add);
+        assertEquals(MATRICULAS / SECCIONES, exportadas.size());
+        assertTrue(exportadas.stream().allMatch(m -> m.getHorarios().size() == 2));
+
+        // Sin filtro de sección: los horarios llegan en el mismo cursor, sin cargar los de todas las secciones
+        exportadas.clear();
+        estadisticas.clear();
+        servicioMatricula.exportarMatriculas(null, null, null, exportadas::add);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(MATRICULAS, exportadas.size());
+        assertEquals(MATRICULAS, exportadas.stream().map(MatriculaResponseDTO::getId).distinct().count());
+        assertTrue(exportadas.stream().allMatch(m -> m.getHorarios().size() == 2
+                && m.getHorarios().get(0).getDiaSemana() == DayOfWeek.TUESDAY
+                && m.getHorarios().get(1).getDiaSemana() == DayOfWeek.THURSDAY));
+    }
+}
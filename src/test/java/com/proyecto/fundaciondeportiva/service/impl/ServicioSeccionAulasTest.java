@@ -0,0 +1,113 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.AulaRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.AulaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.OcupacionAulaDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dos secciones activas no pueden ocupar la misma aula a la misma hora; la ocupación en memoria
+ * coincide con la BD después de rechazos, desactivaciones y de reconstruirla.
+ */
+@PruebaJpa
+class ServicioSeccionAulasTest {
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private ServicioAulaImpl servicioAula;
+
+    @Autowired
+    private OcupacionAulasService ocupacionAulasService;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    private Curso curso;
+    private AulaDTO aula;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.aulas0@test.com", "75000000");
+        datos.profesor("profe.aulas1@test.com", "75000001");
+        curso = datos.curso("CUR-A", "Química", NivelAcademico.SECUNDARIA, profesor);
+        aula = servicioAula.crearAula(AulaRequestDTO.builder().codigo("LAB-1").nombre("Laboratorio").capacidad(30).build());
+    }
+
+    @Test
+    void rechazaCrucesYAforoYRespetaClasesContiguas() {
+        SeccionResponseDTO primera = servicioSeccion.crearSeccion(request("75000000", 30,
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+        assertEquals("LAB-1", primera.getAula());
+        assertEquals(aula.getId(), primera.getAulaId());
+
+        // Otro profesor, misma aula, se solapa 9:00-10:00
+        ValidacionException cruce = assertThrows(ValidacionException.class, () -> servicioSeccion.crearSeccion(request("75000001", 20,
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)))));
+        assertTrue(cruce.getMessage().contains(primera.getCodigo()));
+
+        assertThrows(ValidacionException.class, () -> servicioSeccion.crearSeccion(request("75000001", 31,
+                new HorarioDTO(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)))));
+
+        // 10:02 no cae en un múltiplo de 5: la franja compartida no debe bloquearla
+        servicioSeccion.crearSeccion(request("75000001", 20,
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(10, 2)),
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(10, 2), LocalTime.of(11, 0))));
+
+        assertTrue(ocupacionAulasService.estaLibre(aula.getId(), DayOfWeek.MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0)));
+        assertFalse(ocupacionAulasService.estaLibre(aula.getId(), DayOfWeek.MONDAY, LocalTime.of(9, 55), LocalTime.of(10, 5)));
+
+        // Al desactivar la primera su franja queda libre; al reactivarla vuelve a ocuparla
+        servicioSeccion.desactivarSeccion(primera.getId());
+        assertEquals(1, servicioAula.listarAulasDisponibles(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), 25).size());
+        servicioSeccion.activarSeccion(primera.getId());
+        assertTrue(servicioAula.listarAulasDisponibles(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), 25).isEmpty());
+    }
+
+    @Test
+    void laOcupacionReconstruidaCoincideConLaDeMemoria() {
+        servicioSeccion.crearSeccion(request("75000000", 30,
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0)),
+                new HorarioDTO(DayOfWeek.WEDNESDAY, LocalTime.of(8, 0), LocalTime.of(9, 30))));
+        assertThrows(ValidacionException.class, () -> servicioSeccion.crearSeccion(request("75000001", 20,
+                new HorarioDTO(DayOfWeek.WEDNESDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)))));
+
+        OcupacionAulaDTO antes = servicioAula.obtenerOcupacion(aula.getId());
+        assertEquals(120, antes.getMinutosPorDia().get(DayOfWeek.MONDAY));
+        assertEquals(90, antes.getMinutosPorDia().get(DayOfWeek.WEDNESDAY));
+        assertEquals(210, antes.getMinutosSemana());
+
+        assertEquals(1, ocupacionAulasService.reconstruir());
+        assertEquals(antes, servicioAula.obtenerOcupacion(aula.getId()));
+    }
+
+    private SeccionRequestDTO request(String dniProfesor, int capacidad, HorarioDTO... horarios) {
+        return SeccionRequestDTO.builder()
+                .nombre("Química A").nivelSeccion(NivelAcademico.SECUNDARIA).gradoSeccion("4")
+                .capacidad(capacidad).fechaInicio(LocalDate.now().plusDays(1)).fechaFin(LocalDate.now().plusMonths(2))
+                .cursoId(curso.getId()).profesorDni(dniProfesor)
+                .aulaId(aula.getId())
+                .horarios(List.of(horarios))
+                .build();
+    }
+}
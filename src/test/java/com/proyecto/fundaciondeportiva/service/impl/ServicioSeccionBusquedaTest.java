@@ -0,0 +1,136 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.BusquedaSeccionDTO;
+import com.proyecto.fundaciondeportiva.dto.response.BusquedaSeccionesResponseDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.model.enums.OrdenSeccion;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La búsqueda de secciones combina filtros en una consulta y recorre todas las páginas
+ * por cursor sin repetir ni saltar filas, con un número fijo de sentencias por página.
+ */
+@PruebaJpa
+class ServicioSeccionBusquedaTest {
+
+    private static final int SECCIONES = 40;
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Curso curso;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.busqueda@test.com", "71000000");
+        curso = datos.curso("CUR-B", "Arte", NivelAcademico.PRIMARIA, profesor);
+
+        // Pares: PRIMARIA 3º, lunes 08:00-09:30; impares: SECUNDARIA 1º, martes 10:00-11:30
+        for (int i = 0; i < SECCIONES; i++) {
+            boolean par = i % 2 == 0;
+            Seccion seccion = datos.seccion(String.format("SEC-B%02d", i), curso, profesor)
+                    .nivelSeccion(par ? NivelAcademico.PRIMARIA : NivelAcademico.SECUNDARIA)
+                    .gradoSeccion(par ? "3º grado" : "1")
+                    .capacidad(10)
+                    .build();
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(par ? DayOfWeek.MONDAY : DayOfWeek.TUESDAY)
+                    .horaInicio(LocalTime.of(par ? 8 : 10, 0)).horaFin(LocalTime.of(par ? 9 : 11, 30))
+                    .build());
+            Long id = seccionRepository.save(seccion).getId();
+            // Cupos disponibles repetidos (10, 9, ..., 0) para ejercitar el desempate por id
+            jdbcTemplate.update("UPDATE secciones SET matriculados_activos = ? WHERE id = ?", i % 11, id);
+        }
+    }
+
+    @Test
+    void combinaFiltrosEnUnaConsulta() {
+        BusquedaSeccionesResponseDTO resultado = servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                .nivel(NivelAcademico.PRIMARIA).grado("3")
+                .cursoId(curso.getId()).dia(DayOfWeek.MONDAY).horaDesde(LocalTime.of(9, 0))
+                .conCupo(true)
+                .build());
+
+        // Pares con matriculados_activos < 10: todos menos i = 10 y 32 (i % 11 == 10)
+        assertEquals(SECCIONES / 2 - 2, resultado.getContenido().size());
+        assertFalse(resultado.isHayMas());
+        assertNull(resultado.getSiguienteCursor());
+        assertTrue(resultado.getContenido().stream().allMatch(s -> s.getNivelSeccion() == NivelAcademico.PRIMARIA
+                && s.getCuposDisponibles() > 0 && s.getHorarios().size() == 1));
+
+        assertTrue(servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                .dia(DayOfWeek.MONDAY).horaDesde(LocalTime.of(9, 30)).build()).getContenido().isEmpty());
+        assertEquals(SECCIONES / 2, servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                .dia(DayOfWeek.TUESDAY).horaDesde(LocalTime.of(9, 0)).horaHasta(LocalTime.of(10, 30))
+                .build()).getContenido().size());
+    }
+
+    @Test
+    void cursorRecorreTodasLasPaginasEnOrden() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Set<Long> vistos = new HashSet<>();
+        List<Integer> cupos = new ArrayList<>();
+        String cursor = null;
+        BusquedaSeccionesResponseDTO pagina;
+        do {
+            estadisticas.clear();
+            pagina = servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                    .orden(OrdenSeccion.CUPOS_DISPONIBLES).descendente(true).tamano(7).cursor(cursor).build());
+            assertTrue(estadisticas.getPrepareStatementCount() <= 2); // secciones + horarios
+            for (SeccionResponseDTO s : pagina.getContenido()) {
+                assertTrue(vistos.add(s.getId()));
+                cupos.add(s.getCuposDisponibles());
+            }
+            cursor = pagina.getSiguienteCursor();
+        } while (pagina.isHayMas());
+
+        assertEquals(SECCIONES, vistos.size());
+        for (int i = 1; i < cupos.size(); i++) {
+            assertTrue(cupos.get(i - 1) >= cupos.get(i));
+        }
+    }
+
+    @Test
+    void rechazaCursorDeOtroOrden() {
+        String cursor = servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder().tamano(5).build()).getSiguienteCursor();
+        assertNotNull(cursor);
+        assertThrows(ValidacionException.class, () -> servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                .orden(OrdenSeccion.NOMBRE).cursor(cursor).build()));
+        assertThrows(ValidacionException.class, () -> servicioSeccion.buscarSecciones(BusquedaSeccionDTO.builder()
+                .cursor("no-es-un-cursor").build()));
+    }
+}
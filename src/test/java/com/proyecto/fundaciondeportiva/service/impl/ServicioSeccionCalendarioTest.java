@@ -0,0 +1,275 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.config.ExtensionVentanaSesiones;
+import com.proyecto.fundaciondeportiva.dto.request.DiaNoLectivoRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.SesionRepository;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * El calendario de sesiones de una sección se genera con una sesión por bloque horario de cada día
+ * de clase del periodo (salvo días no lectivos), y al editarla solo cambian las sesiones afectadas.
+ * Nunca hay dos sesiones de la misma sección en la misma fecha y hora de inicio.
+ */
+@PruebaJpa
+class ServicioSeccionCalendarioTest {
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SesionRepository sesionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ServicioDiaNoLectivoImpl servicioDiaNoLectivo;
+
+    @Autowired
+    private CalendarioSesionesService calendarioSesionesService;
+
+    @Autowired
+    private ExtensionVentanaSesiones extensionVentanaSesiones;
+
+    private Curso curso;
+
+    // Un periodo de 12 semanas completas, de lunes a domingo
+    private final LocalDate inicio = LocalDate.now().plusDays(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+    private final LocalDate fin = inicio.plusWeeks(12).minusDays(1);
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.calendario@test.com", "73000000");
+        curso = datos.curso("CUR-C", "Historia", NivelAcademico.SECUNDARIA, profesor);
+    }
+
+    // El contexto es compartido: las demás clases esperan el calendario completo
+    @AfterEach
+    void restaurarVentana() {
+        ReflectionTestUtils.setField(calendarioSesionesService, "ventanaSemanas", 0);
+    }
+
+    @Test
+    void generaYRegeneraElCalendario() {
+        SeccionResponseDTO seccion = servicioSeccion.crearSeccion(request(List.of(
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30)),
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(14, 0), LocalTime.of(15, 0)),
+                new HorarioDTO(DayOfWeek.THURSDAY, LocalTime.of(10, 0), LocalTime.of(11, 30)))));
+
+        List<Sesion> sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(seccion.getId());
+        assertEquals(12 * 3, sesiones.size());
+        assertEquals(inicio, sesiones.get(0).getFecha());
+        assertTrue(sesiones.stream().allMatch(s -> s.getFecha().getDayOfWeek() == DayOfWeek.MONDAY
+                || (s.getFecha().getDayOfWeek() == DayOfWeek.THURSDAY && s.getHoraInicio().equals(LocalTime.of(10, 0)))));
+
+        servicioSeccion.actualizarSeccion(seccion.getId(), request(List.of(
+                new HorarioDTO(DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(9, 30)))));
+
+        sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(seccion.getId());
+        assertEquals(12, sesiones.size());
+        assertTrue(sesiones.stream().allMatch(s -> s.getFecha().getDayOfWeek() == DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    void editarSoloTocaLasSesionesAfectadas() {
+        HorarioDTO lunes = new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        HorarioDTO jueves = new HorarioDTO(DayOfWeek.THURSDAY, LocalTime.of(10, 0), LocalTime.of(11, 30));
+        Long seccionId = servicioSeccion.crearSeccion(request(List.of(lunes, jueves))).getId();
+
+        // Una sesión ya dictada (con asistencia tomada, por ejemplo) y un recurso subido a un jueves futuro
+        jdbcTemplate.update("INSERT INTO sesiones (seccion_id, fecha, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)",
+                seccionId, LocalDate.now().minusDays(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.THURSDAY)), LocalTime.of(10, 0), LocalTime.of(11, 30));
+        Sesion juevesConRecurso = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).stream()
+                .filter(s -> s.getFecha().getDayOfWeek() == DayOfWeek.THURSDAY && !s.getFecha().isBefore(LocalDate.now()))
+                .findFirst().orElseThrow();
+        jdbcTemplate.update("INSERT INTO recursos (titulo, url, momento, sesion_id) VALUES ('Guía', 'http://guia', 'ANTES', ?)",
+                juevesConRecurso.getId());
+
+        Set<Long> idsIniciales = idsDeSesiones(seccionId);
+        Set<Long> horariosIniciales = Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT id FROM horarios WHERE seccion_id = ?", Long.class, seccionId));
+
+        // Cambiar solo el aula no toca sesiones ni horarios
+        SeccionRequestDTO soloAula = request(List.of(jueves, lunes));
+        soloAula.setAula("B-204");
+        servicioSeccion.actualizarSeccion(seccionId, soloAula);
+        assertEquals(idsIniciales, idsDeSesiones(seccionId));
+        assertEquals(horariosIniciales, Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT id FROM horarios WHERE seccion_id = ?", Long.class, seccionId)));
+
+        // Lunes termina más tarde y el jueves pasa a viernes
+        Map<Long, Sesion> antes = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).stream()
+                .collect(Collectors.toMap(Sesion::getId, s -> s));
+        servicioSeccion.actualizarSeccion(seccionId, request(List.of(
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0)),
+                new HorarioDTO(DayOfWeek.FRIDAY, LocalTime.of(10, 0), LocalTime.of(11, 30)))));
+
+        List<Sesion> despues = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId);
+        Map<DayOfWeek, List<Sesion>> porDia = despues.stream().collect(Collectors.groupingBy(s -> s.getFecha().getDayOfWeek()));
+        assertEquals(12, porDia.get(DayOfWeek.MONDAY).size());
+        assertTrue(porDia.get(DayOfWeek.MONDAY).stream()
+                .allMatch(s -> antes.containsKey(s.getId()) && s.getHoraFin().equals(LocalTime.of(10, 0))));
+        assertEquals(12, porDia.get(DayOfWeek.FRIDAY).size());
+        assertTrue(porDia.get(DayOfWeek.FRIDAY).stream().noneMatch(s -> antes.containsKey(s.getId())));
+
+        // De los jueves solo quedan la sesión pasada y la que tiene un recurso
+        Set<Long> juevesRestantes = porDia.getOrDefault(DayOfWeek.THURSDAY, List.of()).stream()
+                .map(Sesion::getId).collect(Collectors.toSet());
+        assertEquals(2, juevesRestantes.size());
+        assertTrue(juevesRestantes.contains(juevesConRecurso.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM recursos", Integer.class));
+    }
+
+    @Test
+    void respetaLosDiasNoLectivos() {
+        LocalDate feriado = inicio.plusWeeks(2);
+        servicioDiaNoLectivo.registrar(DiaNoLectivoRequestDTO.builder().fecha(feriado).motivo("Feriado").build());
+
+        HorarioDTO lunes = new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        Long seccionId = servicioSeccion.crearSeccion(request(List.of(lunes))).getId();
+        assertEquals(11, sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).size());
+        assertTrue(sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).stream().noneMatch(s -> s.getFecha().equals(feriado)));
+
+        // Un feriado nuevo quita la sesión ya generada de esa fecha; quitarlo la vuelve a crear
+        LocalDate otroFeriado = inicio.plusWeeks(5);
+        var registrado = servicioDiaNoLectivo.registrar(DiaNoLectivoRequestDTO.builder().fecha(otroFeriado).motivo("Puente").build());
+        assertEquals(1, registrado.getSesionesEliminadas());
+        assertEquals(10, sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).size());
+
+        servicioDiaNoLectivo.eliminar(registrado.getId());
+        List<Sesion> sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId);
+        assertEquals(11, sesiones.size());
+        assertTrue(sesiones.stream().anyMatch(s -> s.getFecha().equals(otroFeriado)));
+    }
+
+    @Test
+    void ventanaSoloCreaLasProximasSemanasYLaTareaLaExtiende() {
+        ReflectionTestUtils.setField(calendarioSesionesService, "ventanaSemanas", 4);
+        HorarioDTO lunes = new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        Long seccionId = servicioSeccion.crearSeccion(request(List.of(lunes))).getId();
+        assertEquals(lunesHasta(LocalDate.now().plusWeeks(4)), sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).size());
+
+        ReflectionTestUtils.setField(calendarioSesionesService, "ventanaSemanas", 8);
+        int creadas = extensionVentanaSesiones.extender();
+        assertEquals(lunesHasta(LocalDate.now().plusWeeks(8)) - lunesHasta(LocalDate.now().plusWeeks(4)), creadas);
+        assertEquals(lunesHasta(LocalDate.now().plusWeeks(8)), sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).size());
+        assertEquals(0, extensionVentanaSesiones.extender());
+    }
+
+    @Test
+    void extensionesSimultaneasNoDuplicanSesiones() throws Exception {
+        ReflectionTestUtils.setField(calendarioSesionesService, "ventanaSemanas", 4);
+        HorarioDTO lunes = new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 30));
+        Long seccionId = servicioSeccion.crearSeccion(request(List.of(lunes))).getId();
+
+        // Cuatro tareas leen la misma última fecha e insertan las mismas sesiones: la clave única deja una
+        ReflectionTestUtils.setField(calendarioSesionesService, "ventanaSemanas", 8);
+        ExecutorService tareas = Executors.newFixedThreadPool(4);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Integer>> extensiones = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                extensiones.add(tareas.submit(() -> {
+                    salida.await();
+                    return extensionVentanaSesiones.extender();
+                }));
+            }
+            salida.countDown();
+            for (Future<Integer> extension : extensiones) {
+                extension.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            tareas.shutdownNow();
+        }
+
+        assertEquals(lunesHasta(LocalDate.now().plusWeeks(8)), sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId).size());
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO sesiones (seccion_id, fecha, hora_inicio, hora_fin) VALUES (?, ?, ?, ?)",
+                seccionId, inicio, LocalTime.of(8, 0), LocalTime.of(9, 0)));
+    }
+
+    @Test
+    void editarNoTocaLasSesionesDeHoyQueYaEmpezaron() {
+        // La sesión de las 23:58 debe seguir pendiente durante la prueba
+        assumeTrue(LocalTime.now().isBefore(LocalTime.of(23, 50)));
+        LocalDate hoy = LocalDate.now();
+        DayOfWeek diaDeHoy = hoy.getDayOfWeek();
+        SeccionRequestDTO desdeHoy = request(List.of(
+                new HorarioDTO(diaDeHoy, LocalTime.of(0, 0), LocalTime.of(0, 30)),
+                new HorarioDTO(diaDeHoy, LocalTime.of(23, 58), LocalTime.of(23, 59))));
+        desdeHoy.setFechaInicio(hoy);
+        desdeHoy.setFechaFin(hoy.plusWeeks(4).minusDays(1));
+        Long seccionId = servicioSeccion.crearSeccion(desdeHoy).getId();
+        Long dictadaHoy = jdbcTemplate.queryForObject(
+                "SELECT id FROM sesiones WHERE seccion_id = ? AND fecha = ? AND hora_inicio = ?",
+                Long.class, seccionId, hoy, LocalTime.of(0, 0));
+
+        // La de las 00:00 termina más tarde y la de las 23:58 desaparece
+        desdeHoy.setHorarios(List.of(new HorarioDTO(diaDeHoy, LocalTime.of(0, 0), LocalTime.of(1, 0))));
+        servicioSeccion.actualizarSeccion(seccionId, desdeHoy);
+
+        List<Sesion> sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId);
+        assertEquals(4, sesiones.size());
+        assertEquals(dictadaHoy, sesiones.get(0).getId());
+        assertEquals(LocalTime.of(0, 30), sesiones.get(0).getHoraFin(), "La sesión ya empezada conserva su hora de fin");
+        assertTrue(sesiones.subList(1, 4).stream().allMatch(s -> s.getHoraFin().equals(LocalTime.of(1, 0))));
+
+        // Cambiar de día tampoco la borra, aunque no tenga asistencias ni recursos
+        desdeHoy.setHorarios(List.of(new HorarioDTO(diaDeHoy.plus(1), LocalTime.of(10, 0), LocalTime.of(11, 0))));
+        servicioSeccion.actualizarSeccion(seccionId, desdeHoy);
+        sesiones = sesionRepository.findBySeccionIdOrderByFechaAsc(seccionId);
+        assertEquals(dictadaHoy, sesiones.get(0).getId());
+        assertTrue(sesiones.subList(1, sesiones.size()).stream().allMatch(s -> s.getFecha().getDayOfWeek() == diaDeHoy.plus(1)));
+    }
+
+    // Lunes del periodo de la sección hasta 'limite' (inclusive)
+    private long lunesHasta(LocalDate limite) {
+        LocalDate hasta = limite.isBefore(fin) ? limite : fin;
+        return inicio.datesUntil(hasta.plusDays(1)).filter(d -> d.getDayOfWeek() == DayOfWeek.MONDAY).count();
+    }
+
+    private Set<Long> idsDeSesiones(Long seccionId) {
+        return Set.copyOf(jdbcTemplate.queryForList("SELECT id FROM sesiones WHERE seccion_id = ?", Long.class, seccionId));
+    }
+
+    private SeccionRequestDTO request(List<HorarioDTO> horarios) {
+        return SeccionRequestDTO.builder()
+                .nombre("Historia A").nivelSeccion(NivelAcademico.SECUNDARIA).gradoSeccion("2")
+                .capacidad(30).fechaInicio(inicio).fechaFin(fin)
+                .cursoId(curso.getId()).profesorDni("73000000")
+                .horarios(horarios)
+                .build();
+    }
+}
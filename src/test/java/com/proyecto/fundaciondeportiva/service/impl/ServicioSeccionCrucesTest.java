@@ -0,0 +1,109 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.request.ValidacionHorariosRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ConflictoHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.ReporteCrucesHorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La validación de cruces del profesor informa todos los choques de una vez, con el código
+ * de la sección afectada, usando una sola consulta de horarios.
+ */
+@PruebaJpa
+class ServicioSeccionCrucesTest {
+
+    private static final String DNI = "74000000";
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Curso curso;
+    private SeccionResponseDTO lunes;
+    private SeccionResponseDTO miercoles;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.cruces@test.com", DNI);
+        curso = datos.curso("CUR-X", "Física", NivelAcademico.SECUNDARIA, profesor);
+
+        lunes = servicioSeccion.crearSeccion(request(List.of(
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0)))));
+        miercoles = servicioSeccion.crearSeccion(request(List.of(
+                new HorarioDTO(DayOfWeek.WEDNESDAY, LocalTime.of(14, 0), LocalTime.of(16, 0)))));
+    }
+
+    @Test
+    void informaTodosLosCrucesConElCodigoDeLaSeccion() {
+        List<HorarioDTO> candidatos = List.of(
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                new HorarioDTO(DayOfWeek.WEDNESDAY, LocalTime.of(15, 0), LocalTime.of(17, 0)),
+                new HorarioDTO(DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                new HorarioDTO(DayOfWeek.FRIDAY, LocalTime.of(8, 30), LocalTime.of(10, 0)));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        ReporteCrucesHorarioDTO reporte = servicioSeccion.validarHorariosProfesor(
+                ValidacionHorariosRequestDTO.builder().profesorDni(DNI).horarios(candidatos).build());
+        assertTrue(estadisticas.getPrepareStatementCount() <= 3); // perfil + usuario + horarios ocupados
+
+        assertFalse(reporte.isSinCruces());
+        List<ConflictoHorarioDTO> conflictos = reporte.getConflictos();
+        assertEquals(3, conflictos.size());
+        assertEquals(lunes.getCodigo(), conflictos.get(0).getCodigoSeccion());
+        assertEquals(miercoles.getCodigo(), conflictos.get(1).getCodigoSeccion());
+        assertEquals(DayOfWeek.FRIDAY, conflictos.get(2).getDiaSemana());
+        assertNull(conflictos.get(2).getCodigoSeccion());
+
+        ValidacionException error = assertThrows(ValidacionException.class,
+                () -> servicioSeccion.crearSeccion(request(candidatos)));
+        assertTrue(error.getMessage().contains(lunes.getCodigo()));
+        assertTrue(error.getMessage().contains(miercoles.getCodigo()));
+    }
+
+    @Test
+    void alEditarNoSeCruzaConsigoMisma() {
+        List<HorarioDTO> corridos = List.of(new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 0)));
+
+        ReporteCrucesHorarioDTO reporte = servicioSeccion.validarHorariosProfesor(ValidacionHorariosRequestDTO.builder()
+                .profesorDni(DNI).seccionId(lunes.getId()).horarios(corridos).build());
+        assertTrue(reporte.isSinCruces());
+
+        servicioSeccion.actualizarSeccion(lunes.getId(), request(corridos));
+    }
+
+    private SeccionRequestDTO request(List<HorarioDTO> horarios) {
+        return SeccionRequestDTO.builder()
+                .nombre("Física A").nivelSeccion(NivelAcademico.SECUNDARIA).gradoSeccion("3")
+                .capacidad(30).fechaInicio(LocalDate.now().plusDays(1)).fechaFin(LocalDate.now().plusMonths(2))
+                .cursoId(curso.getId()).profesorDni(DNI)
+                .horarios(horarios)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.request.HorarioDTO;
+import com.proyecto.fundaciondeportiva.dto.request.SeccionRequestDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionEnCursoDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.service.HorariosEnCursoService;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El índice en memoria de clases en curso responde lo mismo que la consulta JPQL
+ * (SeccionRepository.findByHorarioActivo), también después de editar y desactivar secciones.
+ */
+@PruebaJpa
+class ServicioSeccionEnCursoTest {
+
+    private static final int SECCIONES = 60;
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private HorariosEnCursoService horariosEnCursoService;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Curso curso;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.pantalla@test.com");
+        curso = datos.curso("CUR-P", "Arte", NivelAcademico.PRIMARIA, profesor);
+
+        // Horas con minutos sueltos (no solo múltiplos de 5) y algunas secciones inactivas
+        Random random = new Random(7);
+        for (int i = 0; i < SECCIONES; i++) {
+            Seccion seccion = datos.seccion("SEC-P" + i, curso, profesor)
+                    .gradoSeccion("2").activa(i % 7 != 0).build();
+            for (int h = 0; h < 1 + random.nextInt(3); h++) {
+                LocalTime inicio = LocalTime.of(7 + random.nextInt(12), random.nextInt(60));
+                seccion.agregarHorario(Horario.builder()
+                        .diaSemana(DayOfWeek.of(1 + random.nextInt(6)))
+                        .horaInicio(inicio).horaFin(inicio.plusMinutes(30 + random.nextInt(120)))
+                        .build());
+            }
+            seccionRepository.save(seccion);
+        }
+    }
+
+    @Test
+    void coincideConLaConsultaYNoVaALaBaseDeDatos() {
+        assertConsistente();
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        for (int minuto = 0; minuto < 24 * 60; minuto += 3) {
+            horariosEnCursoService.enCurso(DayOfWeek.TUESDAY, LocalTime.of(minuto / 60, minuto % 60));
+        }
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void sigueCoincidiendoTrasEditarYDesactivar() {
+        datos.profesor("otro.pantalla@test.com", "76000000");
+
+        SeccionResponseDTO creada = servicioSeccion.crearSeccion(request(
+                new HorarioDTO(DayOfWeek.MONDAY, LocalTime.of(10, 7), LocalTime.of(11, 0))));
+        assertTrue(ids(horariosEnCursoService.enCurso(DayOfWeek.MONDAY, LocalTime.of(10, 7))).contains(creada.getId()));
+        assertConsistente();
+
+        servicioSeccion.actualizarSeccion(creada.getId(), request(
+                new HorarioDTO(DayOfWeek.FRIDAY, LocalTime.of(15, 0), LocalTime.of(16, 33))));
+        assertFalse(ids(horariosEnCursoService.enCurso(DayOfWeek.MONDAY, LocalTime.of(10, 30))).contains(creada.getId()));
+        assertConsistente();
+
+        List<Seccion> activas = seccionRepository.findByActivaTrue();
+        servicioSeccion.desactivarSeccion(activas.get(0).getId());
+        servicioSeccion.activarSeccion(seccionRepository.findAll().stream()
+                .filter(s -> !s.getActiva()).findFirst().orElseThrow().getId());
+        assertConsistente();
+
+        // El endpoint con DTO completo usa el índice y devuelve las mismas secciones
+        List<SeccionResponseDTO> completas = servicioSeccion.listarSeccionesPorHorario(DayOfWeek.FRIDAY, LocalTime.of(16, 0));
+        assertEquals(ids(horariosEnCursoService.enCurso(DayOfWeek.FRIDAY, LocalTime.of(16, 0))),
+                completas.stream().map(SeccionResponseDTO::getId).collect(Collectors.toSet()));
+    }
+
+    // Cada día a cada minuto múltiplo de 7 (cae en bordes de franja distintos), más los extremos del día
+    private void assertConsistente() {
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            for (int minuto = 0; minuto < 24 * 60; minuto += 7) {
+                comparar(dia, LocalTime.of(minuto / 60, minuto % 60));
+            }
+            comparar(dia, LocalTime.MIN);
+            comparar(dia, LocalTime.of(23, 59));
+        }
+    }
+
+    private void comparar(DayOfWeek dia, LocalTime hora) {
+        Set<Long> esperadas = seccionRepository.findByHorarioActivo(dia, hora).stream()
+                .map(Seccion::getId).collect(Collectors.toSet());
+        List<SeccionEnCursoDTO> enCurso = horariosEnCursoService.enCurso(dia, hora);
+        assertEquals(esperadas, ids(enCurso), () -> dia + " " + hora);
+        assertEquals(esperadas.size(), enCurso.size(), () -> "Secciones repetidas en " + dia + " " + hora);
+    }
+
+    private static Set<Long> ids(List<SeccionEnCursoDTO> clases) {
+        return clases.stream().map(SeccionEnCursoDTO::getSeccionId).collect(Collectors.toSet());
+    }
+
+    private SeccionRequestDTO request(HorarioDTO horario) {
+        return SeccionRequestDTO.builder()
+                .nombre("Arte B").nivelSeccion(NivelAcademico.PRIMARIA).gradoSeccion("2")
+                .capacidad(30).fechaInicio(LocalDate.now().plusDays(1)).fechaFin(LocalDate.now().plusMonths(2))
+                .cursoId(curso.getId()).profesorDni("76000000")
+                .horarios(List.of(horario))
+                .build();
+    }
+}
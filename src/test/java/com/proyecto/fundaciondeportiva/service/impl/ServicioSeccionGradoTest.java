@@ -0,0 +1,100 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.config.GradoNumericoInitializer;
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El filtro por grado de GET /secciones/nivel/{nivel}?grado= compara la columna normalizada en SQL,
+ * así que "5", "5to", "Quinto" y "5° grado" son el mismo grado; la migración llena la columna en datos viejos.
+ */
+@PruebaJpa
+@Import(GradoNumericoInitializer.class)
+class ServicioSeccionGradoTest {
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private GradoNumericoInitializer gradoNumericoInitializer;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario profesor;
+    private Curso curso;
+
+    @BeforeEach
+    void cargarDatos() {
+        profesor = datos.profesor("profe.grado@test.com");
+        curso = datos.curso("CUR-G", "Ciencia", NivelAcademico.PRIMARIA, profesor);
+
+        crear("G-1", NivelAcademico.PRIMARIA, "5", true);
+        crear("G-2", NivelAcademico.PRIMARIA, "5to", true);
+        crear("G-3", NivelAcademico.PRIMARIA, "Quinto", true);
+        crear("G-4", NivelAcademico.PRIMARIA, "5° grado", true);
+        crear("G-5", NivelAcademico.PRIMARIA, "5", false);
+        crear("G-6", NivelAcademico.SECUNDARIA, "5to", true);
+        crear("G-7", NivelAcademico.PRIMARIA, "3ro", true);
+        crear("G-8", NivelAcademico.PRIMARIA, "Mixto", true);
+    }
+
+    @Test
+    void filtraPorGradoNormalizadoSoloLasActivasDelNivel() {
+        Set<String> quinto = Set.of("G-1", "G-2", "G-3", "G-4");
+        assertEquals(quinto, codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "5")));
+        assertEquals(quinto, codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "quinto de primaria")));
+        assertEquals(Set.of("G-6"), codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.SECUNDARIA, "5º")));
+        assertEquals(Set.of("G-7"), codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "Tercero")));
+        // Sin número se compara el texto tal cual
+        assertEquals(Set.of("G-8"), codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "Mixto")));
+        assertEquals(Set.of(), codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "Inicial")));
+    }
+
+    @Test
+    void laMigracionLlenaElGradoNumericoDeLosDatosViejos() {
+        // Filas guardadas antes de que existiera la columna
+        jdbcTemplate.update("UPDATE secciones SET grado_numero = NULL");
+        assertEquals(Set.of(), codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "5")));
+
+        gradoNumericoInitializer.run();
+
+        assertEquals(Set.of("G-1", "G-2", "G-3", "G-4"),
+                codigos(servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "5")));
+        List<String> sinNumero = jdbcTemplate.queryForList(
+                "SELECT codigo FROM secciones WHERE grado_numero IS NULL", String.class);
+        assertEquals(List.of("G-8"), sinNumero);
+    }
+
+    private void crear(String codigo, NivelAcademico nivel, String grado, boolean activa) {
+        seccionRepository.save(datos.seccion(codigo, curso, profesor)
+                .nivelSeccion(nivel).gradoSeccion(grado).activa(activa)
+                .build());
+    }
+
+    private static Set<String> codigos(List<SeccionResponseDTO> secciones) {
+        return secciones.stream().map(SeccionResponseDTO::getCodigo).collect(Collectors.toSet());
+    }
+}
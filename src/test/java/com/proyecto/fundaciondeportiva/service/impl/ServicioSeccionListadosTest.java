@@ -0,0 +1,133 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.response.SeccionResponseDTO;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.SeccionRepository;
+import com.proyecto.fundaciondeportiva.repository.SesionRepository;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los listados de secciones arman el DTO (curso, profesor y horarios) con un número fijo de sentencias,
+ * y llegar a una sección desde una sesión no carga sus horarios.
+ */
+@PruebaJpa
+class ServicioSeccionListadosTest {
+
+    private static final int SECCIONES = 200;
+    private static final int PROFESORES = 20;
+
+    @Autowired
+    private ServicioSeccionImpl servicioSeccion;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private SesionRepository sesionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Usuario> profesores = new ArrayList<>();
+    private Curso curso;
+    private Long sesionId;
+
+    @BeforeEach
+    void cargarDatos() {
+        // Varios profesores con perfil: sin el grafo, cada uno costaría dos consultas más
+        for (int p = 0; p < PROFESORES; p++) {
+            profesores.add(datos.profesor("profe.secciones" + p + "@test.com", String.format("72%06d", p)));
+        }
+
+        curso = datos.curso("CUR-S", "Música", NivelAcademico.PRIMARIA, profesores.get(0));
+
+        Seccion primera = null;
+        for (int i = 0; i < SECCIONES; i++) {
+            Seccion seccion = datos.seccion(String.format("SEC-S%03d", i), curso, profesores.get(i % PROFESORES))
+                    .gradoSeccion("5").capacidad(25).build();
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(DayOfWeek.WEDNESDAY).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 30))
+                    .build());
+            seccion.agregarHorario(Horario.builder()
+                    .diaSemana(DayOfWeek.FRIDAY).horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 30))
+                    .build());
+            seccion = seccionRepository.save(seccion);
+            if (primera == null) {
+                primera = seccion;
+            }
+        }
+
+        sesionId = sesionRepository.save(Sesion.builder()
+                .tema("Ritmo").fecha(LocalDate.now())
+                .horaInicio(LocalTime.of(8, 0)).horaFin(LocalTime.of(9, 30))
+                .seccion(primera).build()).getId();
+    }
+
+    @Test
+    void listadosUsanUnNumeroFijoDeSentencias() {
+        verificarListado(servicioSeccion::listarTodasLasSecciones, SECCIONES);
+        verificarListado(servicioSeccion::listarSeccionesActivas, SECCIONES);
+        verificarListado(servicioSeccion::listarSeccionesConCupo, SECCIONES);
+        verificarListado(() -> servicioSeccion.listarSeccionesPorCurso(curso.getId()), SECCIONES, 3); // + existsById
+        verificarListado(() -> servicioSeccion.listarSeccionesPorNivel(NivelAcademico.PRIMARIA), SECCIONES);
+        verificarListado(() -> servicioSeccion.listarSeccionesPorNivelYGrado(NivelAcademico.PRIMARIA, "5º grado"), SECCIONES);
+        verificarListado(() -> servicioSeccion.listarSeccionesPorProfesor(profesores.get(3).getId()), SECCIONES / PROFESORES);
+        // Dos horarios por sección en la franja no duplican filas. Con el índice de clases en curso
+        // ya armado solo se consultan las secciones por id (+ horarios); la primera vez, una consulta más
+        verificarListado(() -> servicioSeccion.listarSeccionesPorHorario(DayOfWeek.FRIDAY, LocalTime.of(9, 0)), SECCIONES, 3);
+        verificarListado(() -> servicioSeccion.listarSeccionesPorHorario(DayOfWeek.FRIDAY, LocalTime.of(9, 0)), SECCIONES);
+    }
+
+    @Test
+    void seccionDeUnaSesionNoCargaHorarios() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            Sesion sesion = entityManager.find(Sesion.class, sesionId);
+            Seccion seccion = sesion.getSeccion();
+            assertEquals("SEC-S000", seccion.getCodigo());
+            assertFalse(Hibernate.isInitialized(seccion.getHorarios()));
+            assertEquals(2, seccion.getHorarios().size());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void verificarListado(Supplier<List<SeccionResponseDTO>> listado, int esperadas) {
+        verificarListado(listado, esperadas, 2); // secciones + horarios
+    }
+
+    private void verificarListado(Supplier<List<SeccionResponseDTO>> listado, int esperadas, int maximoSentencias) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        List<SeccionResponseDTO> secciones = listado.get();
+        assertEquals(esperadas, secciones.size());
+        assertTrue(secciones.stream().allMatch(s -> s.getHorarios().size() == 2
+                && s.getDniProfesor().startsWith("72") && s.getTituloCurso() != null));
+        assertTrue(estadisticas.getPrepareStatementCount() <= maximoSentencias,
+                () -> "Sentencias: " + estadisticas.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,137 @@
+package com.proyecto.fundaciondeportiva.service.impl;
+
+import com.proyecto.fundaciondeportiva.dto.response.PaginaSesionesDTO;
+import com.proyecto.fundaciondeportiva.dto.response.SesionDTO;
+import com.proyecto.fundaciondeportiva.exception.ValidacionException;
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.MomentoClase;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.repository.*;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.DatosPrueba;
+import com.proyecto.fundaciondeportiva.soporte.PruebaJpa;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Las sesiones de una sección se listan por rango y por páginas en orden cronológico, con los
+ * recursos en una sola consulta (no una por sesión).
+ */
+@PruebaJpa
+class ServicioSesionListadoTest {
+
+    private static final int DIAS = 40;
+
+    @Autowired
+    private ServicioSesionImpl servicioSesion;
+
+    @Autowired
+    private DatosPrueba datos;
+
+    @Autowired
+    private SeccionRepository seccionRepository;
+
+    @Autowired
+    private SesionRepository sesionRepository;
+
+    @Autowired
+    private RecursoRepository recursoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate inicio = LocalDate.of(2025, 3, 3);
+    private Long seccionId;
+
+    @BeforeEach
+    void cargarDatos() {
+        Usuario profesor = datos.profesor("profe.sesiones@test.com");
+        Curso curso = datos.curso("CUR-S", "Música", NivelAcademico.PRIMARIA, profesor);
+        Seccion seccion = seccionRepository.save(datos.seccion("SEC-S", curso, profesor)
+                .gradoSeccion("3").fechaInicio(inicio).fechaFin(inicio.plusDays(DIAS)).build());
+        seccionId = seccion.getId();
+
+        // Dos sesiones por día, guardadas del último día al primero: el id no sigue el orden cronológico
+        for (int dia = DIAS - 1; dia >= 0; dia--) {
+            for (LocalTime hora : List.of(LocalTime.of(14, 0), LocalTime.of(8, 0))) {
+                Sesion sesion = sesionRepository.save(Sesion.builder()
+                        .fecha(inicio.plusDays(dia)).horaInicio(hora).horaFin(hora.plusHours(1))
+                        .seccion(seccion).build());
+                for (MomentoClase momento : MomentoClase.values()) {
+                    recursoRepository.save(Recurso.builder()
+                            .titulo("Recurso " + momento).url("https://recursos.test/" + sesion.getId())
+                            .momento(momento).sesion(sesion).build());
+                }
+            }
+        }
+    }
+
+    @Test
+    void listaElRangoConRecursosEnDosConsultas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        List<SesionDTO> semana = servicioSesion.listarSesionesDeSeccion(seccionId, inicio.plusDays(7), inicio.plusDays(13), false);
+        assertEquals(14, semana.size());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+        assertTrue(semana.stream().allMatch(s -> s.getRecursos().size() == MomentoClase.values().length));
+        assertOrdenCronologico(semana);
+
+        estadisticas.clear();
+        List<SesionDTO> resumen = servicioSesion.listarSesionesDeSeccion(seccionId, null, null, true);
+        assertEquals(DIAS * 2, resumen.size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertTrue(resumen.stream().allMatch(s -> s.getRecursos() == null));
+
+        assertThrows(ValidacionException.class,
+                () -> servicioSesion.listarSesionesDeSeccion(seccionId, inicio.plusDays(5), inicio, true));
+    }
+
+    @Test
+    void paginaTodasLasSesionesSinRepetirNiSaltar() {
+        LocalDate hasta = inicio.plusDays(29);
+        List<SesionDTO> recorridas = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            PaginaSesionesDTO pagina = servicioSesion.paginarSesionesDeSeccion(seccionId, inicio, hasta, cursor, 7, false);
+            assertTrue(pagina.getContenido().size() <= 7);
+            assertEquals(pagina.isHayMas(), pagina.getSiguienteCursor() != null);
+            recorridas.addAll(pagina.getContenido());
+            cursor = pagina.getSiguienteCursor();
+            paginas++;
+        } while (cursor != null);
+
+        assertEquals(60, recorridas.size());
+        assertEquals(9, paginas);
+        assertEquals(60, recorridas.stream().map(SesionDTO::getId).collect(Collectors.toSet()).size());
+        assertOrdenCronologico(recorridas);
+        assertEquals(servicioSesion.listarSesionesDeSeccion(seccionId, inicio, hasta, true).stream()
+                        .map(SesionDTO::getId).collect(Collectors.toList()),
+                recorridas.stream().map(SesionDTO::getId).collect(Collectors.toList()));
+
+        assertThrows(ValidacionException.class,
+                () -> servicioSesion.paginarSesionesDeSeccion(seccionId, null, null, "ayer", null, true));
+    }
+
+    private static void assertOrdenCronologico(List<SesionDTO> sesiones) {
+        for (int i = 1; i < sesiones.size(); i++) {
+            SesionDTO anterior = sesiones.get(i - 1);
+            SesionDTO actual = sesiones.get(i);
+            assertTrue(anterior.getFecha().atTime(anterior.getHoraInicio())
+                    .isBefore(actual.getFecha().atTime(actual.getHoraInicio())), () -> "Fuera de orden: " + actual.getId());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.proyecto.fundaciondeportiva.soporte;
+
+import com.proyecto.fundaciondeportiva.model.entity.*;
+import com.proyecto.fundaciondeportiva.model.enums.NivelAcademico;
+import com.proyecto.fundaciondeportiva.model.enums.Rol;
+import com.proyecto.fundaciondeportiva.repository.CursoRepository;
+import com.proyecto.fundaciondeportiva.repository.UsuarioRepository;
+import com.proyecto.fundaciondeportiva.service.HorariosEnCursoService;
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Datos comunes de las pruebas con base de datos (profesor, curso, sección, alumno) y la limpieza entre pruebas.
+ */
+@TestComponent
+public class DatosPrueba {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ObjectProvider<OcupacionAulasService> ocupacionAulasService;
+
+    @Autowired
+    private ObjectProvider<HorariosEnCursoService> horariosEnCursoService;
+
+    /**
+     * Vacía todas las tablas y descarta los índices en memoria que se arman a partir de ellas.
+     * Los ids siguen avanzando (en modo MySQL, H2 los reinicia salvo con CONTINUE IDENTITY): así no se
+     * repiten entre pruebas y las cachés por id, como la de versiones de token, no confunden a un usuario con otro.
+     */
+    public void limpiar() {
+        List<String> tablas = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String tabla : tablas) {
+                jdbcTemplate.execute("TRUNCATE TABLE " + tabla + " CONTINUE IDENTITY");
+            }
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+        ocupacionAulasService.ifAvailable(OcupacionAulasService::reconstruir);
+        horariosEnCursoService.ifAvailable(HorariosEnCursoService::invalidar);
+    }
+
+    public Usuario profesor(String email) {
+        return profesor(email, null);
+    }
+
+    /**
+     * Profesor con perfil (y DNI) si se indica uno: las secciones creadas por el servicio lo buscan por DNI.
+     */
+    public Usuario profesor(String email, String dni) {
+        Usuario profesor = Usuario.builder()
+                .nombres("Profe").apellidos("Prueba").email(email)
+                .password("x").rol(Rol.PROFESOR).build();
+        if (dni != null) {
+            profesor.setPerfilProfesor(PerfilProfesor.builder().dni(dni).usuario(profesor).build());
+        }
+        return usuarioRepository.save(profesor);
+    }
+
+    public Usuario alumno(String email, String dni, String codigoEstudiante, NivelAcademico nivel, String grado) {
+        Usuario alumno = Usuario.builder()
+                .nombres("Alumno").apellidos("Prueba").email(email)
+                .password("x").rol(Rol.ALUMNO).build();
+        alumno.setPerfilAlumno(PerfilAlumno.builder()
+                .dni(dni).codigoEstudiante(codigoEstudiante)
+                .nivel(nivel).grado(grado).usuario(alumno).build());
+        return usuarioRepository.save(alumno);
+    }
+
+    public Curso curso(String codigo, String titulo, NivelAcademico nivel, Usuario creador) {
+        return cursoRepository.save(Curso.builder()
+                .codigo(codigo).titulo(titulo).nivelDestino(nivel)
+                .creadoPor(creador).build());
+    }
+
+    /**
+     * Sección activa del nivel del curso, de hoy a tres meses; el resto se ajusta sobre el builder.
+     */
+    public Seccion.SeccionBuilder seccion(String codigo, Curso curso, Usuario profesor) {
+        return Seccion.builder()
+                .codigo(codigo).nombre(curso.getTitulo() + " " + codigo)
+                .nivelSeccion(curso.getNivelDestino()).gradoSeccion("1")
+                .fechaInicio(LocalDate.now()).fechaFin(LocalDate.now().plusMonths(3))
+                .curso(curso).profesor(profesor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.proyecto.fundaciondeportiva.soporte;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Deja la base vacía antes de cada prueba (y antes de los @BeforeEach de la clase).
+ */
+public class LimpiezaTablas implements BeforeEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SpringExtension.getApplicationContext(context).getBean(DatosPrueba.class).limpiar();
+    }
+}
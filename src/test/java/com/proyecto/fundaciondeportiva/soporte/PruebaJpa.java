@@ -0,0 +1,42 @@
+package com.proyecto.fundaciondeportiva.soporte;
+
+import com.proyecto.fundaciondeportiva.config.ExtensionVentanaSesiones;
+import com.proyecto.fundaciondeportiva.repository.BusquedaSeccionRepository;
+import com.proyecto.fundaciondeportiva.repository.ExportacionRepository;
+import com.proyecto.fundaciondeportiva.service.CalendarioSesionesService;
+import com.proyecto.fundaciondeportiva.service.CruceHorariosService;
+import com.proyecto.fundaciondeportiva.service.HorariosEnCursoService;
+import com.proyecto.fundaciondeportiva.service.OcupacionAulasService;
+import com.proyecto.fundaciondeportiva.service.impl.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.*;
+
+/**
+ * Prueba contra H2 (perfil "test") con los servicios de secciones, matrículas, sesiones y asistencia.
+ * Todas las clases anotadas así comparten un mismo contexto (y un solo pool de conexiones): en lugar de
+ * descartarlo después de cada prueba, {@link DatosPrueba#limpiar()} vacía las tablas antes de cada una.
+ * Sin transacción de prueba: los servicios hacen commit como en producción.
+ * Una clase que necesite otros beans los agrega con su propio @Import (y tendrá su propio contexto).
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatosPrueba.class, ServicioSeccionImpl.class, ServicioAulaImpl.class, ServicioDiaNoLectivoImpl.class,
+        ServicioMatriculaImpl.class, ServicioSesionImpl.class, ServicioAsistenciaImpl.class,
+        CruceHorariosService.class, CalendarioSesionesService.class, OcupacionAulasService.class,
+        HorariosEnCursoService.class, ExtensionVentanaSesiones.class,
+        BusquedaSeccionRepository.class, ExportacionRepository.class})
+@ExtendWith(LimpiezaTablas.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface PruebaJpa {
+}
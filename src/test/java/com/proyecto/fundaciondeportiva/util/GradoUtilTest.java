@@ -0,0 +1,43 @@
+package com.proyecto.fundaciondeportiva.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Las formas en que se escribe el grado a mano se normalizan al mismo número.
+ */
+class GradoUtilTest {
+
+    @Test
+    void leeElNumeroEnSusFormasHabituales() {
+        assertEquals(5, GradoUtil.aNumero("5"));
+        assertEquals(5, GradoUtil.aNumero("5to"));
+        assertEquals(3, GradoUtil.aNumero("3°"));
+        assertEquals(3, GradoUtil.aNumero("3º grado"));
+        assertEquals(1, GradoUtil.aNumero(" 1ro de secundaria "));
+        assertEquals(10, GradoUtil.aNumero("Grado 10"));
+    }
+
+    @Test
+    void leeLosOrdinalesEscritosConLetras() {
+        assertEquals(5, GradoUtil.aNumero("Quinto"));
+        assertEquals(5, GradoUtil.aNumero("quinto de primaria"));
+        assertEquals(3, GradoUtil.aNumero("Tercer grado"));
+        assertEquals(1, GradoUtil.aNumero("PRIMERO"));
+        assertEquals(6, GradoUtil.aNumero("Sexto B"));
+        // El número escrito gana sobre la palabra
+        assertEquals(2, GradoUtil.aNumero("Quinto ciclo, 2do grado"));
+    }
+
+    @Test
+    void sinNumeroDevuelveNull() {
+        assertNull(GradoUtil.aNumero(null));
+        assertNull(GradoUtil.aNumero(""));
+        assertNull(GradoUtil.aNumero("   "));
+        assertNull(GradoUtil.aNumero("Inicial"));
+        assertNull(GradoUtil.aNumero("Primaria"));
+        assertNull(GradoUtil.aNumero("99999999999"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.proyecto.fundaciondeportiva.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * El separador se decide con la primera línea y los valores entre comillas se leen completos.
+ */
+class LectorCsvTest {
+
+    @Test
+    void elSeparadorSeDecideConElEncabezado() throws IOException {
+        LectorCsv lector = lector("\uFEFFdni;calificacion\n71000000;18,5\n\n71000001,17;\"15\"\n");
+
+        assertEquals(List.of("dni", "calificacion"), lector.siguiente());
+        assertEquals(';', lector.getSeparador());
+        assertEquals(List.of("71000000", "18,5"), lector.siguiente());
+        assertEquals(2, lector.getLinea());
+        // Una coma en una fila posterior ya no cambia el separador
+        assertEquals(List.of("71000001,17", "15"), lector.siguiente());
+        assertEquals(4, lector.getLinea());
+        assertNull(lector.siguiente());
+    }
+
+    @Test
+    void respetaLasComillas() throws IOException {
+        List<List<String>> registros = todos(lector("""
+                dni,seccion,observaciones
+                 71000000 , "SEC-A" ,"Traslado, turno tarde"
+                71000001,SEC-B,"Dijo ""hola""\"
+                71000002,SEC-C,"Primera línea
+                segunda línea"
+                71000003,"SEC;D",
+                """));
+
+        assertEquals(List.of("71000000", "SEC-A", "Traslado, turno tarde"), registros.get(1));
+        assertEquals(List.of("71000001", "SEC-B", "Dijo \"hola\""), registros.get(2));
+        assertEquals(List.of("71000002", "SEC-C", "Primera línea\nsegunda línea"), registros.get(3));
+        assertEquals(List.of("71000003", "SEC;D", ""), registros.get(4));
+        assertEquals(5, registros.size());
+    }
+
+    @Test
+    void unPuntoYComaEntreComillasNoCambiaElSeparador() throws IOException {
+        LectorCsv lector = lector("\"a;b\",c\n");
+        assertEquals(List.of("a;b", "c"), lector.siguiente());
+        assertEquals(',', lector.getSeparador());
+    }
+
+    private static LectorCsv lector(String contenido) {
+        return new LectorCsv(new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<List<String>> todos(LectorCsv lector) throws IOException {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> campos;
+        while ((campos = lector.siguiente()) != null) {
+            registros.add(campos);
+        }
+        return registros;
+    }
+}